@@ -0,0 +1,147 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks of the basic operations of {@link Int2DMatrix}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Int2DMatrixBenchmark {
+
+    /** The scalar kernels, compared to the ones in use. */
+    private static final IntKernel SCALAR = new ScalarIntKernel();
+
+    /** The blocked multiplier, on the common pool. */
+    private static final ParallelMatrixMultiplier MULTIPLIER = new ParallelMatrixMultiplier();
+
+    /** Width and height of the matrices. */
+    @Param({ "64", "512" })
+    private int size;
+
+    /** A matrix of random values. */
+    private Int2DMatrix matrix;
+
+    /** The identity matrix, fully scanned by the diagonal check. */
+    private Int2DMatrix identity;
+
+    /** A matrix overwritten by the bulk copies. */
+    private Int2DMatrix target;
+
+    /** Contents of the matrix, in row-major order. */
+    private int[] contents;
+
+    /** Builds the matrices. */
+    @Setup
+    public void setUp() {
+        Random random = new Random(size);
+        matrix = new Int2DMatrix(size, size);
+        identity = new Int2DMatrix(size, size);
+        target = new Int2DMatrix(size, size);
+        for (int y = 0; y < size; y++) {
+            identity.set(y, y, 1);
+            for (int x = 0; x < size; x++) {
+                matrix.set(x, y, random.nextInt(100));
+            }
+        }
+        contents = new int[size * size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                contents[y * size + x] = matrix.get(x, y);
+            }
+        }
+    }
+
+    /** @return a copy of the matrix */
+    @Benchmark
+    public Int2DMatrix copy() {
+        return new Int2DMatrix(matrix);
+    }
+
+    /** @return the target matrix, overwritten with the matrix */
+    @Benchmark
+    public Int2DMatrix copyFrom() {
+        target.copyFrom(matrix);
+        return target;
+    }
+
+    /** @return the sum of the sums of the rows */
+    @Benchmark
+    public int sumRows() {
+        int sum = 0;
+        for (int y = 0; y < size; y++) {
+            sum += matrix.arraySumRow(y);
+        }
+        return sum;
+    }
+
+    /** @return the sum of the sums of the columns */
+    @Benchmark
+    public int sumColumns() {
+        int sum = 0;
+        for (int x = 0; x < size; x++) {
+            sum += matrix.arraySumColumn(x);
+        }
+        return sum;
+    }
+
+    /** @return the sum of the values, read row after row */
+    @Benchmark
+    public int traverseRows() {
+        int sum = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                sum += matrix.get(x, y);
+            }
+        }
+        return sum;
+    }
+
+    /** @return the product of the matrix by itself */
+    @Benchmark
+    public Int2DMatrix multiply() {
+        return matrix.multiply(matrix);
+    }
+
+    /** @return the product of the matrix by itself, blocked and parallel */
+    @Benchmark
+    public Int2DMatrix parallelMultiply() {
+        return MULTIPLIER.multiply(matrix, matrix);
+    }
+
+    /** @return the boolean product of the matrix by itself */
+    @Benchmark
+    public Int2DMatrix booleanProduct() {
+        return matrix.booleanProduct(matrix);
+    }
+
+    /** @return the boolean product of the matrix by itself, by the scalar kernel */
+    @Benchmark
+    public int[] booleanProductScalar() {
+        int[] result = new int[size * size];
+        SCALAR.booleanProduct(contents, contents, result, size, size, size);
+        return result;
+    }
+
+    /** @return true, the identity being diagonal */
+    @Benchmark
+    public boolean isDiagonal() {
+        return identity.isDiagonal();
+    }
+
+}
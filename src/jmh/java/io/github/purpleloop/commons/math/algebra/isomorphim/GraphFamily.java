@@ -0,0 +1,72 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import java.util.Random;
+
+import io.github.purpleloop.commons.math.algebra.Int2DMatrix;
+
+/** Reproducible families of directed graphs for the benchmarks. */
+public enum GraphFamily {
+
+    /** Erdős–Rényi random graphs, with an average of 4 edges per node. */
+    RANDOM {
+        @Override
+        Int2DMatrix build(int size) {
+            return RandomGraphs.randomGraph(new Random(size), size, 4.0 / size);
+        }
+    },
+
+    /** Square grids, with edges to the right and to the bottom neighbours. */
+    GRID {
+        @Override
+        Int2DMatrix build(int size) {
+            int width = (int) Math.ceil(Math.sqrt(size));
+            Int2DMatrix graph = new Int2DMatrix(size, size);
+            for (int node = 0; node < size; node++) {
+                if ((node + 1) % width != 0 && node + 1 < size) {
+                    graph.set(node + 1, node, 1);
+                }
+                if (node + width < size) {
+                    graph.set(node + width, node, 1);
+                }
+            }
+            return graph;
+        }
+    },
+
+    /** Complete graphs, without loops. */
+    CLIQUE {
+        @Override
+        Int2DMatrix build(int size) {
+            Int2DMatrix graph = new Int2DMatrix(size, size);
+            for (int from = 0; from < size; from++) {
+                for (int to = 0; to < size; to++) {
+                    if (from != to) {
+                        graph.set(to, from, 1);
+                    }
+                }
+            }
+            return graph;
+        }
+    },
+
+    /** Binary trees, with edges from the parents to the children. */
+    TREE {
+        @Override
+        Int2DMatrix build(int size) {
+            Int2DMatrix graph = new Int2DMatrix(size, size);
+            for (int node = 1; node < size; node++) {
+                graph.set(node, (node - 1) / 2, 1);
+            }
+            return graph;
+        }
+    };
+
+    /**
+     * Builds a graph of the family. The same graph is built for a given size.
+     *
+     * @param size number of nodes
+     * @return the adjacency matrix of the graph
+     */
+    abstract Int2DMatrix build(int size);
+
+}
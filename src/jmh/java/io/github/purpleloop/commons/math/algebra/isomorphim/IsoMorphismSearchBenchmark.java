@@ -0,0 +1,130 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.purpleloop.commons.math.algebra.Int2DMatrix;
+
+/**
+ * Benchmarks of the isomorphism search engines, on reproducible graph
+ * families. The query graph is induced by the first nodes of the data graph,
+ * so that it has at least one isomorphism.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IsoMorphismSearchBenchmark {
+
+    /** An isomorphism search engine. */
+    public enum Engine {
+
+        /** The matrix based search, without pruning. */
+        ULLMANN {
+            @Override
+            int search(Int2DMatrix data, Int2DMatrix query, Integer maxNumIsoMorph) {
+                return IsoMorphismSearch.getIsomorphicSubgraphs(data, query, maxNumIsoMorph,
+                        IsoMorphismSearch.DEGREE_CRITERIA, false).size();
+            }
+        },
+
+        /** The matrix based search, with pruning. */
+        ULLMANN_PRUNED {
+            @Override
+            int search(Int2DMatrix data, Int2DMatrix query, Integer maxNumIsoMorph) {
+                return IsoMorphismSearch.getIsomorphicSubgraphs(data, query, maxNumIsoMorph,
+                        IsoMorphismSearch.DEGREE_CRITERIA, true).size();
+            }
+        },
+
+        /** The parallel matrix based search, with pruning. */
+        PARALLEL_PRUNED {
+            @Override
+            int search(Int2DMatrix data, Int2DMatrix query, Integer maxNumIsoMorph) {
+                return ParallelIsoMorphismSearch.getIsomorphicSubgraphs(data, query,
+                        maxNumIsoMorph, IsoMorphismSearch.DEGREE_CRITERIA, true).size();
+            }
+        },
+
+        /** The bit set based search. */
+        BITSET {
+            @Override
+            int search(Int2DMatrix data, Int2DMatrix query, Integer maxNumIsoMorph) {
+                return BitSetIsoMorphismSearch.getIsomorphicSubgraphs(data, query,
+                        maxNumIsoMorph, IsoMorphismSearch.DEGREE_CRITERIA).size();
+            }
+        },
+
+        /** The VF2++ search. */
+        VF2 {
+            @Override
+            int search(Int2DMatrix data, Int2DMatrix query, Integer maxNumIsoMorph) {
+                return Vf2IsoMorphismSearch.getIsomorphicSubgraphs(data, query, maxNumIsoMorph,
+                        IsoMorphismSearch.DEGREE_CRITERIA).size();
+            }
+        };
+
+        /**
+         * Runs a search.
+         *
+         * @param data the data graph
+         * @param query the query graph
+         * @param maxNumIsoMorph the maximum number isomorphisms to find
+         * @return number of isomorphisms found
+         */
+        abstract int search(Int2DMatrix data, Int2DMatrix query, Integer maxNumIsoMorph);
+    }
+
+    /** Family of the data graph. */
+    @Param({ "RANDOM", "GRID", "CLIQUE", "TREE" })
+    private GraphFamily family;
+
+    /** Number of nodes of the data graph. */
+    @Param({ "16", "64", "256" })
+    private int dataSize;
+
+    /** Number of nodes of the query graph. */
+    @Param({ "4" })
+    private int querySize;
+
+    /** The maximum number isomorphisms to find. */
+    @Param({ "1", "100", "10000" })
+    private int maxNumIsoMorph;
+
+    /** The search engine. */
+    @Param
+    private Engine engine;
+
+    /** The data graph. */
+    private Int2DMatrix data;
+
+    /** The query graph. */
+    private Int2DMatrix query;
+
+    /** Builds the graphs. */
+    @Setup
+    public void setUp() {
+        data = family.build(dataSize);
+        query = RandomGraphs.subGraph(data, querySize);
+    }
+
+    /** @return number of isomorphisms found */
+    @Benchmark
+    public int search() {
+        return engine.search(data, query, maxNumIsoMorph);
+    }
+
+}
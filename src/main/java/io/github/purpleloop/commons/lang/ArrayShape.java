@@ -0,0 +1,188 @@
+package io.github.purpleloop.commons.lang;
+
+import java.util.Arrays;
+
+/**
+ * The shape of a multi-dimensional array stored in a single flat array : the
+ * sizes of its dimensions, and the strides giving the index of a cell in the
+ * flat array from its coordinates.
+ *
+ * <p>
+ * The index of the cell (c0, c1, ... cn) is the sum of the ci × stride(i).
+ * The strides are computed once, so that accessing a cell costs a few
+ * multiplications whatever the number of dimensions.
+ * </p>
+ */
+public final class ArrayShape {
+
+    /** Layout of the cells in the flat array. */
+    public enum Layout {
+
+        /**
+         * The last coordinate varies the fastest, as in nested Java arrays or
+         * in a {@link RecursiveArray}.
+         */
+        ROW_MAJOR,
+
+        /** The first coordinate varies the fastest. */
+        COLUMN_MAJOR;
+    }
+
+    /** Sizes of the dimensions. */
+    private final int[] sizes;
+
+    /** Strides of the dimensions, in cells. */
+    private final int[] strides;
+
+    /** Layout of the cells. */
+    private final Layout layout;
+
+    /** Total number of cells. */
+    private final int cellCount;
+
+    /**
+     * Creates a shape, in row-major layout.
+     *
+     * @param sizes sizes of each dimension
+     */
+    public ArrayShape(int... sizes) {
+        this(Layout.ROW_MAJOR, sizes);
+    }
+
+    /**
+     * Creates a shape.
+     *
+     * @param layout layout of the cells
+     * @param sizes sizes of each dimension
+     */
+    public ArrayShape(Layout layout, int... sizes) {
+
+        if (layout == null) {
+            throw new IllegalArgumentException("layout is null");
+        }
+        if (sizes == null || sizes.length == 0) {
+            throw new IllegalArgumentException("sizes must not be empty");
+        }
+
+        this.layout = layout;
+        this.sizes = sizes.clone();
+        this.strides = new int[sizes.length];
+
+        int stride = 1;
+        try {
+            for (int step = 0; step < sizes.length; step++) {
+                int dimension = (layout == Layout.ROW_MAJOR) ? sizes.length - 1 - step : step;
+                if (sizes[dimension] < 0) {
+                    throw new IllegalArgumentException("The size of the dimension " + dimension
+                            + " must be positive or zero.");
+                }
+                strides[dimension] = stride;
+                stride = Math.multiplyExact(stride, sizes[dimension]);
+            }
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("The array has more than " + Integer.MAX_VALUE
+                    + " cells : " + Arrays.toString(sizes), e);
+        }
+        this.cellCount = stride;
+    }
+
+    /** @return number of dimensions */
+    public int getDimension() {
+        return sizes.length;
+    }
+
+    /**
+     * @param dimension a dimension
+     * @return size of the dimension
+     */
+    public int getSize(int dimension) {
+        return sizes[dimension];
+    }
+
+    /** @return sizes of the dimensions, as a new array */
+    public int[] getSizes() {
+        return sizes.clone();
+    }
+
+    /**
+     * @param dimension a dimension
+     * @return distance in the flat array between two cells whose coordinates
+     *         only differ by one in the dimension
+     */
+    public int getStride(int dimension) {
+        return strides[dimension];
+    }
+
+    /** @return layout of the cells */
+    public Layout getLayout() {
+        return layout;
+    }
+
+    /** @return total number of cells */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Computes the index of a cell in the flat array.
+     *
+     * @param coords coordinates of the cell, one per dimension
+     * @return index of the cell
+     * @throws ArrayIndexOutOfBoundsException if a coordinate is out of bounds
+     */
+    public int index(int... coords) {
+        if (coords.length != sizes.length) {
+            throw new ArrayIndexOutOfBoundsException("Invalid coordinates size " + coords.length
+                    + " for " + sizes.length + " dimensions");
+        }
+
+        int index = 0;
+        for (int dimension = 0; dimension < sizes.length; dimension++) {
+            int coord = coords[dimension];
+            if (coord < 0 || coord >= sizes[dimension]) {
+                throw new ArrayIndexOutOfBoundsException("Access error : " + coord
+                        + " is out of bounds [0; " + (sizes[dimension] - 1) + "] of dimension "
+                        + dimension);
+            }
+            index += coord * strides[dimension];
+        }
+        return index;
+    }
+
+    /**
+     * Computes the coordinates of a cell from its index in the flat array.
+     *
+     * @param index index of the cell
+     * @param coords where to store the coordinates, one per dimension
+     */
+    public void coordinates(int index, int[] coords) {
+        if (index < 0 || index >= cellCount) {
+            throw new ArrayIndexOutOfBoundsException("Access error : " + index
+                    + " is out of bounds [0; " + (cellCount - 1) + "]");
+        }
+
+        int remaining = index;
+        for (int step = 0; step < sizes.length; step++) {
+            int dimension = (layout == Layout.ROW_MAJOR) ? step : sizes.length - 1 - step;
+            coords[dimension] = remaining / strides[dimension];
+            remaining %= strides[dimension];
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ArrayShape shape && layout == shape.layout
+                && Arrays.equals(sizes, shape.sizes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * layout.hashCode() + Arrays.hashCode(sizes);
+    }
+
+    @Override
+    public String toString() {
+        return layout + Arrays.toString(sizes);
+    }
+
+}
@@ -0,0 +1,61 @@
+package io.github.purpleloop.commons.lang;
+
+/**
+ * A multi-dimensional array of primitive values, stored in a single flat
+ * array.
+ *
+ * <p>
+ * Unlike a {@link RecursiveArray}, a flat array is a single object whatever
+ * its number of dimensions, its cells are not boxed, and accessing a cell
+ * computes its index from precomputed strides instead of walking a tree of
+ * sub-arrays. The coordinates are given as an int array, which can be reused
+ * between accesses.
+ * </p>
+ *
+ * @see ArrayShape
+ * @see MappedFlatArray for an array stored in a memory-mapped file
+ */
+public abstract class FlatArray {
+
+    /** Shape of the array. */
+    private final ArrayShape shape;
+
+    /**
+     * Creates a flat array.
+     *
+     * @param shape shape of the array
+     */
+    protected FlatArray(ArrayShape shape) {
+        if (shape == null) {
+            throw new IllegalArgumentException("shape is null");
+        }
+        this.shape = shape;
+    }
+
+    /** @return shape of the array */
+    public ArrayShape getShape() {
+        return shape;
+    }
+
+    /** @return number of dimensions */
+    public int getDimension() {
+        return shape.getDimension();
+    }
+
+    /**
+     * @param dimension a dimension
+     * @return size of the dimension
+     */
+    public int getSize(int dimension) {
+        return shape.getSize(dimension);
+    }
+
+    /**
+     * @param coords coordinates of a cell, one per dimension
+     * @return index of the cell in the flat storage
+     */
+    protected int index(int... coords) {
+        return shape.index(coords);
+    }
+
+}
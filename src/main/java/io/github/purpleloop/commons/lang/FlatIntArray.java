@@ -0,0 +1,69 @@
+package io.github.purpleloop.commons.lang;
+
+import java.util.Arrays;
+
+/** A multi-dimensional array of int values, stored in a single flat array. */
+public class FlatIntArray extends FlatArray {
+
+    /** The cells, in the layout of the shape. */
+    private final int[] cells;
+
+    /**
+     * Creates an array in row-major layout, all cells being zero.
+     *
+     * @param sizes sizes of each dimension
+     */
+    public FlatIntArray(int... sizes) {
+        this(new ArrayShape(sizes));
+    }
+
+    /**
+     * Creates an array, all cells being zero.
+     *
+     * @param shape shape of the array
+     */
+    public FlatIntArray(ArrayShape shape) {
+        super(shape);
+        this.cells = new int[shape.getCellCount()];
+    }
+
+    /**
+     * Creates an array as a copy of a source array.
+     *
+     * @param source the source array
+     */
+    public FlatIntArray(FlatIntArray source) {
+        super(source.getShape());
+        this.cells = source.cells.clone();
+    }
+
+    /**
+     * Return the stored value at the given coordinates.
+     *
+     * @param coords coordinates of the cell, one per dimension
+     * @return the value
+     */
+    public int get(int... coords) {
+        return cells[index(coords)];
+    }
+
+    /**
+     * Stores a value at the given coordinates.
+     *
+     * @param value the value to store
+     * @param coords coordinates of the cell, one per dimension
+     */
+    public void set(int value, int... coords) {
+        cells[index(coords)] = value;
+    }
+
+    /**
+     * Sets all the cells to the given value.
+     *
+     * @param value the value to set
+     */
+    public void fill(int value) {
+        Arrays.fill(cells, value);
+    }
+
+}
@@ -0,0 +1,69 @@
+package io.github.purpleloop.commons.lang;
+
+import java.util.Arrays;
+
+/** A multi-dimensional array of long values, stored in a single flat array. */
+public class FlatLongArray extends FlatArray {
+
+    /** The cells, in the layout of the shape. */
+    private final long[] cells;
+
+    /**
+     * Creates an array in row-major layout, all cells being zero.
+     *
+     * @param sizes sizes of each dimension
+     */
+    public FlatLongArray(int... sizes) {
+        this(new ArrayShape(sizes));
+    }
+
+    /**
+     * Creates an array, all cells being zero.
+     *
+     * @param shape shape of the array
+     */
+    public FlatLongArray(ArrayShape shape) {
+        super(shape);
+        this.cells = new long[shape.getCellCount()];
+    }
+
+    /**
+     * Creates an array as a copy of a source array.
+     *
+     * @param source the source array
+     */
+    public FlatLongArray(FlatLongArray source) {
+        super(source.getShape());
+        this.cells = source.cells.clone();
+    }
+
+    /**
+     * Return the stored value at the given coordinates.
+     *
+     * @param coords coordinates of the cell, one per dimension
+     * @return the value
+     */
+    public long get(int... coords) {
+        return cells[index(coords)];
+    }
+
+    /**
+     * Stores a value at the given coordinates.
+     *
+     * @param value the value to store
+     * @param coords coordinates of the cell, one per dimension
+     */
+    public void set(long value, int... coords) {
+        cells[index(coords)] = value;
+    }
+
+    /**
+     * Sets all the cells to the given value.
+     *
+     * @param value the value to set
+     */
+    public void fill(long value) {
+        Arrays.fill(cells, value);
+    }
+
+}
@@ -0,0 +1,422 @@
+package io.github.purpleloop.commons.lang;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.github.purpleloop.commons.lang.ArrayShape.Layout;
+
+/**
+ * A multi-dimensional array of primitive values stored in a memory-mapped
+ * file, out of the heap.
+ *
+ * <p>
+ * The file starts with a header (magic number, format version, type of the
+ * values, layout, number of dimensions and size of each dimension), padded to
+ * a multiple of 8 bytes, followed by the raw values in the layout of the
+ * shape. The whole file is little endian, the native order of most hosts, so
+ * that values are read without conversion.
+ * </p>
+ *
+ * <p>
+ * Opening a file maps it without reading its contents : pages are loaded by
+ * the operating system when accessed, and are shared by all the processes
+ * mapping the file read-only. A file can also be mapped copy-on-write
+ * ({@link MapMode#PRIVATE}), changes then staying private to the mapping.
+ * As a mapped buffer is limited to 2 GB, the values are mapped in several
+ * chunks.
+ * </p>
+ */
+public class MappedFlatArray extends FlatArray implements Closeable {
+
+    /** Class logger. */
+    private static final Log LOG = LogFactory.getLog(MappedFlatArray.class);
+
+    /** Magic number of the files ("PNDA"). */
+    static final int MAGIC = 0x41444E50;
+
+    /** Version of the file format. */
+    static final int VERSION = 1;
+
+    /** Size of the fixed part of the header, in bytes. */
+    private static final int FIXED_HEADER_SIZE = 20;
+
+    /** Default size of the mapped chunks, in bytes, a multiple of 8. */
+    static final int DEFAULT_CHUNK_SIZE = 1 << 30;
+
+    /** Type of the values of an array. */
+    public enum ElementType {
+
+        /** int values. */
+        INT(Integer.BYTES),
+
+        /** long values. */
+        LONG(Long.BYTES),
+
+        /** double values. */
+        DOUBLE(Double.BYTES);
+
+        /** Size of a value, in bytes. */
+        private final int byteSize;
+
+        /**
+         * Creates an element type.
+         *
+         * @param byteSize size of a value, in bytes
+         */
+        ElementType(int byteSize) {
+            this.byteSize = byteSize;
+        }
+
+        /** @return size of a value, in bytes */
+        public int getByteSize() {
+            return byteSize;
+        }
+    }
+
+    /** Path of the file. */
+    private final Path path;
+
+    /** Type of the values. */
+    private final ElementType elementType;
+
+    /** Size of the mapped chunks, in bytes. */
+    private final int chunkSize;
+
+    /** The mapped chunks of the values, null once closed. */
+    private MappedByteBuffer[] chunks;
+
+    /**
+     * Creates an array over mapped chunks.
+     *
+     * @param path path of the file
+     * @param elementType type of the values
+     * @param shape shape of the array
+     * @param chunkSize size of the mapped chunks, in bytes
+     * @param chunks the mapped chunks of the values
+     */
+    private MappedFlatArray(Path path, ElementType elementType, ArrayShape shape,
+            int chunkSize, MappedByteBuffer[] chunks) {
+        super(shape);
+        this.path = path;
+        this.elementType = elementType;
+        this.chunkSize = chunkSize;
+        this.chunks = chunks;
+    }
+
+    /**
+     * @param dimension number of dimensions
+     * @return size of the header, padded to a multiple of 8 bytes
+     */
+    private static int headerSize(int dimension) {
+        int size = FIXED_HEADER_SIZE + dimension * Integer.BYTES;
+        return (size + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    /**
+     * Creates a file for an array, all values being zero, and maps it for
+     * reading and writing. An existing file is replaced.
+     *
+     * @param path path of the file
+     * @param elementType type of the values
+     * @param shape shape of the array
+     * @return the mapped array
+     * @throws IOException in case of problem when creating the file
+     */
+    public static MappedFlatArray create(Path path, ElementType elementType, ArrayShape shape)
+            throws IOException {
+
+        int dimension = shape.getDimension();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(headerSize(dimension))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(elementType.ordinal())
+                    .putInt(shape.getLayout().ordinal()).putInt(dimension);
+            for (int index = 0; index < dimension; index++) {
+                header.putInt(shape.getSize(index));
+            }
+            header.clear();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+        LOG.debug("Created the array file " + path + " of " + elementType + " " + shape);
+
+        return open(path, MapMode.READ_WRITE, DEFAULT_CHUNK_SIZE, true);
+    }
+
+    /**
+     * Opens and maps the file of an existing array, read-only.
+     *
+     * @param path path of the file
+     * @return the mapped array
+     * @throws IOException in case of problem when reading the file, or if it
+     *             is not an array file
+     */
+    public static MappedFlatArray open(Path path) throws IOException {
+        return open(path, MapMode.READ_ONLY, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Opens and maps the file of an existing array.
+     *
+     * @param path path of the file
+     * @param mode {@link MapMode#READ_ONLY}, {@link MapMode#READ_WRITE} or
+     *            {@link MapMode#PRIVATE} for a copy-on-write mapping, the last
+     *            two requiring a writable file
+     * @return the mapped array
+     * @throws IOException in case of problem when reading the file, or if it
+     *             is not an array file
+     */
+    public static MappedFlatArray open(Path path, MapMode mode) throws IOException {
+        return open(path, mode, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Opens and maps the file of an existing array.
+     *
+     * @param path path of the file
+     * @param mode the mapping mode
+     * @param chunkSize size of the mapped chunks, in bytes, a multiple of 8
+     * @return the mapped array
+     * @throws IOException in case of problem when reading the file, or if it
+     *             is not an array file
+     */
+    static MappedFlatArray open(Path path, MapMode mode, int chunkSize) throws IOException {
+        return open(path, mode, chunkSize, false);
+    }
+
+    /**
+     * Opens and maps the file of an array.
+     *
+     * @param path path of the file
+     * @param mode the mapping mode
+     * @param chunkSize size of the mapped chunks, in bytes, a multiple of 8
+     * @param created true for a file just created with only its header,
+     *            extended by the mapping, false for an existing array whose
+     *            values must all be present
+     * @return the mapped array
+     * @throws IOException in case of problem when reading the file, or if it
+     *             is not an array file
+     */
+    private static MappedFlatArray open(Path path, MapMode mode, int chunkSize,
+            boolean created) throws IOException {
+
+        StandardOpenOption[] options = (mode == MapMode.READ_ONLY)
+                ? new StandardOpenOption[] { StandardOpenOption.READ }
+                : new StandardOpenOption[] { StandardOpenOption.READ, StandardOpenOption.WRITE };
+
+        try (FileChannel channel = FileChannel.open(path, options)) {
+
+            ByteBuffer header = readHeader(channel, path, FIXED_HEADER_SIZE, 0);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("The file " + path + " is not an array file.");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version + " of the array file "
+                        + path + ".");
+            }
+            int typeCode = header.getInt();
+            int layoutCode = header.getInt();
+            int dimension = header.getInt();
+            if (typeCode < 0 || typeCode >= ElementType.values().length || layoutCode < 0
+                    || layoutCode >= Layout.values().length || dimension <= 0) {
+                throw new IOException("Invalid header in the array file " + path + ".");
+            }
+            ElementType elementType = ElementType.values()[typeCode];
+
+            header = readHeader(channel, path, dimension * Integer.BYTES, FIXED_HEADER_SIZE);
+            int[] sizes = new int[dimension];
+            for (int index = 0; index < dimension; index++) {
+                sizes[index] = header.getInt();
+            }
+            ArrayShape shape;
+            try {
+                shape = new ArrayShape(Layout.values()[layoutCode], sizes);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid dimensions in the array file " + path + ".", e);
+            }
+
+            int headerSize = headerSize(dimension);
+            long size = (long) shape.getCellCount() * elementType.getByteSize();
+            long fileSize = channel.size();
+
+            // A created file only has its header, it is extended by the mapping
+            if (!created && fileSize < headerSize + size) {
+                throw new IOException("The array file " + path + " is truncated.");
+            }
+
+            int chunkCount = (int) ((size + chunkSize - 1) / chunkSize);
+            MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                long position = (long) chunk * chunkSize;
+                long length = Math.min(chunkSize, size - position);
+                chunks[chunk] = channel.map(mode, headerSize + position, length);
+                chunks[chunk].order(ByteOrder.LITTLE_ENDIAN);
+            }
+
+            return new MappedFlatArray(path, elementType, shape, chunkSize, chunks);
+        }
+    }
+
+    /**
+     * Reads a part of the header of an array file.
+     *
+     * @param channel channel on the file
+     * @param path path of the file
+     * @param length number of bytes to read
+     * @param position position of the bytes in the file
+     * @return the bytes, ready to be read
+     * @throws IOException in case of problem when reading the file, or if it
+     *             is too short
+     */
+    private static ByteBuffer readHeader(FileChannel channel, Path path, int length,
+            long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining() && channel.read(header, position + header.position()) >= 0) {
+            // Reads until the header is complete or the file ends
+        }
+        if (header.hasRemaining()) {
+            throw new IOException("The file " + path + " is not an array file.");
+        }
+        return header.flip();
+    }
+
+    /** @return path of the file */
+    public Path getPath() {
+        return path;
+    }
+
+    /** @return type of the values */
+    public ElementType getElementType() {
+        return elementType;
+    }
+
+    /**
+     * @param type the type of the accessed values
+     * @param coords coordinates of a cell, one per dimension
+     * @return position of the cell in the values, in bytes
+     */
+    private long position(ElementType type, int... coords) {
+        if (chunks == null) {
+            throw new IllegalStateException("The array " + path + " is closed.");
+        }
+        if (type != elementType) {
+            throw new UnsupportedOperationException("The array " + path + " stores "
+                    + elementType + " values, not " + type + " values.");
+        }
+        return (long) index(coords) * elementType.getByteSize();
+    }
+
+    /**
+     * @param position position of a cell, in bytes
+     * @return the chunk holding the cell
+     */
+    private MappedByteBuffer chunk(long position) {
+        return chunks[(int) (position / chunkSize)];
+    }
+
+    /**
+     * Return the stored value at the given coordinates, for int values.
+     *
+     * @param coords coordinates of the cell, one per dimension
+     * @return the value
+     */
+    public int getInt(int... coords) {
+        long position = position(ElementType.INT, coords);
+        return chunk(position).getInt((int) (position % chunkSize));
+    }
+
+    /**
+     * Stores a value at the given coordinates, for int values.
+     *
+     * @param value the value to store
+     * @param coords coordinates of the cell, one per dimension
+     */
+    public void setInt(int value, int... coords) {
+        long position = position(ElementType.INT, coords);
+        chunk(position).putInt((int) (position % chunkSize), value);
+    }
+
+    /**
+     * Return the stored value at the given coordinates, for long values.
+     *
+     * @param coords coordinates of the cell, one per dimension
+     * @return the value
+     */
+    public long getLong(int... coords) {
+        long position = position(ElementType.LONG, coords);
+        return chunk(position).getLong((int) (position % chunkSize));
+    }
+
+    /**
+     * Stores a value at the given coordinates, for long values.
+     *
+     * @param value the value to store
+     * @param coords coordinates of the cell, one per dimension
+     */
+    public void setLong(long value, int... coords) {
+        long position = position(ElementType.LONG, coords);
+        chunk(position).putLong((int) (position % chunkSize), value);
+    }
+
+    /**
+     * Return the stored value at the given coordinates, for double values.
+     *
+     * @param coords coordinates of the cell, one per dimension
+     * @return the value
+     */
+    public double getDouble(int... coords) {
+        long position = position(ElementType.DOUBLE, coords);
+        return chunk(position).getDouble((int) (position % chunkSize));
+    }
+
+    /**
+     * Stores a value at the given coordinates, for double values.
+     *
+     * @param value the value to store
+     * @param coords coordinates of the cell, one per dimension
+     */
+    public void setDouble(double value, int... coords) {
+        long position = position(ElementType.DOUBLE, coords);
+        chunk(position).putDouble((int) (position % chunkSize), value);
+    }
+
+    /**
+     * Writes the modified values to the storage device, for an array mapped
+     * for reading and writing.
+     */
+    public void force() {
+        if (chunks != null) {
+            for (MappedByteBuffer chunk : chunks) {
+                if (!chunk.isReadOnly()) {
+                    chunk.force();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the modified values to the storage device and releases the
+     * mapped chunks. The memory is unmapped when the chunks are garbage
+     * collected.
+     */
+    @Override
+    public void close() {
+        force();
+        chunks = null;
+    }
+
+}
@@ -2,29 +2,235 @@ package io.github.purpleloop.commons.lang;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-/** A multi-dimensional recursive array. */
+/**
+ * A multi-dimensional recursive array.
+ * 
+ * The cells of the last dimension are stored as objects, or in a primitive
+ * array chosen at creation time (see {@link LeafType}), so that the primitive
+ * getters and setters of the matching type neither box nor allocate.
+ * 
+ * In lazy mode, the sub arrays are only created when a cell they hold is
+ * written with a value other than the default one (null or zero), so that the
+ * cost of a sparse array depends on the cells actually used. Reading a cell
+ * of a sub array not created yet gives the default value.
+ * 
+ * Bulk operations (forEach, fill, map, reduce) work on a {@link Range} of
+ * cells, possibly a slice where some dimensions are fixed, and walk the sub
+ * arrays directly, with a single coordinates buffer. The cells can also be
+ * streamed, parallel streams splitting the array along its first dimension.
+ * 
+ * @see FlatArray for a compact array of primitive values
+ */
 public class RecursiveArray {
 
+    /** Storage of the cells of the last dimension. */
+    public enum LeafType {
+
+        /** Cells are objects, null until set. */
+        OBJECT,
+
+        /** Cells are int values, zero until set. */
+        INT,
+
+        /** Cells are long values, zero until set. */
+        LONG,
+
+        /** Cells are double values, zero until set. */
+        DOUBLE;
+    }
+
     /** Number of dimensions. */
     private int dimension;
 
     /** This level size. */
     private int size;
 
-    /** This level storage. */
+    /** Storage of the cells of the last dimension. */
+    private LeafType leafType;
+
+    /** This level storage, for sub arrays or object cells. */
     private Object[] storage;
 
+    /** This level storage, for int cells. */
+    private int[] ints;
+
+    /** This level storage, for long cells. */
+    private long[] longs;
+
+    /** This level storage, for double cells. */
+    private double[] doubles;
+
+    /** Are the sub arrays created on first write ? */
+    private boolean lazy;
+
+    /** Sizes of the dimensions of the sub arrays, kept in lazy mode. */
+    private List<Integer> subDimensionSizes;
+
+    /** Action on a cell of the array. */
+    @FunctionalInterface
+    public interface CellConsumer {
+
+        /**
+         * Receives a cell.
+         * 
+         * @param coords coordinates of the cell, in an array reused between
+         *            calls
+         * @param value value of the cell, boxed for primitive cells
+         */
+        void accept(int[] coords, Object value);
+    }
+
     /**
-     * Creates a recursive array with the given sizes.
+     * A rectangular range of cells of an array : for each dimension, the
+     * coordinates from a first one included to a last one excluded. A slice is
+     * a range where some dimensions are fixed to a single coordinate.
+     */
+    public static final class Range {
+
+        /** First coordinate of each dimension, included. */
+        private final int[] from;
+
+        /** Last coordinate of each dimension, excluded. */
+        private final int[] to;
+
+        /**
+         * Creates a range.
+         * 
+         * @param from first coordinate of each dimension, included
+         * @param to last coordinate of each dimension, excluded
+         */
+        private Range(int[] from, int[] to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /** @return number of dimensions */
+        public int getDimension() {
+            return from.length;
+        }
+
+        /**
+         * @param dimension a dimension
+         * @return first coordinate of the dimension, included
+         */
+        public int getFrom(int dimension) {
+            return from[dimension];
+        }
+
+        /**
+         * @param dimension a dimension
+         * @return last coordinate of the dimension, excluded
+         */
+        public int getTo(int dimension) {
+            return to[dimension];
+        }
+
+        /** @return number of cells in the range */
+        public long getCellCount() {
+            long count = 1;
+            for (int dimension = 0; dimension < from.length; dimension++) {
+                count *= to[dimension] - from[dimension];
+            }
+            return count;
+        }
+
+        /**
+         * Restricts a dimension of this range.
+         * 
+         * @param dimension the dimension to restrict
+         * @param rangeFrom first coordinate, included
+         * @param rangeTo last coordinate, excluded
+         * @return a new range, restricted to the coordinates in both ranges
+         */
+        public Range restrict(int dimension, int rangeFrom, int rangeTo) {
+            if (rangeFrom < from[dimension] || rangeTo > to[dimension] || rangeFrom > rangeTo) {
+                throw new IllegalArgumentException("[" + rangeFrom + "; " + rangeTo
+                        + "[ is not in the range [" + from[dimension] + "; " + to[dimension]
+                        + "[ of dimension " + dimension);
+            }
+            int[] restrictedFrom = from.clone();
+            int[] restrictedTo = to.clone();
+            restrictedFrom[dimension] = rangeFrom;
+            restrictedTo[dimension] = rangeTo;
+            return new Range(restrictedFrom, restrictedTo);
+        }
+
+        /**
+         * Fixes a dimension of this range, for slicing.
+         * 
+         * @param dimension the dimension to fix
+         * @param coord the coordinate of the dimension
+         * @return a new range, with the given coordinate only for the dimension
+         */
+        public Range fix(int dimension, int coord) {
+            return restrict(dimension, coord, coord + 1);
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(from) + " - " + Arrays.toString(to);
+        }
+    }
+
+    /** Action on a cell of a leaf array, during a walk on a range. */
+    @FunctionalInterface
+    private interface LeafVisitor {
+
+        /**
+         * Visits a cell.
+         * 
+         * @param leaf the array of the last dimension holding the cell, null
+         *            for a cell of a sub array not created in lazy mode
+         * @param index index of the cell in the leaf array
+         * @param coords coordinates of the cell, in a buffer reused between
+         *            calls
+         */
+        void visit(RecursiveArray leaf, int index, int[] coords);
+    }
+
+    /**
+     * Creates a recursive array with the given sizes, storing objects.
      * 
      * @param dimensionSizes sizes of each dimension
      */
     public RecursiveArray(List<Integer> dimensionSizes) {
+        this(dimensionSizes, LeafType.OBJECT);
+    }
+
+    /**
+     * Creates a recursive array with the given sizes.
+     * 
+     * @param dimensionSizes sizes of each dimension
+     * @param leafType storage of the cells of the last dimension
+     */
+    public RecursiveArray(List<Integer> dimensionSizes, LeafType leafType) {
+        this(dimensionSizes, leafType, false);
+    }
+
+    /**
+     * Creates a recursive array with the given sizes.
+     * 
+     * @param dimensionSizes sizes of each dimension
+     * @param leafType storage of the cells of the last dimension
+     * @param lazy true to create the sub arrays on first write, false to
+     *            create them all now
+     */
+    public RecursiveArray(List<Integer> dimensionSizes, LeafType leafType, boolean lazy) {
 
         if (dimensionSizes == null) {
             throw new IllegalArgumentException("dimensionSizes is null");
         }
+        if (leafType == null) {
+            throw new IllegalArgumentException("leafType is null");
+        }
 
         dimension = dimensionSizes.size();
 
@@ -33,19 +239,39 @@ public class RecursiveArray {
         }
 
         size = dimensionSizes.get(0);
-        storage = new Object[size];
+        this.leafType = leafType;
+        this.lazy = lazy;
 
         if (dimension > 1) {
 
-            List<Integer> subDimensionSizes = dimensionSizes.subList(1, dimension);
+            storage = new Object[size];
 
-            // Creates sub arrays
-            for (int i = 0; i < size; i++) {
-                storage[i] = new RecursiveArray(subDimensionSizes);
+            if (lazy) {
+                // Sub arrays will be created on first write
+                subDimensionSizes = List.copyOf(dimensionSizes.subList(1, dimension));
+            } else {
+                // Creates sub arrays
+                List<Integer> eagerSubDimensionSizes = dimensionSizes.subList(1, dimension);
+                for (int i = 0; i < size; i++) {
+                    storage[i] = new RecursiveArray(eagerSubDimensionSizes, leafType, false);
+                }
             }
 
         } else {
-            Arrays.fill(storage, null);
+            switch (leafType) {
+            case INT:
+                ints = new int[size];
+                break;
+            case LONG:
+                longs = new long[size];
+                break;
+            case DOUBLE:
+                doubles = new double[size];
+                break;
+            default:
+                storage = new Object[size];
+                Arrays.fill(storage, null);
+            }
         }
     }
 
@@ -56,9 +282,24 @@ public class RecursiveArray {
         return size;
     }
 
+    /**
+     * @return the storage of the cells of the last dimension
+     */
+    public LeafType getLeafType() {
+        return leafType;
+    }
+
+    /**
+     * @return true if the sub arrays are created on first write
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
     /**
      * @param index index of the requested sub array
-     * @return sub array for the requested index
+     * @return sub array for the requested index, created now in lazy mode if
+     *         needed
      */
     public RecursiveArray getSubArray(int index) {
 
@@ -68,7 +309,30 @@ public class RecursiveArray {
             throw new ArrayIndexOutOfBoundsException("The array does not have sub arrays");
         }
 
-        return (RecursiveArray) storage[index];
+        return subArray(index, true);
+    }
+
+    /**
+     * @param index index of a sub array
+     * @return true if the sub array exists, always true out of lazy mode
+     */
+    boolean isSubArrayCreated(int index) {
+        checkBounds(index);
+        return dimension >= 2 && storage[index] != null;
+    }
+
+    /**
+     * @param index index of a sub array, in bounds
+     * @param create true to create the sub array if it does not exist yet
+     * @return the sub array, null if it does not exist and is not created
+     */
+    private RecursiveArray subArray(int index, boolean create) {
+        RecursiveArray subArray = (RecursiveArray) storage[index];
+        if (subArray == null && create) {
+            subArray = new RecursiveArray(subDimensionSizes, leafType, true);
+            storage[index] = subArray;
+        }
+        return subArray;
     }
 
     /**
@@ -78,6 +342,17 @@ public class RecursiveArray {
      * @throws ArrayIndexOutOfBoundsException if index is invalid
      */
     private void checkBounds(int index) {
+        checkBounds(index, size);
+    }
+
+    /**
+     * Check the validity of the index.
+     * 
+     * @param index value to check against the bounds of a level
+     * @param size size of the level
+     * @throws ArrayIndexOutOfBoundsException if index is invalid
+     */
+    private static void checkBounds(int index, int size) {
         if (index < 0 || index >= size) {
 
             StringBuilder sbError = new StringBuilder();
@@ -93,48 +368,86 @@ public class RecursiveArray {
     }
 
     /**
-     * Return the stored value at the given coordinates.
+     * Walks down the sub arrays to the level of the last coordinate, without
+     * allocating except for the sub arrays created in lazy mode.
      * 
-     * @param <T> the stored object type
      * @param coords coordinates in the recursive array
-     * @return the value
+     * @param create true to create the missing sub arrays in lazy mode
+     * @return the array holding the cell of the last coordinate, whose bounds
+     *         are not checked yet, or null if a sub array is missing and not
+     *         created, all the coordinates being checked then
      */
-    @SuppressWarnings("unchecked")
-    public <T> T getObject(List<Integer> coords) {
+    private RecursiveArray arrayOf(List<Integer> coords, boolean create) {
 
         if (coords == null) {
-            throw new IllegalArgumentException("Coordinates forGetObject must not be null");
+            throw new IllegalArgumentException("Coordinates must not be null");
         }
 
         int coordsSize = coords.size();
+        if (coordsSize == 0 || coordsSize > dimension) {
+            throw new ArrayIndexOutOfBoundsException("Invalid coordinates size " + coordsSize);
+        }
 
-        int coordValue;
-
-        if (coordsSize == 1) {
-
-            // Single dimension, so direct access to the requested value
-            coordValue = coords.get(0);
-            checkBounds(coordValue);
-            return (T) storage[coordValue];
-
-        } else if (coordsSize > 1) {
+        RecursiveArray array = this;
+        for (int level = 0; level < coordsSize - 1; level++) {
 
             // Get the requested sub-array for the current dimension
-            coordValue = coords.get(0);
-            checkBounds(coordValue);
+            int coordValue = coords.get(level);
+            array.checkBounds(coordValue);
+            RecursiveArray subArray = array.subArray(coordValue, create);
 
-            List<Integer> subCoords = coords.subList(1, coordsSize);
+            if (subArray == null) {
+                // Missing in lazy mode, the other coordinates are still checked
+                for (int subLevel = level + 1; subLevel < coordsSize; subLevel++) {
+                    checkBounds(coords.get(subLevel),
+                            array.subDimensionSizes.get(subLevel - level - 1));
+                }
+                return null;
+            }
+            array = subArray;
+        }
+        return array;
+    }
 
-            return (T) ((RecursiveArray) storage[coordValue]).getObject(subCoords);
+    /**
+     * Return the stored value at the given coordinates. Primitive cells are
+     * boxed. With less coordinates than dimensions, returns a sub array, null
+     * if it does not exist yet in lazy mode.
+     * 
+     * @param <T> the stored object type
+     * @param coords coordinates in the recursive array
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getObject(List<Integer> coords) {
 
-        } else {
-            throw new ArrayIndexOutOfBoundsException("Invalid coordinates size " + coordsSize);
+        RecursiveArray array = arrayOf(coords, false);
+        if (array == null) {
+            return (coords.size() < dimension) ? null : (T) defaultValue();
         }
+        int coordValue = coords.get(coords.size() - 1);
+        array.checkBounds(coordValue);
+        return (T) array.cell(coordValue);
+    }
 
+    /**
+     * @param index index of a cell, or of a sub array, of this level
+     * @return the cell, boxed for primitive cells
+     */
+    private Object cell(int index) {
+        if (ints != null) {
+            return Integer.valueOf(ints[index]);
+        } else if (longs != null) {
+            return Long.valueOf(longs[index]);
+        } else if (doubles != null) {
+            return Double.valueOf(doubles[index]);
+        }
+        return storage[index];
     }
 
     /**
-     * Stores a value at the given coordinates.
+     * Stores a value at the given coordinates. Primitive cells accept numbers
+     * only, converted to the type of the cells.
      * 
      * @param <T> the stored object type
      * @param coords coordinates in the recursive array
@@ -142,44 +455,56 @@ public class RecursiveArray {
      */
     public <T> void setObject(T value, List<Integer> coords) {
 
-        if (coords == null) {
-            throw new IllegalArgumentException("Coordinates forGetObject must not be null");
+        RecursiveArray array = arrayOf(coords, !isDefault(value));
+        if (array == null) {
+            // Default value in a sub array not created
+            return;
         }
+        int coordValue = coords.get(coords.size() - 1);
+        array.checkBounds(coordValue);
+        array.setCell(coordValue, value);
+    }
 
-        int coordsSize = coords.size();
-        int coordValue = -1;
-
-        if (coordsSize == 1) {
-
-            // Single dimension, so direct access to the requested value
-            coordValue = coords.get(0);
-            checkBounds(coordValue);
-            storage[coordValue] = value;
-
-        } else if (coordsSize > 1) {
-
-            // Get the requested sub-array for the current dimension
-            coordValue = coords.get(0);
-            checkBounds(coordValue);
-
-            List<Integer> subCoords = coords.subList(1, coordsSize);
-
-            ((RecursiveArray) storage[coordValue]).setObject(value, subCoords);
+    /**
+     * @param index index of a cell, or of a sub array, of this level
+     * @param value the value to set, a number for primitive cells
+     */
+    private void setCell(int index, Object value) {
+        if (storage != null) {
+            storage[index] = value;
+            return;
+        }
 
+        if (!(value instanceof Number number)) {
+            throw new IllegalArgumentException(
+                    "Cells of type " + leafType + " can only store numbers");
+        }
+        if (ints != null) {
+            ints[index] = number.intValue();
+        } else if (longs != null) {
+            longs[index] = number.longValue();
         } else {
-            throw new ArrayIndexOutOfBoundsException("Invalid coordinates size " + coordsSize);
+            doubles[index] = number.doubleValue();
         }
-
     }
 
     /**
      * Return the stored double value at the given coordinates.
+     * Cells storing other numbers are converted.
      * 
      * @param coords coordinates in the recursive array
      * @return a double value
      */
     public double getDouble(List<Integer> coords) {
-        return ((Double) getObject(coords)).doubleValue();
+        RecursiveArray array = arrayOf(coords, false);
+        if (array == null && leafType == LeafType.DOUBLE) {
+            return 0;
+        } else if (array != null && array.doubles != null) {
+            int coordValue = coords.get(coords.size() - 1);
+            array.checkBounds(coordValue);
+            return array.doubles[coordValue];
+        }
+        return ((Number) getObject(coords)).doubleValue();
     }
 
     /**
@@ -189,17 +514,36 @@ public class RecursiveArray {
      * @param coords coordinates in the recursive array
      */
     public void setDouble(double value, List<Integer> coords) {
-        setObject(Double.valueOf(value), coords);
+        RecursiveArray array = arrayOf(coords, !isDefault(value));
+        if (array == null) {
+            // Zero in a sub array not created
+            return;
+        } else if (array.doubles != null) {
+            int coordValue = coords.get(coords.size() - 1);
+            array.checkBounds(coordValue);
+            array.doubles[coordValue] = value;
+        } else {
+            setObject(Double.valueOf(value), coords);
+        }
     }
 
     /**
      * Return the stored integer value at the given coordinates.
+     * Cells storing other numbers are converted.
      * 
      * @param coords coordinates in the recursive array
      * @return an integer value
      */
     public int getInt(List<Integer> coords) {
-        return ((Integer) getObject(coords)).intValue();
+        RecursiveArray array = arrayOf(coords, false);
+        if (array == null && leafType == LeafType.INT) {
+            return 0;
+        } else if (array != null && array.ints != null) {
+            int coordValue = coords.get(coords.size() - 1);
+            array.checkBounds(coordValue);
+            return array.ints[coordValue];
+        }
+        return ((Number) getObject(coords)).intValue();
     }
 
     /**
@@ -209,7 +553,487 @@ public class RecursiveArray {
      * @param coords coordinates in the recursive array
      */
     public void setInt(int value, List<Integer> coords) {
-        setObject(Integer.valueOf(value), coords);
+        RecursiveArray array = arrayOf(coords, !isDefault(value));
+        if (array == null) {
+            // Zero in a sub array not created
+            return;
+        } else if (array.ints != null) {
+            int coordValue = coords.get(coords.size() - 1);
+            array.checkBounds(coordValue);
+            array.ints[coordValue] = value;
+        } else {
+            setObject(Integer.valueOf(value), coords);
+        }
+    }
+
+    /**
+     * Return the stored long value at the given coordinates.
+     * Cells storing other numbers are converted.
+     * 
+     * @param coords coordinates in the recursive array
+     * @return a long value
+     */
+    public long getLong(List<Integer> coords) {
+        RecursiveArray array = arrayOf(coords, false);
+        if (array == null && leafType == LeafType.LONG) {
+            return 0;
+        } else if (array != null && array.longs != null) {
+            int coordValue = coords.get(coords.size() - 1);
+            array.checkBounds(coordValue);
+            return array.longs[coordValue];
+        }
+        return ((Number) getObject(coords)).longValue();
+    }
+
+    /**
+     * Stores a long value at the given coordinates.
+     * 
+     * @param value long value to store
+     * @param coords coordinates in the recursive array
+     */
+    public void setLong(long value, List<Integer> coords) {
+        RecursiveArray array = arrayOf(coords, !isDefault(value));
+        if (array == null) {
+            // Zero in a sub array not created
+            return;
+        } else if (array.longs != null) {
+            int coordValue = coords.get(coords.size() - 1);
+            array.checkBounds(coordValue);
+            array.longs[coordValue] = value;
+        } else {
+            setObject(Long.valueOf(value), coords);
+        }
+    }
+
+    /**
+     * @param value a value to store in a cell
+     * @return true if the value, converted to the type of the cells, is the
+     *         value of a cell never written
+     */
+    private boolean isDefault(Object value) {
+        switch (leafType) {
+        case INT:
+            return value instanceof Number number && number.intValue() == 0;
+        case LONG:
+            return value instanceof Number number && number.longValue() == 0L;
+        case DOUBLE:
+            return value instanceof Number number
+                    && Double.doubleToRawLongBits(number.doubleValue()) == 0L;
+        default:
+            return value == null;
+        }
+    }
+
+    /**
+     * @return the value of a cell never written, boxed for primitive cells
+     */
+    private Object defaultValue() {
+        switch (leafType) {
+        case INT:
+            return Integer.valueOf(0);
+        case LONG:
+            return Long.valueOf(0L);
+        case DOUBLE:
+            return Double.valueOf(0.0);
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Calls an action for each cell having a value other than the default one
+     * (null or zero), in increasing order of coordinates. The sub arrays not
+     * created in lazy mode are skipped without being visited.
+     * 
+     * @param action the action to call
+     */
+    public void forEachSetCell(CellConsumer action) {
+        forEachSetCell(action, new int[dimension], 0);
+    }
+
+    /**
+     * Calls an action for each set cell of this level and its sub arrays.
+     * 
+     * @param action the action to call
+     * @param coords coordinates buffer, from the top level array
+     * @param level the level of this array in the coordinates
+     */
+    private void forEachSetCell(CellConsumer action, int[] coords, int level) {
+        for (int i = 0; i < size; i++) {
+            coords[level] = i;
+            if (dimension > 1) {
+                RecursiveArray subArray = (RecursiveArray) storage[i];
+                if (subArray != null) {
+                    subArray.forEachSetCell(action, coords, level + 1);
+                }
+            } else if (ints != null) {
+                if (ints[i] != 0) {
+                    action.accept(coords, Integer.valueOf(ints[i]));
+                }
+            } else if (longs != null) {
+                if (longs[i] != 0) {
+                    action.accept(coords, Long.valueOf(longs[i]));
+                }
+            } else if (doubles != null) {
+                if (Double.doubleToRawLongBits(doubles[i]) != 0) {
+                    action.accept(coords, Double.valueOf(doubles[i]));
+                }
+            } else if (storage[i] != null) {
+                action.accept(coords, storage[i]);
+            }
+        }
+    }
+
+    /**
+     * @return sizes of all the dimensions, from this level
+     */
+    private int[] sizes() {
+        int[] sizes = new int[dimension];
+        RecursiveArray array = this;
+        for (int level = 0; level < dimension; level++) {
+            sizes[level] = array.size;
+            if (level == dimension - 1) {
+                break;
+            } else if (array.subDimensionSizes != null) {
+                // Lazy mode, the sub arrays may not exist
+                for (int subLevel = level + 1; subLevel < dimension; subLevel++) {
+                    sizes[subLevel] = array.subDimensionSizes.get(subLevel - level - 1);
+                }
+                break;
+            } else if (array.size == 0) {
+                // No sub array to get the sizes from, the array is empty anyway
+                break;
+            }
+            array = (RecursiveArray) array.storage[0];
+        }
+        return sizes;
+    }
+
+    /**
+     * @return the range of all the cells of the array
+     */
+    public Range range() {
+        return new Range(new int[dimension], sizes());
+    }
+
+    /**
+     * Walks the cells of a range, in increasing order of coordinates.
+     * 
+     * @param range the range to walk
+     * @param coords coordinates buffer
+     * @param level the level of this array in the coordinates
+     * @param create true to create the sub arrays not created in lazy mode
+     * @param visitor the visitor of the cells
+     */
+    private void walk(Range range, int[] coords, int level, boolean create,
+            LeafVisitor visitor) {
+        for (int i = range.from[level]; i < range.to[level]; i++) {
+            coords[level] = i;
+            if (dimension == 1) {
+                visitor.visit(this, i, coords);
+            } else {
+                RecursiveArray subArray = subArray(i, create);
+                if (subArray != null) {
+                    subArray.walk(range, coords, level + 1, create, visitor);
+                } else {
+                    walkMissing(range, coords, level + 1, visitor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Walks the cells of a range in a sub array not created in lazy mode.
+     * 
+     * @param range the range to walk
+     * @param coords coordinates buffer
+     * @param level the level of the missing sub array in the coordinates
+     * @param visitor the visitor of the cells, receiving no leaf array
+     */
+    private static void walkMissing(Range range, int[] coords, int level,
+            LeafVisitor visitor) {
+        for (int i = range.from[level]; i < range.to[level]; i++) {
+            coords[level] = i;
+            if (level == coords.length - 1) {
+                visitor.visit(null, i, coords);
+            } else {
+                walkMissing(range, coords, level + 1, visitor);
+            }
+        }
+    }
+
+    /**
+     * Walks the cells of a range of this array.
+     * 
+     * @param range the range to walk, of this array
+     * @param create true to create the sub arrays not created in lazy mode
+     * @param visitor the visitor of the cells
+     */
+    private void walk(Range range, boolean create, LeafVisitor visitor) {
+        if (range.getDimension() != dimension) {
+            throw new IllegalArgumentException("The range has " + range.getDimension()
+                    + " dimensions instead of " + dimension);
+        }
+        int[] sizes = sizes();
+        for (int level = 0; level < dimension; level++) {
+            if (range.to[level] > sizes[level]) {
+                throw new IllegalArgumentException("The range " + range + " is out of the array");
+            }
+        }
+        walk(range, new int[dimension], 0, create, visitor);
+    }
+
+    /**
+     * Calls an action for each cell of the array, in increasing order of
+     * coordinates, including the cells never written.
+     * 
+     * @param action the action to call
+     */
+    public void forEach(CellConsumer action) {
+        forEach(range(), action);
+    }
+
+    /**
+     * Calls an action for each cell of a range, in increasing order of
+     * coordinates, including the cells never written.
+     * 
+     * @param range the range of cells
+     * @param action the action to call
+     */
+    public void forEach(Range range, CellConsumer action) {
+        walk(range, false, (leaf, index, coords) -> action.accept(coords,
+                (leaf == null) ? defaultValue() : leaf.cell(index)));
+    }
+
+    /**
+     * Stores a value in all the cells of a range.
+     * 
+     * @param range the range of cells
+     * @param value the value to store, a number for primitive cells
+     */
+    public void fill(Range range, Object value) {
+        walk(range, !isDefault(value), (leaf, index, coords) -> {
+            if (leaf != null) {
+                leaf.setCell(index, value);
+            }
+        });
+    }
+
+    /**
+     * Replaces each cell of a range by the result of a function of its value.
+     * 
+     * @param <T> the stored object type
+     * @param range the range of cells
+     * @param function the function to apply, receiving boxed values for
+     *            primitive cells
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void map(Range range, UnaryOperator<T> function) {
+        walk(range, false, (leaf, index, coords) -> {
+            if (leaf != null) {
+                leaf.setCell(index, function.apply((T) leaf.cell(index)));
+            } else {
+                // Cell of a missing sub array, only created for another value
+                T mapped = function.apply((T) defaultValue());
+                if (!isDefault(mapped)) {
+                    leafOf(coords).setCell(index, mapped);
+                }
+            }
+        });
+    }
+
+    /**
+     * @param coords coordinates of a cell, one per dimension, in bounds
+     * @return the array of the last dimension holding the cell, created with
+     *         its parents in lazy mode if needed
+     */
+    private RecursiveArray leafOf(int[] coords) {
+        RecursiveArray array = this;
+        for (int level = 0; level < coords.length - 1; level++) {
+            array = array.subArray(coords[level], true);
+        }
+        return array;
+    }
+
+    /**
+     * Reduces the cells of a range, in increasing order of coordinates.
+     * 
+     * @param <T> the stored object type
+     * @param range the range of cells
+     * @param identity the initial value of the reduction
+     * @param accumulator the function combining the reduction with a cell,
+     *            receiving boxed values for primitive cells
+     * @return the reduction of the cells
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T reduce(Range range, T identity, BinaryOperator<T> accumulator) {
+        Object[] result = { identity };
+        walk(range, false, (leaf, index, coords) -> result[0] = accumulator.apply(
+                (T) result[0], (T) ((leaf == null) ? defaultValue() : leaf.cell(index))));
+        return (T) result[0];
+    }
+
+    /**
+     * Reduces the cells of a range as double values, in increasing order of
+     * coordinates, without boxing for double cells.
+     * 
+     * @param range the range of cells
+     * @param identity the initial value of the reduction
+     * @param accumulator the function combining the reduction with a cell
+     * @return the reduction of the cells
+     */
+    public double reduceDouble(Range range, double identity, DoubleBinaryOperator accumulator) {
+        double[] result = { identity };
+        walk(range, false, (leaf, index, coords) -> {
+            double value;
+            if (leaf == null) {
+                value = 0.0;
+            } else if (leaf.doubles != null) {
+                value = leaf.doubles[index];
+            } else {
+                value = ((Number) leaf.cell(index)).doubleValue();
+            }
+            result[0] = accumulator.applyAsDouble(result[0], value);
+        });
+        return result[0];
+    }
+
+    /**
+     * @return a spliterator on the values of the cells, in increasing order of
+     *         coordinates, splitting along the first dimension
+     */
+    public Spliterator<Object> spliterator() {
+        Range range = range();
+        return new CellSpliterator(range, 0, range.to[0]);
+    }
+
+    /**
+     * @return a sequential stream of the values of the cells, boxed for
+     *         primitive cells
+     */
+    public Stream<Object> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @return a parallel stream of the values of the cells, boxed for
+     *         primitive cells, the sub arrays of the first dimension being
+     *         traversed by several threads
+     */
+    public Stream<Object> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * @param coords coordinates of a cell, one per dimension, in bounds
+     * @return the value of the cell, boxed for primitive cells
+     */
+    private Object cell(int[] coords) {
+        RecursiveArray array = this;
+        for (int level = 0; level < coords.length - 1; level++) {
+            array = (RecursiveArray) array.storage[coords[level]];
+            if (array == null) {
+                return defaultValue();
+            }
+        }
+        return array.cell(coords[coords.length - 1]);
+    }
+
+    /** A spliterator on the cells of a range, splitting along the first dimension. */
+    private final class CellSpliterator implements Spliterator<Object> {
+
+        /** The range of the cells. */
+        private final Range range;
+
+        /** Next coordinate of the first dimension to traverse. */
+        private int index;
+
+        /** Coordinate of the first dimension following the traversed ones. */
+        private final int end;
+
+        /** Coordinates of the next cell, null between two sub arrays. */
+        private int[] cursor;
+
+        /**
+         * Creates a spliterator.
+         * 
+         * @param range the range of the cells
+         * @param index first coordinate of the first dimension to traverse
+         * @param end coordinate of the first dimension following the
+         *            traversed ones
+         */
+        private CellSpliterator(Range range, int index, int end) {
+            this.range = range;
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Object> action) {
+            if (cursor == null) {
+                if (index >= end || range.getCellCount() == 0) {
+                    return false;
+                }
+                cursor = range.from.clone();
+                cursor[0] = index;
+            }
+
+            action.accept(cell(cursor));
+
+            // Next cell, the last dimension varying the fastest
+            for (int level = dimension - 1; level > 0; level--) {
+                cursor[level]++;
+                if (cursor[level] < range.to[level]) {
+                    return true;
+                }
+                cursor[level] = range.from[level];
+            }
+            index++;
+            cursor = null;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Object> action) {
+            while (cursor != null) {
+                tryAdvance(action);
+            }
+            if (index < end) {
+                forEach(range.restrict(0, index, end), (coords, value) -> action.accept(value));
+                index = end;
+            }
+        }
+
+        @Override
+        public Spliterator<Object> trySplit() {
+            if (cursor != null || end - index < 2) {
+                return null;
+            }
+            int middle = (index + end) >>> 1;
+            CellSpliterator prefix = new CellSpliterator(range, index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = range.restrict(0, Math.min(index, end), end).getCellCount();
+            if (cursor != null) {
+                // Cells already traversed in the current sub array
+                long traversed = 0;
+                for (int level = 1; level < dimension; level++) {
+                    traversed = traversed * (range.to[level] - range.from[level])
+                            + cursor[level] - range.from[level];
+                }
+                size -= traversed;
+            }
+            return size;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED;
+        }
     }
 
 }
@@ -0,0 +1,341 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A 2D matrix of bits, for instance an adjacency or a mapping matrix.
+ *
+ * Each row is packed in consecutive 64 bits words, the bit of abscissa x being
+ * the bit x % 64 of the word x / 64 of the row. Rows follow each other in a
+ * single array. Sums and operations on rows work on whole words.
+ */
+public class Bit2DMatrix {
+
+    /** Number of bits in a word. */
+    private static final int WORD_SIZE = Long.SIZE;
+
+    /** Shift from a bit index to a word index. */
+    private static final int WORD_SHIFT = 6;
+
+    /** The words of the rows. */
+    private long[] words;
+
+    /** Width. */
+    private int width;
+
+    /** Height. */
+    private int height;
+
+    /** Number of words of a row. */
+    private int wordsPerRow;
+
+    /**
+     * Creates a matrix of bits, all cleared.
+     *
+     * @param width Width
+     * @param height Height
+     */
+    public Bit2DMatrix(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + WORD_SIZE - 1) >>> WORD_SHIFT;
+        this.words = new long[Math.multiplyExact(wordsPerRow, height)];
+    }
+
+    /**
+     * Creates a matrix as a copy of a source matrix.
+     *
+     * @param source the source matrix
+     */
+    public Bit2DMatrix(Bit2DMatrix source) {
+        this.width = source.width;
+        this.height = source.height;
+        this.wordsPerRow = source.wordsPerRow;
+        this.words = source.words.clone();
+    }
+
+    /**
+     * Creates a matrix of bits from an integer matrix.
+     *
+     * @param source the source matrix, whose not zero cells are set bits
+     */
+    public Bit2DMatrix(Int2DMatrix source) {
+        this(source.getWidth(), source.getHeight());
+
+        for (int y = 0; y < height; y++) {
+            int offset = y * wordsPerRow;
+            for (int x = 0; x < width; x++) {
+                if (source.get(x, y) != 0) {
+                    words[offset + (x >>> WORD_SHIFT)] |= 1L << x;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return an integer matrix, in row-major order, with 1 for the set bits
+     *         and 0 for the others
+     */
+    public Int2DMatrix toInt2DMatrix() {
+        Int2DMatrix result = new Int2DMatrix(width, height);
+        for (int y = 0; y < height; y++) {
+            final int row = y;
+            forEachSetBit(y, x -> result.set(x, row, 1));
+        }
+        return result;
+    }
+
+    /**
+     * @return the matrix width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the matrix height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return true if matrix is square, false otherwise
+     */
+    public boolean isSquare() {
+        return height == width;
+    }
+
+    /**
+     * Get a bit of the matrix.
+     *
+     * @param x abscissa
+     * @param y ordinate
+     * @return true if the bit is set
+     */
+    public boolean get(int x, int y) {
+        checkAbscissa(x);
+        return (words[y * wordsPerRow + (x >>> WORD_SHIFT)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Sets or clears a bit of the matrix.
+     *
+     * @param x abscissa
+     * @param y ordinate
+     * @param value true to set the bit, false to clear it
+     */
+    public void set(int x, int y, boolean value) {
+        checkAbscissa(x);
+        int index = y * wordsPerRow + (x >>> WORD_SHIFT);
+        if (value) {
+            words[index] |= 1L << x;
+        } else {
+            words[index] &= ~(1L << x);
+        }
+    }
+
+    /**
+     * Checks that an abscissa is in the matrix, the bits beyond the width of
+     * a row being in the words of the row.
+     *
+     * @param x abscissa
+     */
+    private void checkAbscissa(int x) {
+        if (x < 0 || x >= width) {
+            throw new IndexOutOfBoundsException("Abscissa " + x + " out of [0, " + width + "[");
+        }
+    }
+
+    /**
+     * Clears all the bits of a row.
+     *
+     * @param y the row to clear
+     */
+    public void clearRow(int y) {
+        Arrays.fill(words, y * wordsPerRow, (y + 1) * wordsPerRow, 0L);
+    }
+
+    /**
+     * @param rowNum the row where to count
+     * @return number of set bits in the given row
+     */
+    public int arraySumRow(int rowNum) {
+        int sum = 0;
+        int end = (rowNum + 1) * wordsPerRow;
+        for (int index = rowNum * wordsPerRow; index < end; index++) {
+            sum += Long.bitCount(words[index]);
+        }
+        return sum;
+    }
+
+    /**
+     * @param colNum the column where to count
+     * @return number of set bits in the given column
+     */
+    public int arraySumColumn(int colNum) {
+        checkAbscissa(colNum);
+        int sum = 0;
+        int wordIndex = colNum >>> WORD_SHIFT;
+        for (int rowNum = 0; rowNum < height; rowNum++) {
+            sum += (int) (words[rowNum * wordsPerRow + wordIndex] >>> colNum) & 1;
+        }
+        return sum;
+    }
+
+    /**
+     * Checks that a row of another matrix can be combined with a row of this
+     * matrix.
+     *
+     * @param other the other matrix
+     */
+    private void checkSameWidth(Bit2DMatrix other) {
+        if (other.width != width) {
+            throw new IllegalArgumentException("The matrices must have the same width.");
+        }
+    }
+
+    /**
+     * Combines a row of this matrix with a row of another matrix by a logical
+     * 'and', in place.
+     *
+     * @param y the row of this matrix
+     * @param other a matrix of the same width, which can be this matrix
+     * @param otherRow the row of the other matrix
+     */
+    public void andRow(int y, Bit2DMatrix other, int otherRow) {
+        checkSameWidth(other);
+        int offset = y * wordsPerRow;
+        int otherOffset = otherRow * wordsPerRow;
+        for (int word = 0; word < wordsPerRow; word++) {
+            words[offset + word] &= other.words[otherOffset + word];
+        }
+    }
+
+    /**
+     * Combines a row of this matrix with a row of another matrix by a logical
+     * 'or', in place.
+     *
+     * @param y the row of this matrix
+     * @param other a matrix of the same width, which can be this matrix
+     * @param otherRow the row of the other matrix
+     */
+    public void orRow(int y, Bit2DMatrix other, int otherRow) {
+        checkSameWidth(other);
+        int offset = y * wordsPerRow;
+        int otherOffset = otherRow * wordsPerRow;
+        for (int word = 0; word < wordsPerRow; word++) {
+            words[offset + word] |= other.words[otherOffset + word];
+        }
+    }
+
+    /**
+     * Combines a row of this matrix with a row of another matrix by a logical
+     * 'exclusive or', in place.
+     *
+     * @param y the row of this matrix
+     * @param other a matrix of the same width, which can be this matrix
+     * @param otherRow the row of the other matrix
+     */
+    public void xorRow(int y, Bit2DMatrix other, int otherRow) {
+        checkSameWidth(other);
+        int offset = y * wordsPerRow;
+        int otherOffset = otherRow * wordsPerRow;
+        for (int word = 0; word < wordsPerRow; word++) {
+            words[offset + word] ^= other.words[otherOffset + word];
+        }
+    }
+
+    /**
+     * Clears the bits of a row of this matrix that are set in a row of
+     * another matrix, in place.
+     *
+     * @param y the row of this matrix
+     * @param other a matrix of the same width, which can be this matrix
+     * @param otherRow the row of the other matrix
+     */
+    public void andNotRow(int y, Bit2DMatrix other, int otherRow) {
+        checkSameWidth(other);
+        int offset = y * wordsPerRow;
+        int otherOffset = otherRow * wordsPerRow;
+        for (int word = 0; word < wordsPerRow; word++) {
+            words[offset + word] &= ~other.words[otherOffset + word];
+        }
+    }
+
+    /**
+     * Counts the bits set in both a row of this matrix and a row of another
+     * matrix, without modifying them. For adjacency matrices, this is the
+     * number of common neighbours of two nodes.
+     *
+     * @param y the row of this matrix
+     * @param other a matrix of the same width, which can be this matrix
+     * @param otherRow the row of the other matrix
+     * @return number of bits set in both rows
+     */
+    public int intersectionCount(int y, Bit2DMatrix other, int otherRow) {
+        checkSameWidth(other);
+        int offset = y * wordsPerRow;
+        int otherOffset = otherRow * wordsPerRow;
+        int count = 0;
+        for (int word = 0; word < wordsPerRow; word++) {
+            count += Long.bitCount(words[offset + word] & other.words[otherOffset + word]);
+        }
+        return count;
+    }
+
+    /**
+     * Finds the next set bit of a row.
+     *
+     * @param y the row
+     * @param fromX the first abscissa to test
+     * @return the abscissa of the first set bit at or after fromX, -1 if there
+     *         is none
+     * @throws IndexOutOfBoundsException if fromX is negative, as for
+     *             {@link java.util.BitSet#nextSetBit(int)}
+     */
+    public int nextSetBit(int y, int fromX) {
+        if (fromX < 0) {
+            checkAbscissa(fromX);
+        }
+        if (fromX >= width) {
+            return -1;
+        }
+        int offset = y * wordsPerRow;
+        int word = fromX >>> WORD_SHIFT;
+        long bits = words[offset + word] & (-1L << fromX);
+        while (bits == 0) {
+            word++;
+            if (word == wordsPerRow) {
+                return -1;
+            }
+            bits = words[offset + word];
+        }
+        return (word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Calls an action for each set bit of a row, in increasing order of
+     * abscissa.
+     *
+     * @param y the row
+     * @param action the action, receiving the abscissa of the set bits
+     */
+    public void forEachSetBit(int y, IntConsumer action) {
+        int offset = y * wordsPerRow;
+        for (int word = 0; word < wordsPerRow; word++) {
+            long bits = words[offset + word];
+            while (bits != 0) {
+                action.accept((word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /** @return a string representing formatted the matrix, with 0 and 1 */
+    public String toPrettyString() {
+        return toInt2DMatrix().toPrettyString();
+    }
+
+}
@@ -1,5 +1,8 @@
 package io.github.purpleloop.commons.math.algebra;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 import io.github.purpleloop.commons.util.HexTools;
 
 /** 2D Array of bytes and utilities. */
@@ -21,10 +24,25 @@ public class Byte2DMatrix {
      * @param height height
      */
     public Byte2DMatrix(int width, int height) {
+        this(width, height, true);
+    }
+
+    /**
+     * Creates an array of the given size, for subclasses providing their own
+     * storage.
+     * 
+     * @param width width
+     * @param height height
+     * @param onHeap true to allocate the heap storage array, false if the
+     *            subclass overrides all the accesses to the contents
+     */
+    protected Byte2DMatrix(int width, int height, boolean onHeap) {
 
         this.width = width;
         this.height = height;
-        this.store = new byte[width][height];
+        if (onHeap) {
+            this.store = new byte[width][height];
+        }
     }
 
     /**
@@ -52,6 +70,20 @@ public class Byte2DMatrix {
         }
     }
 
+    /**
+     * @return the array width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the array height
+     */
+    public int getHeight() {
+        return height;
+    }
+
     /**
      * Gets the contents of the array at location coordinates (x,y).
      * 
@@ -104,18 +136,54 @@ public class Byte2DMatrix {
      * @return hexadecimal dump
      */
     public String hexDump() {
-        StringBuffer sb = new StringBuffer();
+        StringBuilder sb = new StringBuilder();
+        try {
+            hexDump(sb);
+        } catch (IOException e) {
+            // A StringBuilder does not throw IOException
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
 
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                if (x > 0) {
-                    sb.append(" ");
+    /**
+     * Writes the hexadecimal values of the array, row by row, without
+     * allocation per cell.
+     * 
+     * @param out where to write the dump
+     * @throws IOException in case of problem when writing
+     */
+    public void hexDump(Appendable out) throws IOException {
+        hexDump(out, 0, 0, width, height);
+    }
+
+    /**
+     * Writes the hexadecimal values of a rectangular region of the array, row
+     * by row, without allocation per cell.
+     * 
+     * @param out where to write the dump
+     * @param left abscissa of the left column of the region
+     * @param top ordinate of the top row of the region
+     * @param regionWidth width of the region
+     * @param regionHeight height of the region
+     * @throws IOException in case of problem when writing
+     */
+    public void hexDump(Appendable out, int left, int top, int regionWidth, int regionHeight)
+            throws IOException {
+        if (left < 0 || top < 0 || regionWidth < 0 || regionHeight < 0
+                || left + regionWidth > width || top + regionHeight > height) {
+            throw new IllegalArgumentException("The region is out of the array.");
+        }
+
+        for (int y = top; y < top + regionHeight; y++) {
+            for (int x = left; x < left + regionWidth; x++) {
+                if (x > left) {
+                    out.append(' ');
                 }
-                sb.append(HexTools.toHex(store[x][y], 2));
+                HexTools.appendHex(out, get(x, y), 2);
             }
-            sb.append("\n");
+            out.append('\n');
         }
-        return sb.toString();
     }
 
 }
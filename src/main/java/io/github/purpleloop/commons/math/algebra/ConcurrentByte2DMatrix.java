@@ -0,0 +1,298 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A 2D array of bytes that can be updated by several threads.
+ *
+ * <p>
+ * Each cell update is an atomic operation on the cell, so that concurrent
+ * updates of a cell are never lost. Reads never lock.
+ * </p>
+ *
+ * <p>
+ * The updates do not exclude each other : the cell updates and the row
+ * operations ({@link #fillRow(int, byte)}, {@link #orRow(int, byte[])} and
+ * {@link #andRow(int, byte[])}) only hold a shared stamp of the lock of their
+ * row stripe. This lets {@link #snapshot()} wait for the updates in progress
+ * and hold the new ones, so that a snapshot is a consistent copy of the array
+ * and never sees half of a row operation. Spreading the rows on many stripes
+ * keeps the contention on each stamp low.
+ * </p>
+ *
+ * <p>
+ * The cells are stored in a single array in row-major order, so the array
+ * holds at most {@link Integer#MAX_VALUE} cells. For larger grids, see
+ * {@link MappedByte2DMatrix}.
+ * </p>
+ */
+public class ConcurrentByte2DMatrix extends Byte2DMatrix {
+
+    /** Atomic accesses to the cells. */
+    private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    /** Default number of row stripes. */
+    private static final int DEFAULT_STRIPE_COUNT = 64;
+
+    /** The cells, in row-major order. */
+    private final byte[] cells;
+
+    /** The locks of the row stripes, the row y being in the stripe y % count. */
+    private final StampedLock[] stripes;
+
+    /**
+     * Creates an array of the given size, all cells being zero.
+     *
+     * @param width width
+     * @param height height
+     */
+    public ConcurrentByte2DMatrix(int width, int height) {
+        this(width, height, DEFAULT_STRIPE_COUNT);
+    }
+
+    /**
+     * Creates an array of the given size, all cells being zero.
+     *
+     * @param width width
+     * @param height height
+     * @param stripeCount number of row stripes, more stripes making the
+     *            updates of different rows share fewer stamps
+     */
+    public ConcurrentByte2DMatrix(int width, int height, int stripeCount) {
+        super(width, height, false);
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("The number of stripes must be positive.");
+        }
+        this.cells = new byte[Math.multiplyExact(width, height)];
+        this.stripes = new StampedLock[Math.max(1, Math.min(stripeCount, height))];
+        for (int stripe = 0; stripe < stripes.length; stripe++) {
+            stripes[stripe] = new StampedLock();
+        }
+    }
+
+    /**
+     * @param x abscissa
+     * @param y ordinate
+     * @return index of the cell
+     */
+    private int index(int x, int y) {
+        if (x < 0 || x >= getWidth() || y < 0 || y >= getHeight()) {
+            throw new IndexOutOfBoundsException("Location (" + x + ", " + y + ") out of the "
+                    + getWidth() + " x " + getHeight() + " array");
+        }
+        return y * getWidth() + x;
+    }
+
+    /**
+     * @param y ordinate
+     * @return the lock of the stripe of the row
+     */
+    private StampedLock stripe(int y) {
+        return stripes[y % stripes.length];
+    }
+
+    @Override
+    public byte get(int x, int y) {
+        return (byte) CELLS.getVolatile(cells, index(x, y));
+    }
+
+    @Override
+    public void put(int x, int y, byte value) {
+        getAndSet(x, y, value);
+    }
+
+    @Override
+    public void or(int x, int y, byte value) {
+        getAndOr(x, y, value);
+    }
+
+    @Override
+    public void and(int x, int y, int value) {
+        getAndAnd(x, y, (byte) value);
+    }
+
+    /**
+     * Atomically sets a cell.
+     *
+     * @param x abscissa
+     * @param y ordinate
+     * @param value value to store
+     * @return the previous value
+     */
+    public byte getAndSet(int x, int y, byte value) {
+        int index = index(x, y);
+        StampedLock lock = stripe(y);
+        long stamp = lock.readLock();
+        try {
+            return (byte) CELLS.getAndSet(cells, index, value);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Atomically does a logical 'or' on a cell.
+     *
+     * @param x abscissa
+     * @param y ordinate
+     * @param value value to use
+     * @return the previous value
+     */
+    public byte getAndOr(int x, int y, byte value) {
+        int index = index(x, y);
+        StampedLock lock = stripe(y);
+        long stamp = lock.readLock();
+        try {
+            return (byte) CELLS.getAndBitwiseOr(cells, index, value);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Atomically does a logical 'and' on a cell.
+     *
+     * @param x abscissa
+     * @param y ordinate
+     * @param value value to use
+     * @return the previous value
+     */
+    public byte getAndAnd(int x, int y, byte value) {
+        int index = index(x, y);
+        StampedLock lock = stripe(y);
+        long stamp = lock.readLock();
+        try {
+            return (byte) CELLS.getAndBitwiseAnd(cells, index, value);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Atomically sets a cell if it has the expected value.
+     *
+     * @param x abscissa
+     * @param y ordinate
+     * @param expected the expected value
+     * @param value the new value
+     * @return true if the cell had the expected value and was set
+     */
+    public boolean compareAndSet(int x, int y, byte expected, byte value) {
+        int index = index(x, y);
+        StampedLock lock = stripe(y);
+        long stamp = lock.readLock();
+        try {
+            return CELLS.compareAndSet(cells, index, expected, value);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Sets all the cells of a row. Each cell is set atomically.
+     *
+     * @param y the row
+     * @param value value to store
+     */
+    public void fillRow(int y, byte value) {
+        int start = index(0, y);
+        StampedLock lock = stripe(y);
+        long stamp = lock.readLock();
+        try {
+            for (int index = start; index < start + getWidth(); index++) {
+                CELLS.setVolatile(cells, index, value);
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Does a logical 'or' of a row with a mask. Each cell is updated
+     * atomically.
+     *
+     * @param y the row
+     * @param mask the values to use, one per abscissa
+     */
+    public void orRow(int y, byte[] mask) {
+        checkMask(mask);
+        int start = index(0, y);
+        StampedLock lock = stripe(y);
+        long stamp = lock.readLock();
+        try {
+            for (int x = 0; x < mask.length; x++) {
+                if (mask[x] != 0) {
+                    CELLS.getAndBitwiseOr(cells, start + x, mask[x]);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Does a logical 'and' of a row with a mask. Each cell is updated
+     * atomically.
+     *
+     * @param y the row
+     * @param mask the values to use, one per abscissa
+     */
+    public void andRow(int y, byte[] mask) {
+        checkMask(mask);
+        int start = index(0, y);
+        StampedLock lock = stripe(y);
+        long stamp = lock.readLock();
+        try {
+            for (int x = 0; x < mask.length; x++) {
+                if (mask[x] != -1) {
+                    CELLS.getAndBitwiseAnd(cells, start + x, mask[x]);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param mask a row mask
+     */
+    private void checkMask(byte[] mask) {
+        if (mask.length != getWidth()) {
+            throw new IllegalArgumentException("The mask must have the width of the array.");
+        }
+    }
+
+    /**
+     * Copies the array. The updates started before the copy are completed,
+     * and the updates started during the copy wait for it.
+     *
+     * @return a copy of the array, on the heap
+     */
+    public Byte2DMatrix snapshot() {
+        int width = getWidth();
+        int height = getHeight();
+        Byte2DMatrix copy = new Byte2DMatrix(width, height);
+
+        long[] stamps = new long[stripes.length];
+        for (int stripe = 0; stripe < stripes.length; stripe++) {
+            stamps[stripe] = stripes[stripe].writeLock();
+        }
+        try {
+            // The heap store is column-major
+            for (int x = 0; x < width; x++) {
+                byte[] column = copy.store[x];
+                for (int y = 0; y < height; y++) {
+                    column[y] = (byte) CELLS.getOpaque(cells, y * width + x);
+                }
+            }
+        } finally {
+            for (int stripe = stripes.length - 1; stripe >= 0; stripe--) {
+                stripes[stripe].unlockWrite(stamps[stripe]);
+            }
+        }
+        return copy;
+    }
+
+}
@@ -0,0 +1,198 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import java.util.Arrays;
+
+/**
+ * An immutable sparse integer matrix in compressed sparse row (CSR) format,
+ * for read-heavy use.
+ *
+ * The not zero cells are stored row after row, sorted by abscissa, in two
+ * arrays of abscissas and values, with the offset of each row. Reading a cell
+ * takes a logarithmic time in the size of its row, summing a row or iterating
+ * over the not zero cells takes a time proportional to their number.
+ */
+public final class CsrIntMatrix implements IntMatrix {
+
+    /** Width. */
+    private final int width;
+
+    /** Height. */
+    private final int height;
+
+    /** Offset of the cells of each row, followed by the number of cells. */
+    private final int[] rowOffsets;
+
+    /** Abscissas of the cells. */
+    private final int[] columns;
+
+    /** Values of the cells. */
+    private final int[] values;
+
+    /**
+     * Creates a matrix as a copy of a source matrix.
+     *
+     * @param source the source matrix
+     */
+    public CsrIntMatrix(IntMatrix source) {
+        this.width = source.getWidth();
+        this.height = source.getHeight();
+        this.rowOffsets = new int[height + 1];
+
+        source.forEachNonZero((x, y, value) -> rowOffsets[y + 1]++);
+        for (int y = 0; y < height; y++) {
+            rowOffsets[y + 1] += rowOffsets[y];
+        }
+
+        // Cells packed as abscissa and value, to sort the rows by abscissa
+        long[] cells = new long[rowOffsets[height]];
+        int[] next = Arrays.copyOf(rowOffsets, height);
+        source.forEachNonZero(
+                (x, y, value) -> cells[next[y]++] = ((long) x << Integer.SIZE)
+                        | (value & 0xFFFFFFFFL));
+
+        this.columns = new int[cells.length];
+        this.values = new int[cells.length];
+        for (int y = 0; y < height; y++) {
+            Arrays.sort(cells, rowOffsets[y], rowOffsets[y + 1]);
+        }
+        for (int index = 0; index < cells.length; index++) {
+            columns[index] = (int) (cells[index] >>> Integer.SIZE);
+            values[index] = (int) cells[index];
+        }
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int get(int x, int y) {
+        if (x < 0 || x >= width) {
+            throw new IndexOutOfBoundsException("Abscissa " + x + " out of [0, " + width + "[");
+        }
+        int index = Arrays.binarySearch(columns, rowOffsets[y], rowOffsets[y + 1], x);
+        return (index < 0) ? 0 : values[index];
+    }
+
+    /**
+     * Not supported, the matrix being immutable.
+     *
+     * @param x abscissa
+     * @param y ordinate
+     * @param value the matrix value
+     */
+    @Override
+    public void set(int x, int y, int value) {
+        throw new UnsupportedOperationException(
+                "A CSR matrix is immutable, use a HashSparseIntMatrix for writes.");
+    }
+
+    @Override
+    public int arraySumRow(int rowNum) {
+        int sum = 0;
+        for (int index = rowOffsets[rowNum]; index < rowOffsets[rowNum + 1]; index++) {
+            sum += values[index];
+        }
+        return sum;
+    }
+
+    @Override
+    public int arraySumColumn(int colNum) {
+        int sum = 0;
+        for (int y = 0; y < height; y++) {
+            sum += get(colNum, y);
+        }
+        return sum;
+    }
+
+    @Override
+    public boolean isDiagonal() {
+        if (!isSquare() || columns.length != width) {
+            return false;
+        }
+        for (int y = 0; y < height; y++) {
+            if (rowOffsets[y + 1] - rowOffsets[y] != 1 || columns[rowOffsets[y]] != y) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getNonZeroCount() {
+        return columns.length;
+    }
+
+    /**
+     * Calls an action for each not zero cell, row by row, by increasing
+     * abscissa.
+     *
+     * @param action the action receiving the cells
+     */
+    @Override
+    public void forEachNonZero(CellConsumer action) {
+        for (int y = 0; y < height; y++) {
+            for (int index = rowOffsets[y]; index < rowOffsets[y + 1]; index++) {
+                action.accept(columns[index], y, values[index]);
+            }
+        }
+    }
+
+    /**
+     * Computes the product of this matrix by a vector.
+     *
+     * @param vector a vector of the width of this matrix
+     * @return a new vector of the height of this matrix
+     */
+    public int[] multiply(int[] vector) {
+        if (vector.length != width) {
+            throw new IllegalArgumentException("The vector must have the width of the matrix.");
+        }
+        int[] result = new int[height];
+        for (int y = 0; y < height; y++) {
+            int sum = 0;
+            for (int index = rowOffsets[y]; index < rowOffsets[y + 1]; index++) {
+                sum += values[index] * vector[columns[index]];
+            }
+            result[y] = sum;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the product of this matrix by a dense matrix. Each not zero
+     * cell adds a row of the dense matrix to a row of the result. Integer
+     * overflows wrap around.
+     *
+     * @param other the right matrix, whose height is the width of this matrix
+     * @return a new matrix, in row-major order, of the height of this matrix
+     *         and of the width of the other matrix
+     */
+    public Int2DMatrix multiply(Int2DMatrix other) {
+        if (width != other.getHeight()) {
+            throw new IllegalArgumentException("The width of the left matrix (" + width
+                    + ") must be the height of the right matrix (" + other.getHeight() + ").");
+        }
+
+        int columnCount = other.getWidth();
+        int[] right = other.rowMajorContents();
+        Int2DMatrix result = new Int2DMatrix(columnCount, height);
+        int[] contents = result.contents();
+        IntKernel kernel = IntKernels.get();
+
+        for (int y = 0; y < height; y++) {
+            for (int index = rowOffsets[y]; index < rowOffsets[y + 1]; index++) {
+                kernel.multiplyAdd(values[index], right, columns[index] * columnCount,
+                        contents, y * columnCount, columnCount);
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,183 @@
+package io.github.purpleloop.commons.math.algebra;
+
+/**
+ * A sparse integer matrix for random writes, storing only the not zero cells.
+ *
+ * Each not empty row is a hash table of its cells, keeping the sum of its
+ * values. Reading or writing a cell and summing a row take a constant time,
+ * summing a column takes a time proportional to the height. For read-heavy
+ * use, the matrix can be converted to a {@link CsrIntMatrix}.
+ */
+public final class HashSparseIntMatrix implements IntMatrix {
+
+    /** Width. */
+    private final int width;
+
+    /** Height. */
+    private final int height;
+
+    /** The rows, null when empty. */
+    private final SparseRow[] rows;
+
+    /** Number of not zero cells. */
+    private int nonZeroCount;
+
+    /**
+     * Creates a matrix, all cells being zero.
+     *
+     * @param width Width
+     * @param height Height
+     */
+    public HashSparseIntMatrix(int width, int height) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("The dimensions must be positive or zero.");
+        }
+        this.width = width;
+        this.height = height;
+        this.rows = new SparseRow[height];
+    }
+
+    /**
+     * Creates a matrix as a copy of a source matrix.
+     *
+     * @param source the source matrix
+     */
+    public HashSparseIntMatrix(IntMatrix source) {
+        this(source.getWidth(), source.getHeight());
+        source.forEachNonZero(this::set);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Checks that coordinates are in the matrix.
+     *
+     * @param x abscissa
+     * @param y ordinate
+     */
+    private void checkCoordinates(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("Location (" + x + ", " + y + ") out of the "
+                    + width + " x " + height + " matrix");
+        }
+    }
+
+    /**
+     * Checks that a row is in the matrix.
+     *
+     * @param y ordinate of the row
+     */
+    private void checkRow(int y) {
+        if (y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("Row " + y + " out of the " + width + " x "
+                    + height + " matrix");
+        }
+    }
+
+    /**
+     * Checks that a column is in the matrix.
+     *
+     * @param x abscissa of the column
+     */
+    private void checkColumn(int x) {
+        if (x < 0 || x >= width) {
+            throw new IndexOutOfBoundsException("Column " + x + " out of the " + width + " x "
+                    + height + " matrix");
+        }
+    }
+
+    @Override
+    public int get(int x, int y) {
+        checkCoordinates(x, y);
+        SparseRow row = rows[y];
+        return (row == null) ? 0 : row.get(x);
+    }
+
+    @Override
+    public void set(int x, int y, int value) {
+        checkCoordinates(x, y);
+        SparseRow row = rows[y];
+        if (value == 0) {
+            if (row != null && row.remove(x) != 0) {
+                nonZeroCount--;
+                if (row.size() == 0) {
+                    rows[y] = null;
+                }
+            }
+        } else {
+            if (row == null) {
+                row = new SparseRow();
+                rows[y] = row;
+            }
+            if (row.put(x, value) == 0) {
+                nonZeroCount++;
+            }
+        }
+    }
+
+    @Override
+    public int arraySumRow(int rowNum) {
+        checkRow(rowNum);
+        SparseRow row = rows[rowNum];
+        return (row == null) ? 0 : row.sum();
+    }
+
+    @Override
+    public int arraySumColumn(int colNum) {
+        checkColumn(colNum);
+        int sum = 0;
+        for (SparseRow row : rows) {
+            if (row != null) {
+                sum += row.get(colNum);
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public boolean isDiagonal() {
+        if (!isSquare() || nonZeroCount != width) {
+            return false;
+        }
+        for (int index = 0; index < width; index++) {
+            if (rows[index] == null || rows[index].get(index) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getNonZeroCount() {
+        return nonZeroCount;
+    }
+
+    /**
+     * Calls an action for each not zero cell, row by row, the cells of a row
+     * being in no particular order.
+     *
+     * @param action the action receiving the cells
+     */
+    @Override
+    public void forEachNonZero(CellConsumer action) {
+        for (int y = 0; y < height; y++) {
+            if (rows[y] != null) {
+                rows[y].forEach(y, action);
+            }
+        }
+    }
+
+    /** @return a read-optimized copy of this matrix */
+    public CsrIntMatrix toCsr() {
+        return new CsrIntMatrix(this);
+    }
+
+}
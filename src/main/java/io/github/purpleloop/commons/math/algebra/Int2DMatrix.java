@@ -1,13 +1,28 @@
 package io.github.purpleloop.commons.math.algebra;
 
-/** A 2D integer matrix. */
-public class Int2DMatrix {
-
-    /**
-     * Contents - Note : Storage is array order inverted to match natural order
-     * of indices.
-     */
-    private int[][] matrix;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * A 2D integer matrix.
+ * 
+ * The contents are stored in a single contiguous array, in row-major order by
+ * default. The column-major order can be chosen at creation time when the
+ * matrix is mainly accessed column by column.
+ * 
+ * The sums of the rows and columns and the number of not zero cells can be
+ * maintained on each update (see {@link #setAggregatesMaintained(boolean)}),
+ * so that they are read in constant time, for instance for degree queries on
+ * an adjacency matrix.
+ */
+public class Int2DMatrix implements IntMatrix {
+
+    /** Maximum number of characters of a decimal int value. */
+    private static final int MAX_DIGITS = 11;
+
+    /** Contents, in the storage order. */
+    private int[] matrix;
 
     /** Width. */
     private int width;
@@ -15,35 +30,64 @@ public class Int2DMatrix {
     /** Height. */
     private int height;
 
+    /** Layout of the contents. */
+    private StorageOrder order;
+
+    /** Sums of the rows, null when the aggregates are not maintained. */
+    private int[] rowSums;
+
+    /** Sums of the columns, null when the aggregates are not maintained. */
+    private int[] columnSums;
+
+    /** Number of not zero cells, when the aggregates are maintained. */
+    private int nonZeroCount;
+
+    /** Number of not zero cells on the diagonal, when the aggregates are maintained. */
+    private int nonZeroDiagonalCount;
+
     /**
-     * Creates a matrix.
+     * Creates a matrix, stored in row-major order.
      * 
      * @param width Width
      * @param height Height
      * 
      */
     public Int2DMatrix(int width, int height) {
+        this(width, height, StorageOrder.ROW_MAJOR);
+    }
+
+    /**
+     * Creates a matrix.
+     * 
+     * @param width Width
+     * @param height Height
+     * @param order layout of the contents
+     */
+    public Int2DMatrix(int width, int height, StorageOrder order) {
         this.width = width;
         this.height = height;
-        this.matrix = new int[width][height];
+        this.order = order;
+        this.matrix = new int[Math.multiplyExact(width, height)];
     }
 
     /**
-     * Creates a matrix as a copy of a source matrix.
+     * Creates a matrix as a copy of a source matrix, with the same storage
+     * order. The copy maintains its aggregates if the source does.
      * 
      * @param source the source matrix
      * 
      */
     public Int2DMatrix(Int2DMatrix source) {
-
-        this(source.width, source.height);
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                this.matrix[x][y] = source.matrix[x][y];
-            }
+        this.width = source.width;
+        this.height = source.height;
+        this.order = source.order;
+        this.matrix = source.matrix.clone();
+        if (source.rowSums != null) {
+            this.rowSums = source.rowSums.clone();
+            this.columnSums = source.columnSums.clone();
+            this.nonZeroCount = source.nonZeroCount;
+            this.nonZeroDiagonalCount = source.nonZeroDiagonalCount;
         }
-
     }
 
     /**
@@ -57,15 +101,14 @@ public class Int2DMatrix {
         this(intMatrix[0].length, intMatrix.length);
 
         for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                this.matrix[x][y] = intMatrix[y][x];
-            }
+            System.arraycopy(intMatrix[y], 0, matrix, y * width, width);
         }
     }
 
     /**
      * @return the matrix width
      */
+    @Override
     public int getWidth() {
         return width;
     }
@@ -73,10 +116,95 @@ public class Int2DMatrix {
     /**
      * @return the matrix height
      */
+    @Override
     public int getHeight() {
         return height;
     }
 
+    /**
+     * @return the layout of the contents
+     */
+    public StorageOrder getStorageOrder() {
+        return order;
+    }
+
+    /**
+     * Starts or stops maintaining the sums of the rows and columns and the
+     * number of not zero cells. When maintained, they are updated by each
+     * modification of the matrix, which makes {@link #arraySumRow(int)},
+     * {@link #arraySumColumn(int)}, {@link #getNonZeroCount()} and
+     * {@link #isDiagonal()} constant time operations, at the cost of a slower
+     * {@link #set(int, int, int)}. Matrices computed from this matrix do not
+     * maintain their aggregates.
+     * 
+     * @param maintained true to maintain the aggregates, false to compute
+     *            them on each query
+     */
+    public void setAggregatesMaintained(boolean maintained) {
+        if (!maintained) {
+            rowSums = null;
+            columnSums = null;
+        } else if (rowSums == null) {
+            rowSums = new int[height];
+            columnSums = new int[width];
+            computeAggregates();
+        }
+    }
+
+    /**
+     * @return true if the sums of the rows and columns and the number of not
+     *         zero cells are maintained on each modification
+     */
+    public boolean isAggregatesMaintained() {
+        return rowSums != null;
+    }
+
+    /** Computes the maintained aggregates from the contents. */
+    private void computeAggregates() {
+        Arrays.fill(rowSums, 0);
+        Arrays.fill(columnSums, 0);
+        nonZeroCount = 0;
+        nonZeroDiagonalCount = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                updateAggregates(x, y, 0, matrix[index(x, y)]);
+            }
+        }
+    }
+
+    /**
+     * Updates the maintained aggregates for the modification of a cell.
+     * 
+     * @param x abscissa
+     * @param y ordinate
+     * @param oldValue the previous value of the cell
+     * @param value the new value of the cell
+     */
+    private void updateAggregates(int x, int y, int oldValue, int value) {
+        int delta = value - oldValue;
+        rowSums[y] += delta;
+        columnSums[x] += delta;
+
+        int nonZeroDelta = ((value != 0) ? 1 : 0) - ((oldValue != 0) ? 1 : 0);
+        nonZeroCount += nonZeroDelta;
+        if (x == y) {
+            nonZeroDiagonalCount += nonZeroDelta;
+        }
+    }
+
+    /**
+     * @param x abscissa
+     * @param y ordinate
+     * @return index of the cell in the contents
+     */
+    private int index(int x, int y) {
+        if (order == StorageOrder.ROW_MAJOR) {
+            return y * width + x;
+        } else {
+            return x * height + y;
+        }
+    }
+
     /**
      * Get the matrix contents at the given coordinates.
      * 
@@ -84,8 +212,9 @@ public class Int2DMatrix {
      * @param y ordinate
      * @return the matrix value
      */
+    @Override
     public int get(int x, int y) {
-        return matrix[x][y];
+        return matrix[index(x, y)];
     }
 
     /**
@@ -95,13 +224,288 @@ public class Int2DMatrix {
      * @param y ordinate
      * @param value the matrix value
      */
+    @Override
     public void set(int x, int y, int value) {
-        matrix[x][y] = value;
+        int index = index(x, y);
+        if (rowSums != null) {
+            updateAggregates(x, y, matrix[index], value);
+        }
+        matrix[index] = value;
+    }
+
+    /**
+     * Sets all the cells of a row to the given value.
+     * 
+     * @param y the row to fill
+     * @param value the value to set
+     */
+    public void fillRow(int y, int value) {
+        if (rowSums != null) {
+            for (int x = 0; x < width; x++) {
+                updateAggregates(x, y, matrix[index(x, y)], value);
+            }
+        }
+
+        if (order == StorageOrder.ROW_MAJOR) {
+            Arrays.fill(matrix, y * width, (y + 1) * width, value);
+        } else {
+            for (int x = 0; x < width; x++) {
+                matrix[x * height + y] = value;
+            }
+        }
+    }
+
+    /**
+     * Sets all the cells of a column to the given value.
+     * 
+     * @param x the column to fill
+     * @param value the value to set
+     */
+    public void fillColumn(int x, int value) {
+        if (rowSums != null) {
+            for (int y = 0; y < height; y++) {
+                updateAggregates(x, y, matrix[index(x, y)], value);
+            }
+        }
+
+        if (order == StorageOrder.COLUMN_MAJOR) {
+            Arrays.fill(matrix, x * height, (x + 1) * height, value);
+        } else {
+            for (int y = 0; y < height; y++) {
+                matrix[y * width + x] = value;
+            }
+        }
+    }
+
+    /**
+     * Sets all the cells of the matrix to the given value.
+     * 
+     * @param value the value to set
+     */
+    public void fill(int value) {
+        Arrays.fill(matrix, value);
+        if (rowSums != null) {
+            computeAggregates();
+        }
+    }
+
+    /**
+     * Copies a range of rows of a matrix of the same width into this matrix.
+     * 
+     * @param source the source matrix, which can be this matrix
+     * @param sourceRow the first row to copy in the source matrix
+     * @param targetRow the row where to copy the first row in this matrix
+     * @param rowCount number of rows to copy
+     */
+    public void copyRowRange(Int2DMatrix source, int sourceRow, int targetRow, int rowCount) {
+        if (source.width != width) {
+            throw new IllegalArgumentException("The matrices must have the same width.");
+        }
+        if (rowCount < 0 || sourceRow < 0 || sourceRow + rowCount > source.height
+                || targetRow < 0 || targetRow + rowCount > height) {
+            throw new IllegalArgumentException("The row range is out of the matrices.");
+        }
+
+        if (rowSums != null) {
+            // Done before the copy, as the ranges can overlap in this matrix
+            for (int row = 0; row < rowCount; row++) {
+                for (int x = 0; x < width; x++) {
+                    updateAggregates(x, targetRow + row, get(x, targetRow + row),
+                            source.get(x, sourceRow + row));
+                }
+            }
+        }
+
+        if (order == StorageOrder.ROW_MAJOR && source.order == StorageOrder.ROW_MAJOR) {
+            System.arraycopy(source.matrix, sourceRow * width, matrix, targetRow * width,
+                    rowCount * width);
+        } else if (order == StorageOrder.COLUMN_MAJOR
+                && source.order == StorageOrder.COLUMN_MAJOR) {
+            for (int x = 0; x < width; x++) {
+                System.arraycopy(source.matrix, x * source.height + sourceRow, matrix,
+                        x * height + targetRow, rowCount);
+            }
+        } else {
+            // Mixed layouts, the source is another matrix
+            for (int row = 0; row < rowCount; row++) {
+                for (int x = 0; x < width; x++) {
+                    matrix[index(x, targetRow + row)] = source.get(x, sourceRow + row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies all the cells of a matrix of the same dimensions into this
+     * matrix.
+     * 
+     * @param source the source matrix
+     */
+    public void copyFrom(Int2DMatrix source) {
+        checkSameDimensions(source);
+
+        if (source.order == order) {
+            System.arraycopy(source.matrix, 0, matrix, 0, matrix.length);
+            if (rowSums != null) {
+                computeAggregates();
+            }
+        } else {
+            copyRowRange(source, 0, 0, height);
+        }
+    }
+
+    /**
+     * @return the contents, in the storage order, shared with this matrix, to
+     *         be written only for matrices not maintaining their aggregates
+     */
+    int[] contents() {
+        return matrix;
+    }
+
+    /**
+     * @return the contents in row-major order, shared with this matrix when
+     *         it is stored in this order
+     */
+    int[] rowMajorContents() {
+        if (order == StorageOrder.ROW_MAJOR) {
+            return matrix;
+        }
+        int[] contents = new int[matrix.length];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                contents[y * width + x] = matrix[x * height + y];
+            }
+        }
+        return contents;
+    }
+
+    /**
+     * Checks that a matrix has the same dimensions as this matrix.
+     * 
+     * @param other the other matrix
+     */
+    private void checkSameDimensions(Int2DMatrix other) {
+        if (other.width != width || other.height != height) {
+            throw new IllegalArgumentException("The matrices must have the same dimensions.");
+        }
+    }
+
+    /**
+     * Adds a matrix to this matrix. Integer overflows wrap around.
+     * 
+     * @param other a matrix of the same dimensions
+     * @return a new matrix, sum of both matrices, in the storage order of this
+     *         matrix
+     */
+    public Int2DMatrix add(Int2DMatrix other) {
+        checkSameDimensions(other);
+
+        Int2DMatrix operand = other;
+        if (other.order != order) {
+            operand = new Int2DMatrix(width, height, order);
+            operand.copyFrom(other);
+        }
+
+        Int2DMatrix result = new Int2DMatrix(width, height, order);
+        IntKernels.get().add(matrix, operand.matrix, result.matrix);
+        return result;
+    }
+
+    /**
+     * Adds a value to all the cells of this matrix. Integer overflows wrap
+     * around.
+     * 
+     * @param value the value to add
+     * @return a new matrix, in the storage order of this matrix
+     */
+    public Int2DMatrix add(int value) {
+        Int2DMatrix result = new Int2DMatrix(width, height, order);
+        IntKernels.get().add(matrix, value, result.matrix);
+        return result;
+    }
+
+    /**
+     * Multiplies all the cells of this matrix by a value. Integer overflows
+     * wrap around.
+     * 
+     * @param factor the multiplication factor
+     * @return a new matrix, in the storage order of this matrix
+     */
+    public Int2DMatrix multiply(int factor) {
+        Int2DMatrix result = new Int2DMatrix(width, height, order);
+        IntKernels.get().multiply(matrix, factor, result.matrix);
+        return result;
+    }
+
+    /**
+     * Transposes this matrix. The transposed matrix shares no data with this
+     * matrix, but has the other storage order : its contents are a plain copy
+     * of the contents of this matrix.
+     * 
+     * @return a new matrix, of width the height of this matrix and of height
+     *         the width of this matrix
+     */
+    public Int2DMatrix transpose() {
+        StorageOrder transposedOrder = (order == StorageOrder.ROW_MAJOR)
+                ? StorageOrder.COLUMN_MAJOR
+                : StorageOrder.ROW_MAJOR;
+        Int2DMatrix result = new Int2DMatrix(height, width, transposedOrder);
+        System.arraycopy(matrix, 0, result.matrix, 0, matrix.length);
+        return result;
+    }
+
+    /**
+     * Checks that a matrix can be multiplied by another one.
+     * 
+     * @param other the right matrix of the product
+     */
+    private void checkProductDimensions(Int2DMatrix other) {
+        if (width != other.height) {
+            throw new IllegalArgumentException("The width of the left matrix (" + width
+                    + ") must be the height of the right matrix (" + other.height + ").");
+        }
+    }
+
+    /**
+     * Computes the product of this matrix by another matrix. Integer overflows
+     * wrap around. Large matrices are multiplied faster by a
+     * {@link ParallelMatrixMultiplier}.
+     * 
+     * @param other the right matrix, whose height is the width of this matrix
+     * @return a new matrix, in row-major order, of the height of this matrix
+     *         and of the width of the other matrix
+     */
+    public Int2DMatrix multiply(Int2DMatrix other) {
+        checkProductDimensions(other);
+
+        Int2DMatrix result = new Int2DMatrix(other.width, height);
+        IntKernels.get().multiply(rowMajorContents(), other.rowMajorContents(), result.matrix,
+                height, width, other.width);
+        return result;
+    }
+
+    /**
+     * Computes the boolean product of this matrix by another matrix, where not
+     * zero values are true. For adjacency matrices, the product of a matrix by
+     * itself gives the pairs of nodes joined by a path of length 2.
+     * 
+     * @param other the right matrix, whose height is the width of this matrix
+     * @return a new matrix of 0 and 1, in row-major order, of the height of
+     *         this matrix and of the width of the other matrix
+     */
+    public Int2DMatrix booleanProduct(Int2DMatrix other) {
+        checkProductDimensions(other);
+
+        Int2DMatrix result = new Int2DMatrix(other.width, height);
+        IntKernels.get().booleanProduct(rowMajorContents(), other.rowMajorContents(),
+                result.matrix, height, width, other.width);
+        return result;
     }
 
     /**
      * @return true if matrix is square, false otherwise
      */
+    @Override
     public boolean isSquare() {
         return height == width;
     }
@@ -110,10 +514,22 @@ public class Int2DMatrix {
      * @param rowNum the row where to sum
      * @return sum of all the matrix values for the given row
      */
+    @Override
     public int arraySumRow(int rowNum) {
+        if (rowSums != null) {
+            return rowSums[rowNum];
+        }
+
         int sum = 0;
-        for (int colNum = 0; colNum < width; colNum++) {
-            sum += this.matrix[colNum][rowNum];
+        if (order == StorageOrder.ROW_MAJOR) {
+            int end = (rowNum + 1) * width;
+            for (int index = rowNum * width; index < end; index++) {
+                sum += this.matrix[index];
+            }
+        } else {
+            for (int colNum = 0; colNum < width; colNum++) {
+                sum += this.matrix[colNum * height + rowNum];
+            }
         }
 
         return sum;
@@ -123,10 +539,22 @@ public class Int2DMatrix {
      * @param colNum the column where to sum
      * @return sum of all the matrix values for the given column
      */
+    @Override
     public int arraySumColumn(int colNum) {
+        if (columnSums != null) {
+            return columnSums[colNum];
+        }
+
         int sum = 0;
-        for (int rowNum = 0; rowNum < height; rowNum++) {
-            sum += this.matrix[colNum][rowNum];
+        if (order == StorageOrder.COLUMN_MAJOR) {
+            int end = (colNum + 1) * height;
+            for (int index = colNum * height; index < end; index++) {
+                sum += this.matrix[index];
+            }
+        } else {
+            for (int rowNum = 0; rowNum < height; rowNum++) {
+                sum += this.matrix[rowNum * width + colNum];
+            }
         }
 
         return sum;
@@ -136,17 +564,20 @@ public class Int2DMatrix {
      * @return true if the matrix is diagonal (not zero only on the
      *         left-to-right diagonal), false otherwise
      */
+    @Override
     public boolean isDiagonal() {
         if (!isSquare()) {
             return false;
         }
+        if (rowSums != null) {
+            return nonZeroDiagonalCount == width && nonZeroCount == width;
+        }
 
-        boolean notZeroExpected;
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                notZeroExpected = (x == y);
-
-                if (notZeroExpected ^ (this.matrix[x][y] != 0)) {
+        // Square matrix : both layouts have the diagonal at the same indexes
+        int index = 0;
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                if ((i == j) ^ (this.matrix[index++] != 0)) {
                     return false;
                 }
             }
@@ -155,31 +586,115 @@ public class Int2DMatrix {
         return true;
     }
 
+    @Override
+    public int getNonZeroCount() {
+        if (rowSums != null) {
+            return nonZeroCount;
+        }
+
+        int count = 0;
+        for (int value : matrix) {
+            if (value != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     /** @return a string representing formatted the matrix */
     public String toPrettyString() {
 
         StringBuilder sbMatrix = new StringBuilder();
+        try {
+            toPrettyString(sbMatrix);
+        } catch (IOException e) {
+            // A StringBuilder does not throw IOException
+            throw new UncheckedIOException(e);
+        }
+        return sbMatrix.toString();
+    }
 
-        sbMatrix.append("[\n");
-        for (int y = 0; y < height; y++) {
+    /**
+     * Writes the formatted matrix, row by row, without allocation per cell.
+     * 
+     * @param out where to write the matrix
+     * @throws IOException in case of problem when writing
+     */
+    public void toPrettyString(Appendable out) throws IOException {
+        toPrettyString(out, 0, 0, width, height);
+    }
 
-            sbMatrix.append("  [");
+    /**
+     * Writes a rectangular region of the matrix, formatted as a matrix, row by
+     * row, without allocation per cell.
+     * 
+     * @param out where to write the region
+     * @param left abscissa of the left column of the region
+     * @param top ordinate of the top row of the region
+     * @param regionWidth width of the region
+     * @param regionHeight height of the region
+     * @throws IOException in case of problem when writing
+     */
+    public void toPrettyString(Appendable out, int left, int top, int regionWidth,
+            int regionHeight) throws IOException {
+        if (left < 0 || top < 0 || regionWidth < 0 || regionHeight < 0
+                || left + regionWidth > width || top + regionHeight > height) {
+            throw new IllegalArgumentException("The region is out of the matrix.");
+        }
 
-            for (int x = 0; x < width; x++) {
-                if (x > 0) {
-                    sbMatrix.append(", ");
+        char[] digits = new char[MAX_DIGITS];
+        int bottom = top + regionHeight;
+
+        out.append("[\n");
+        for (int y = top; y < bottom; y++) {
+
+            out.append("  [");
+
+            for (int x = left; x < left + regionWidth; x++) {
+                if (x > left) {
+                    out.append(", ");
                 }
-                sbMatrix.append(this.matrix[x][y]);
+                appendDecimal(out, this.matrix[index(x, y)], digits);
             }
-            sbMatrix.append("]");
-            if (y < height - 1) {
-                sbMatrix.append(",");
+            out.append(']');
+            if (y < bottom - 1) {
+                out.append(',');
             }
-            sbMatrix.append("\n");
+            out.append('\n');
 
         }
-        sbMatrix.append("]");
-        return sbMatrix.toString();
+        out.append(']');
+    }
+
+    /**
+     * Appends the decimal digits of a value.
+     * 
+     * @param out where to append the digits
+     * @param value the value to append
+     * @param digits a buffer of {@link #MAX_DIGITS} characters, reused between
+     *            calls
+     * @throws IOException in case of problem when writing
+     */
+    private static void appendDecimal(Appendable out, int value, char[] digits)
+            throws IOException {
+        if (out instanceof StringBuilder sb) {
+            sb.append(value);
+            return;
+        }
+
+        // Digits are computed on the negative value, which holds Integer.MIN_VALUE
+        int remaining = (value < 0) ? value : -value;
+        int position = digits.length;
+        do {
+            digits[--position] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        if (value < 0) {
+            digits[--position] = '-';
+        }
+        for (; position < digits.length; position++) {
+            out.append(digits[position]);
+        }
     }
 
 }
@@ -0,0 +1,80 @@
+package io.github.purpleloop.commons.math.algebra;
+
+/**
+ * Arithmetic kernels on the contents of integer matrices.
+ *
+ * Matrices are given as arrays in row-major order. Results are written in
+ * arrays provided by the caller, which can be the operands for the lanewise
+ * operations. Integer overflows wrap around, as with the Java operators.
+ */
+interface IntKernel {
+
+    /**
+     * Adds two arrays, cell by cell.
+     *
+     * @param a first operand
+     * @param b second operand, of the length of the first operand
+     * @param result array receiving the sums
+     */
+    void add(int[] a, int[] b, int[] result);
+
+    /**
+     * Adds a scalar to all the cells of an array.
+     *
+     * @param a the operand
+     * @param value the value to add
+     * @param result array receiving the sums
+     */
+    void add(int[] a, int value, int[] result);
+
+    /**
+     * Multiplies all the cells of an array by a scalar.
+     *
+     * @param a the operand
+     * @param factor the multiplication factor
+     * @param result array receiving the products
+     */
+    void multiply(int[] a, int factor, int[] result);
+
+    /**
+     * Adds the product of a row segment by a scalar to another row segment.
+     *
+     * @param factor the multiplication factor
+     * @param source array containing the segment to multiply
+     * @param sourceOffset index of the first cell of the segment to multiply
+     * @param target array containing the segment receiving the products
+     * @param targetOffset index of the first cell of the receiving segment
+     * @param length number of cells of the segments
+     */
+    void multiplyAdd(int factor, int[] source, int sourceOffset, int[] target,
+            int targetOffset, int length);
+
+    /**
+     * Computes the product of two matrices.
+     *
+     * @param a left matrix, of rows × inner cells
+     * @param b right matrix, of inner × columns cells
+     * @param result zeroed array of rows × columns cells, receiving the product
+     * @param rows number of rows of the left matrix
+     * @param inner number of columns of the left matrix and rows of the right
+     *            matrix
+     * @param columns number of columns of the right matrix
+     */
+    void multiply(int[] a, int[] b, int[] result, int rows, int inner, int columns);
+
+    /**
+     * Computes the boolean product of two matrices, where not zero values are
+     * true, the sum is an OR and the product an AND.
+     *
+     * @param a left matrix, of rows × inner cells
+     * @param b right matrix, of inner × columns cells
+     * @param result zeroed array of rows × columns cells, receiving 1 for true
+     *            and 0 for false
+     * @param rows number of rows of the left matrix
+     * @param inner number of columns of the left matrix and rows of the right
+     *            matrix
+     * @param columns number of columns of the right matrix
+     */
+    void booleanProduct(int[] a, int[] b, int[] result, int rows, int inner, int columns);
+
+}
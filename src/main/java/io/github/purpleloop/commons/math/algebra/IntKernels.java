@@ -0,0 +1,57 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import java.util.Optional;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Selection of the arithmetic kernels of the integer matrices.
+ *
+ * The vectorized kernels are used when the jdk.incubator.vector module is
+ * present and readable, for instance when the JVM is started with
+ * <code>--add-modules jdk.incubator.vector</code>. The scalar kernels are used
+ * otherwise.
+ */
+final class IntKernels {
+
+    /** Class logger. */
+    private static final Log LOG = LogFactory.getLog(IntKernels.class);
+
+    /** Name of the module of the Vector API. */
+    static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /** The kernels in use. */
+    private static final IntKernel KERNEL = select();
+
+    /** Private constructor. */
+    private IntKernels() {
+        // Nothing to do here
+    }
+
+    /** @return true if the Vector API can be used by this module */
+    static boolean isVectorApiAvailable() {
+        Optional<Module> vectorModule = ModuleLayer.boot().findModule(VECTOR_MODULE);
+        return vectorModule.isPresent() && IntKernels.class.getModule().canRead(vectorModule.get());
+    }
+
+    /** @return the best kernels available */
+    private static IntKernel select() {
+        if (isVectorApiAvailable()) {
+            try {
+                IntKernel kernel = new VectorIntKernel();
+                LOG.debug("Using the vectorized matrix kernels");
+                return kernel;
+            } catch (LinkageError e) {
+                LOG.warn("Vector API unusable, using the scalar matrix kernels", e);
+            }
+        }
+        return new ScalarIntKernel();
+    }
+
+    /** @return the kernels in use */
+    static IntKernel get() {
+        return KERNEL;
+    }
+
+}
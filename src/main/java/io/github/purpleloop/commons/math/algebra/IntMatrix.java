@@ -0,0 +1,135 @@
+package io.github.purpleloop.commons.math.algebra;
+
+/**
+ * A 2D integer matrix, dense or sparse.
+ *
+ * Cells are addressed by abscissa (column) and ordinate (row). The default
+ * methods scan all the cells, implementations override them when they can do
+ * better.
+ */
+public interface IntMatrix {
+
+    /** An action on the cells of a matrix. */
+    @FunctionalInterface
+    interface CellConsumer {
+
+        /**
+         * Receives a cell.
+         *
+         * @param x abscissa
+         * @param y ordinate
+         * @param value the matrix value
+         */
+        void accept(int x, int y, int value);
+    }
+
+    /**
+     * @return the matrix width
+     */
+    int getWidth();
+
+    /**
+     * @return the matrix height
+     */
+    int getHeight();
+
+    /**
+     * Get the matrix contents at the given coordinates.
+     *
+     * @param x abscissa
+     * @param y ordinate
+     * @return the matrix value
+     */
+    int get(int x, int y);
+
+    /**
+     * Set the matrix contents at the given coordinates.
+     *
+     * @param x abscissa
+     * @param y ordinate
+     * @param value the matrix value
+     */
+    void set(int x, int y, int value);
+
+    /**
+     * @return true if matrix is square, false otherwise
+     */
+    default boolean isSquare() {
+        return getHeight() == getWidth();
+    }
+
+    /**
+     * @param rowNum the row where to sum
+     * @return sum of all the matrix values for the given row
+     */
+    default int arraySumRow(int rowNum) {
+        int sum = 0;
+        for (int colNum = 0; colNum < getWidth(); colNum++) {
+            sum += get(colNum, rowNum);
+        }
+        return sum;
+    }
+
+    /**
+     * @param colNum the column where to sum
+     * @return sum of all the matrix values for the given column
+     */
+    default int arraySumColumn(int colNum) {
+        int sum = 0;
+        for (int rowNum = 0; rowNum < getHeight(); rowNum++) {
+            sum += get(colNum, rowNum);
+        }
+        return sum;
+    }
+
+    /**
+     * @return true if the matrix is diagonal (not zero only on the
+     *         left-to-right diagonal), false otherwise
+     */
+    default boolean isDiagonal() {
+        if (!isSquare()) {
+            return false;
+        }
+        for (int y = 0; y < getHeight(); y++) {
+            for (int x = 0; x < getWidth(); x++) {
+                if ((x == y) ^ (get(x, y) != 0)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return number of not zero cells
+     */
+    default int getNonZeroCount() {
+        int count = 0;
+        for (int y = 0; y < getHeight(); y++) {
+            for (int x = 0; x < getWidth(); x++) {
+                if (get(x, y) != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Calls an action for each not zero cell, row by row. Sparse
+     * implementations only visit their stored cells.
+     *
+     * @param action the action receiving the cells
+     */
+    default void forEachNonZero(CellConsumer action) {
+        for (int y = 0; y < getHeight(); y++) {
+            for (int x = 0; x < getWidth(); x++) {
+                int value = get(x, y);
+                if (value != 0) {
+                    action.accept(x, y, value);
+                }
+            }
+        }
+    }
+
+}
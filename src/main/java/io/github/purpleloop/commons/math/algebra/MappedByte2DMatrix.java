@@ -0,0 +1,289 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * A 2D array of bytes stored in a memory-mapped file, out of the heap.
+ *
+ * <p>
+ * The file starts with a header of {@value #HEADER_SIZE} bytes (magic number,
+ * format version, width and height, as big endian integers), followed by the
+ * cells in row-major order. The heap footprint does not depend on the size of
+ * the array, and an existing file is reopened without reading its contents :
+ * pages are loaded by the operating system when accessed.
+ * </p>
+ *
+ * <p>
+ * As a mapped buffer is limited to 2 GB, the contents are mapped in several
+ * chunks. Writes are visible to other mappings of the file immediately, and
+ * are written to the storage device by {@link #force()} or {@link #close()}.
+ * </p>
+ *
+ * <p>
+ * A file can also be opened read-only, for instance on a read-only mount, or
+ * mapped privately ({@link MapMode#PRIVATE}), changes then staying private to
+ * the mapping. Writing to a read-only matrix throws a
+ * {@link java.nio.ReadOnlyBufferException}.
+ * </p>
+ */
+public class MappedByte2DMatrix extends Byte2DMatrix implements Closeable {
+
+    /** Class logger. */
+    private static final Log LOG = LogFactory.getLog(MappedByte2DMatrix.class);
+
+    /** Magic number of the files ("PB2D"). */
+    static final int MAGIC = 0x50423244;
+
+    /** Version of the file format. */
+    static final int VERSION = 1;
+
+    /** Size of the header, in bytes. */
+    public static final int HEADER_SIZE = 16;
+
+    /** Default size of the mapped chunks, in bytes. */
+    static final int DEFAULT_CHUNK_SIZE = 1 << 30;
+
+    /** Path of the file. */
+    private final Path path;
+
+    /** Size of the mapped chunks, in bytes. */
+    private final int chunkSize;
+
+    /** The mapped chunks of the contents, null once closed. */
+    private MappedByteBuffer[] chunks;
+
+    /**
+     * Creates a matrix over mapped chunks.
+     *
+     * @param path path of the file
+     * @param width width
+     * @param height height
+     * @param chunkSize size of the mapped chunks, in bytes
+     * @param chunks the mapped chunks of the contents
+     */
+    private MappedByte2DMatrix(Path path, int width, int height, int chunkSize,
+            MappedByteBuffer[] chunks) {
+        super(width, height, false);
+        this.path = path;
+        this.chunkSize = chunkSize;
+        this.chunks = chunks;
+    }
+
+    /**
+     * Creates a file for a matrix, all cells being zero, and maps it. An
+     * existing file is replaced. On most file systems, the file is sparse
+     * until cells are written.
+     *
+     * @param path path of the file
+     * @param width width
+     * @param height height
+     * @return the mapped matrix
+     * @throws IOException in case of problem when creating the file
+     */
+    public static MappedByte2DMatrix create(Path path, int width, int height)
+            throws IOException {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("The dimensions must be positive or zero.");
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+        LOG.debug("Created the matrix file " + path + " of " + width + " x " + height);
+
+        return open(path, MapMode.READ_WRITE, DEFAULT_CHUNK_SIZE, true);
+    }
+
+    /**
+     * Opens and maps the file of an existing matrix, for reading and writing.
+     *
+     * @param path path of the file
+     * @return the mapped matrix
+     * @throws IOException in case of problem when reading the file, or if it
+     *             is not a matrix file
+     */
+    public static MappedByte2DMatrix open(Path path) throws IOException {
+        return open(path, MapMode.READ_WRITE, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Opens and maps the file of an existing matrix.
+     *
+     * @param path path of the file
+     * @param mode {@link MapMode#READ_ONLY}, {@link MapMode#READ_WRITE} or
+     *            {@link MapMode#PRIVATE} for a copy-on-write mapping, the last
+     *            two requiring a writable file
+     * @return the mapped matrix
+     * @throws IOException in case of problem when reading the file, or if it
+     *             is not a matrix file
+     */
+    public static MappedByte2DMatrix open(Path path, MapMode mode) throws IOException {
+        return open(path, mode, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Opens and maps the file of an existing matrix.
+     *
+     * @param path path of the file
+     * @param mode the mapping mode
+     * @param chunkSize size of the mapped chunks, in bytes
+     * @return the mapped matrix
+     * @throws IOException in case of problem when reading the file, or if it
+     *             is not a matrix file
+     */
+    static MappedByte2DMatrix open(Path path, MapMode mode, int chunkSize) throws IOException {
+        return open(path, mode, chunkSize, false);
+    }
+
+    /**
+     * Opens and maps the file of a matrix.
+     *
+     * @param path path of the file
+     * @param mode the mapping mode
+     * @param chunkSize size of the mapped chunks, in bytes
+     * @param created true for a file just created with only its header,
+     *            extended by the mapping, false for an existing matrix whose
+     *            cells must all be present
+     * @return the mapped matrix
+     * @throws IOException in case of problem when reading the file, or if it
+     *             is not a matrix file
+     */
+    private static MappedByte2DMatrix open(Path path, MapMode mode, int chunkSize,
+            boolean created) throws IOException {
+
+        StandardOpenOption[] options = (mode == MapMode.READ_ONLY)
+                ? new StandardOpenOption[] { StandardOpenOption.READ }
+                : new StandardOpenOption[] { StandardOpenOption.READ, StandardOpenOption.WRITE };
+
+        try (FileChannel channel = FileChannel.open(path, options)) {
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Reads until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IOException("The file " + path + " is not a matrix file.");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version + " of the matrix file "
+                        + path + ".");
+            }
+            int width = header.getInt();
+            int height = header.getInt();
+            if (width < 0 || height < 0) {
+                throw new IOException("Invalid dimensions in the matrix file " + path + ".");
+            }
+
+            long size = (long) width * height;
+            long fileSize = channel.size();
+
+            // A created file only has its header, it is extended by the mapping
+            if (!created && fileSize < HEADER_SIZE + size) {
+                throw new IOException("The matrix file " + path + " is truncated.");
+            }
+
+            int chunkCount = (int) ((size + chunkSize - 1) / chunkSize);
+            MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                long position = (long) chunk * chunkSize;
+                long length = Math.min(chunkSize, size - position);
+                chunks[chunk] = channel.map(mode, HEADER_SIZE + position, length);
+            }
+
+            return new MappedByte2DMatrix(path, width, height, chunkSize, chunks);
+        }
+    }
+
+    /** @return path of the file */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @param x abscissa
+     * @param y ordinate
+     * @return position of the cell in the contents
+     */
+    private long position(int x, int y) {
+        if (chunks == null) {
+            throw new IllegalStateException("The matrix " + path + " is closed.");
+        }
+        if (x < 0 || x >= getWidth() || y < 0 || y >= getHeight()) {
+            throw new IndexOutOfBoundsException("Location (" + x + ", " + y + ") out of the "
+                    + getWidth() + " x " + getHeight() + " matrix");
+        }
+        return (long) y * getWidth() + x;
+    }
+
+    @Override
+    public byte get(int x, int y) {
+        long position = position(x, y);
+        return chunks[(int) (position / chunkSize)].get((int) (position % chunkSize));
+    }
+
+    @Override
+    public void put(int x, int y, byte value) {
+        long position = position(x, y);
+        chunks[(int) (position / chunkSize)].put((int) (position % chunkSize), value);
+    }
+
+    @Override
+    public void or(int x, int y, byte value) {
+        long position = position(x, y);
+        MappedByteBuffer chunk = chunks[(int) (position / chunkSize)];
+        int index = (int) (position % chunkSize);
+        chunk.put(index, (byte) (chunk.get(index) | value));
+    }
+
+    @Override
+    public void and(int x, int y, int value) {
+        long position = position(x, y);
+        MappedByteBuffer chunk = chunks[(int) (position / chunkSize)];
+        int index = (int) (position % chunkSize);
+        chunk.put(index, (byte) (chunk.get(index) & value));
+    }
+
+    /**
+     * Writes the modified contents to the storage device, for a matrix mapped
+     * for reading and writing.
+     */
+    public void force() {
+        if (chunks != null) {
+            for (MappedByteBuffer chunk : chunks) {
+                if (!chunk.isReadOnly()) {
+                    chunk.force();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the modified contents to the storage device and releases the
+     * mapped chunks. The memory is unmapped when the chunks are garbage
+     * collected.
+     */
+    @Override
+    public void close() {
+        force();
+        chunks = null;
+    }
+
+}
@@ -0,0 +1,626 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.CRC32;
+
+/**
+ * A compact binary format for {@link Int2DMatrix} and {@link Byte2DMatrix},
+ * written to and read from NIO channels.
+ *
+ * <p>
+ * A matrix is written as a header of {@value #HEADER_SIZE} bytes, a payload
+ * and, if requested, a CRC32 checksum of the payload. The header contains a
+ * magic number, the format version, the element type, the storage layout, the
+ * compression, the flags, the dimensions and the length of the payload. All
+ * values are little endian, the native order of most platforms, so that the
+ * cells are transferred in bulk.
+ * </p>
+ *
+ * <p>
+ * The payload contains the cells in the storage layout of the matrix, either
+ * raw or compressed as runs of equal cells, which suits sparse matrices. The
+ * reader detects the compression and the checksum from the header.
+ * </p>
+ */
+public final class MatrixCodec {
+
+    /** Compression of the payload. */
+    public enum Compression {
+
+        /** The cells are written as they are. */
+        NONE,
+
+        /** The cells are written as runs : a count, then the repeated cell. */
+        RUN_LENGTH;
+    }
+
+    /** Magic number of the format ("PMTX"). */
+    static final int MAGIC = 0x58544D50;
+
+    /** Version of the format. */
+    static final short VERSION = 1;
+
+    /** Size of the header, in bytes. */
+    public static final int HEADER_SIZE = 32;
+
+    /** Size of the transfer buffers, in bytes, a multiple of the cell sizes. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Element type of the integer matrices (size of a cell). */
+    private static final byte INT_ELEMENT = Integer.BYTES;
+
+    /** Element type of the byte matrices (size of a cell). */
+    private static final byte BYTE_ELEMENT = Byte.BYTES;
+
+    /** Flag of a payload followed by its checksum. */
+    private static final byte CHECKSUM_FLAG = 1;
+
+    /** A codec writing raw cells, with a checksum. */
+    public static final MatrixCodec DEFAULT = new MatrixCodec(Compression.NONE, true);
+
+    /** Compression of the written payloads. */
+    private final Compression compression;
+
+    /** True if the written payloads are followed by their checksum. */
+    private final boolean checksum;
+
+    /**
+     * The header of a matrix.
+     *
+     * @param elementType size of a cell, in bytes
+     * @param layout the storage layout of the cells
+     * @param compression the compression of the payload
+     * @param checksum true if the payload is followed by its checksum
+     * @param width width of the matrix
+     * @param height height of the matrix
+     * @param payloadLength length of the payload, in bytes
+     */
+    private record Header(byte elementType, StorageOrder layout, Compression compression,
+            boolean checksum, int width, int height, long payloadLength) {
+
+        /** @return number of cells of the matrix, checked by the reader */
+        int cellCount() {
+            return width * height;
+        }
+    }
+
+    /** Access to the cells of a matrix, by index in the storage layout. */
+    private interface Cells {
+
+        /**
+         * @param index index of the cell in the storage layout
+         * @return value of the cell
+         */
+        int get(int index);
+
+        /**
+         * @param index index of the cell in the storage layout
+         * @param value value of the cell
+         */
+        void set(int index, int value);
+    }
+
+    /**
+     * Creates a codec.
+     *
+     * @param compression compression of the written payloads
+     * @param checksum true to follow the written payloads with their CRC32
+     *            checksum
+     */
+    public MatrixCodec(Compression compression, boolean checksum) {
+        if (compression == null) {
+            throw new IllegalArgumentException("The compression must not be null");
+        }
+        this.compression = compression;
+        this.checksum = checksum;
+    }
+
+    /** @return compression of the written payloads */
+    public Compression getCompression() {
+        return compression;
+    }
+
+    /** @return true if the written payloads are followed by their checksum */
+    public boolean isChecksum() {
+        return checksum;
+    }
+
+    /** @return a little endian transfer buffer */
+    private static ByteBuffer newBuffer() {
+        return ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * @param contents the contents of an integer matrix
+     * @return access to the cells of the matrix, in its storage layout
+     */
+    private static Cells cells(int[] contents) {
+        return new Cells() {
+
+            @Override
+            public int get(int index) {
+                return contents[index];
+            }
+
+            @Override
+            public void set(int index, int value) {
+                contents[index] = value;
+            }
+        };
+    }
+
+    /**
+     * @param matrix a byte matrix
+     * @param layout the layout of the cells, column-major requiring the heap
+     *            store
+     * @return access to the cells of the matrix, in the given layout
+     */
+    private static Cells cells(Byte2DMatrix matrix, StorageOrder layout) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        if (layout == StorageOrder.COLUMN_MAJOR) {
+            return new Cells() {
+
+                @Override
+                public int get(int index) {
+                    return matrix.store[index / height][index % height];
+                }
+
+                @Override
+                public void set(int index, int value) {
+                    matrix.store[index / height][index % height] = (byte) value;
+                }
+            };
+        }
+        return new Cells() {
+
+            @Override
+            public int get(int index) {
+                return matrix.get(index % width, index / width);
+            }
+
+            @Override
+            public void set(int index, int value) {
+                matrix.put(index % width, index / width, (byte) value);
+            }
+        };
+    }
+
+    /**
+     * @param matrix a byte matrix
+     * @return the storage layout of the cells, the heap store being indexed
+     *         by abscissa first
+     */
+    private static StorageOrder layout(Byte2DMatrix matrix) {
+        return (matrix.store != null) ? StorageOrder.COLUMN_MAJOR : StorageOrder.ROW_MAJOR;
+    }
+
+    /**
+     * Writes an integer matrix.
+     *
+     * @param matrix the matrix to write
+     * @param channel the channel where to write
+     * @throws IOException in case of problem when writing
+     */
+    public void write(Int2DMatrix matrix, WritableByteChannel channel) throws IOException {
+        int[] contents = matrix.contents();
+        CRC32 crc = checksum ? new CRC32() : null;
+
+        if (compression == Compression.RUN_LENGTH) {
+            ByteBuffer payload = encodeRuns(contents.length, INT_ELEMENT, cells(contents));
+            writeHeader(channel, INT_ELEMENT, matrix.getStorageOrder(), matrix.getWidth(),
+                    matrix.getHeight(), payload.remaining());
+            writeFully(channel, payload, crc);
+
+        } else {
+            writeHeader(channel, INT_ELEMENT, matrix.getStorageOrder(), matrix.getWidth(),
+                    matrix.getHeight(), (long) contents.length * Integer.BYTES);
+
+            ByteBuffer buffer = newBuffer();
+            int perBuffer = BUFFER_SIZE / Integer.BYTES;
+            for (int offset = 0; offset < contents.length; offset += perBuffer) {
+                int count = Math.min(perBuffer, contents.length - offset);
+                buffer.clear();
+                buffer.asIntBuffer().put(contents, offset, count);
+                buffer.limit(count * Integer.BYTES);
+                writeFully(channel, buffer, crc);
+            }
+        }
+
+        writeChecksum(channel, crc);
+    }
+
+    /**
+     * Writes a byte matrix.
+     *
+     * @param matrix the matrix to write
+     * @param channel the channel where to write
+     * @throws IOException in case of problem when writing
+     */
+    public void write(Byte2DMatrix matrix, WritableByteChannel channel) throws IOException {
+        int cellCount = Math.multiplyExact(matrix.getWidth(), matrix.getHeight());
+        StorageOrder layout = layout(matrix);
+        Cells cells = cells(matrix, layout);
+        CRC32 crc = checksum ? new CRC32() : null;
+
+        if (compression == Compression.RUN_LENGTH) {
+            ByteBuffer payload = encodeRuns(cellCount, BYTE_ELEMENT, cells);
+            writeHeader(channel, BYTE_ELEMENT, layout, matrix.getWidth(), matrix.getHeight(),
+                    payload.remaining());
+            writeFully(channel, payload, crc);
+
+        } else {
+            writeHeader(channel, BYTE_ELEMENT, layout, matrix.getWidth(), matrix.getHeight(),
+                    cellCount);
+
+            if (matrix.store != null) {
+                // Columns of the heap store are written without copy
+                for (byte[] column : matrix.store) {
+                    writeFully(channel, ByteBuffer.wrap(column), crc);
+                }
+            } else {
+                ByteBuffer buffer = newBuffer();
+                for (int index = 0; index < cellCount; index++) {
+                    if (!buffer.hasRemaining()) {
+                        buffer.flip();
+                        writeFully(channel, buffer, crc);
+                        buffer.clear();
+                    }
+                    buffer.put((byte) cells.get(index));
+                }
+                buffer.flip();
+                writeFully(channel, buffer, crc);
+            }
+        }
+
+        writeChecksum(channel, crc);
+    }
+
+    /**
+     * Reads an integer matrix. The matrix has the storage order it had when
+     * written.
+     *
+     * @param channel the channel where to read
+     * @return the matrix read
+     * @throws IOException in case of problem when reading, if the data is not
+     *             an integer matrix or if the checksum does not match
+     */
+    public static Int2DMatrix readInt2DMatrix(ReadableByteChannel channel) throws IOException {
+        Header header = readHeader(channel, INT_ELEMENT);
+        CRC32 crc = header.checksum() ? new CRC32() : null;
+
+        // A compressed payload is read before allocating the matrix
+        ByteBuffer runs = (header.compression() == Compression.RUN_LENGTH)
+                ? readPayload(channel, header, crc)
+                : null;
+
+        Int2DMatrix matrix = new Int2DMatrix(header.width(), header.height(), header.layout());
+        int[] contents = matrix.contents();
+
+        if (runs != null) {
+            decodeRuns(runs, contents.length, INT_ELEMENT, cells(contents));
+        } else {
+            ByteBuffer buffer = newBuffer();
+            int perBuffer = BUFFER_SIZE / Integer.BYTES;
+            for (int offset = 0; offset < contents.length; offset += perBuffer) {
+                int count = Math.min(perBuffer, contents.length - offset);
+                buffer.clear().limit(count * Integer.BYTES);
+                readFully(channel, buffer, crc);
+                buffer.flip();
+                buffer.asIntBuffer().get(contents, offset, count);
+            }
+        }
+
+        checkChecksum(channel, crc);
+        return matrix;
+    }
+
+    /**
+     * Reads a byte matrix, stored on the heap.
+     *
+     * @param channel the channel where to read
+     * @return the matrix read
+     * @throws IOException in case of problem when reading, if the data is not
+     *             a byte matrix or if the checksum does not match
+     */
+    public static Byte2DMatrix readByte2DMatrix(ReadableByteChannel channel)
+            throws IOException {
+        Header header = readHeader(channel, BYTE_ELEMENT);
+        CRC32 crc = header.checksum() ? new CRC32() : null;
+
+        // A compressed payload is read before allocating the matrix
+        ByteBuffer runs = (header.compression() == Compression.RUN_LENGTH)
+                ? readPayload(channel, header, crc)
+                : null;
+
+        Byte2DMatrix matrix = new Byte2DMatrix(header.width(), header.height());
+        int cellCount = header.cellCount();
+        Cells cells = cells(matrix, header.layout());
+
+        if (runs != null) {
+            decodeRuns(runs, cellCount, BYTE_ELEMENT, cells);
+        } else {
+            if (header.layout() == StorageOrder.COLUMN_MAJOR) {
+                for (byte[] column : matrix.store) {
+                    readFully(channel, ByteBuffer.wrap(column), crc);
+                }
+            } else {
+                ByteBuffer buffer = newBuffer();
+                for (int offset = 0; offset < cellCount; offset += BUFFER_SIZE) {
+                    int count = Math.min(BUFFER_SIZE, cellCount - offset);
+                    buffer.clear().limit(count);
+                    readFully(channel, buffer, crc);
+                    for (int index = 0; index < count; index++) {
+                        cells.set(offset + index, buffer.get(index));
+                    }
+                }
+            }
+        }
+
+        checkChecksum(channel, crc);
+        return matrix;
+    }
+
+    /**
+     * Encodes cells as runs of equal cells.
+     *
+     * @param cellCount number of cells
+     * @param elementSize size of a cell, in bytes
+     * @param cells the cells to encode
+     * @return the encoded runs, ready to be written
+     */
+    private static ByteBuffer encodeRuns(int cellCount, int elementSize, Cells cells) {
+        ByteBuffer runs = newBuffer();
+        int index = 0;
+        while (index < cellCount) {
+            int value = cells.get(index);
+            int end = index + 1;
+            while (end < cellCount && cells.get(end) == value) {
+                end++;
+            }
+
+            if (runs.remaining() < Integer.BYTES + elementSize) {
+                ByteBuffer larger = ByteBuffer.allocate(runs.capacity() * 2)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                runs.flip();
+                larger.put(runs);
+                runs = larger;
+            }
+            runs.putInt(end - index);
+            if (elementSize == Integer.BYTES) {
+                runs.putInt(value);
+            } else {
+                runs.put((byte) value);
+            }
+            index = end;
+        }
+        return runs.flip();
+    }
+
+    /**
+     * Decodes runs of equal cells.
+     *
+     * @param runs the encoded runs
+     * @param cellCount expected number of cells
+     * @param elementSize size of a cell, in bytes
+     * @param cells the cells to fill
+     * @throws IOException if the runs do not match the expected number of
+     *             cells
+     */
+    private static void decodeRuns(ByteBuffer runs, int cellCount, int elementSize, Cells cells)
+            throws IOException {
+        int index = 0;
+        while (runs.remaining() >= Integer.BYTES + elementSize) {
+            int count = runs.getInt();
+            int value = (elementSize == Integer.BYTES) ? runs.getInt() : runs.get();
+            if (count <= 0 || count > cellCount - index) {
+                throw new IOException("Invalid run of " + count + " cells at cell " + index);
+            }
+            for (int end = index + count; index < end; index++) {
+                cells.set(index, value);
+            }
+        }
+        if (index != cellCount || runs.hasRemaining()) {
+            throw new IOException("The runs do not match the " + cellCount + " cells");
+        }
+    }
+
+    /**
+     * Writes a header.
+     *
+     * @param channel the channel where to write
+     * @param elementType size of a cell, in bytes
+     * @param layout storage layout of the cells
+     * @param width width of the matrix
+     * @param height height of the matrix
+     * @param payloadLength length of the payload, in bytes
+     * @throws IOException in case of problem when writing
+     */
+    private void writeHeader(WritableByteChannel channel, byte elementType,
+            StorageOrder layout, int width, int height, long payloadLength) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putShort(VERSION).put(elementType).put((byte) layout.ordinal())
+                .put((byte) compression.ordinal()).put(checksum ? CHECKSUM_FLAG : 0)
+                .putShort((short) 0).putInt(width).putInt(height).putLong(payloadLength)
+                .putInt(0).flip();
+        writeFully(channel, header, null);
+    }
+
+    /**
+     * Reads and checks a header, including the consistency of the dimensions
+     * and of the payload length, so that no matrix is allocated from an
+     * invalid header.
+     *
+     * @param channel the channel where to read
+     * @param elementType the expected size of a cell, in bytes
+     * @return the header
+     * @throws IOException in case of problem when reading or if the header is
+     *             not valid
+     */
+    private static Header readHeader(ReadableByteChannel channel, byte elementType)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, buffer, null);
+        buffer.flip();
+
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("The data is not a matrix.");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version + " of the matrix format.");
+        }
+        byte type = buffer.get();
+        if (type != elementType) {
+            throw new IOException("The cells have " + type + " bytes instead of " + elementType
+                    + ".");
+        }
+        int layout = buffer.get();
+        int compressionIndex = buffer.get();
+        if (layout < 0 || layout >= StorageOrder.values().length || compressionIndex < 0
+                || compressionIndex >= Compression.values().length) {
+            throw new IOException("Unknown layout or compression of the matrix.");
+        }
+        boolean withChecksum = (buffer.get() & CHECKSUM_FLAG) != 0;
+        buffer.getShort();
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        long payloadLength = buffer.getLong();
+        if (width < 0 || height < 0 || payloadLength < 0) {
+            throw new IOException("Invalid dimensions of the matrix.");
+        }
+        long cellCount = (long) width * height;
+        if (cellCount > Integer.MAX_VALUE) {
+            throw new IOException("The matrix has too many cells : " + width + " x " + height);
+        }
+
+        Compression payloadCompression = Compression.values()[compressionIndex];
+        if (payloadCompression == Compression.NONE) {
+            checkPayloadLength(payloadLength, cellCount * type);
+        } else {
+            // Each run takes a count and a cell, and holds at least one cell
+            int runSize = Integer.BYTES + type;
+            if (payloadLength % runSize != 0 || payloadLength / runSize > cellCount
+                    || (payloadLength == 0) != (cellCount == 0)) {
+                throw new IOException("The payload of " + payloadLength
+                        + " bytes does not match the " + cellCount + " cells.");
+            }
+        }
+
+        return new Header(type, StorageOrder.values()[layout], payloadCompression,
+                withChecksum, width, height, payloadLength);
+    }
+
+    /**
+     * @param payloadLength length of a raw payload, in bytes
+     * @param expected expected length of the payload, in bytes
+     * @throws IOException if the payload length is not the expected one
+     */
+    private static void checkPayloadLength(long payloadLength, long expected)
+            throws IOException {
+        if (payloadLength != expected) {
+            throw new IOException("The payload has " + payloadLength + " bytes instead of "
+                    + expected + ".");
+        }
+    }
+
+    /**
+     * Reads a whole payload.
+     *
+     * @param channel the channel where to read
+     * @param header the header of the matrix
+     * @param crc the checksum to update, null if none
+     * @return the payload, ready to be read
+     * @throws IOException in case of problem when reading
+     */
+    private static ByteBuffer readPayload(ReadableByteChannel channel, Header header, CRC32 crc)
+            throws IOException {
+        if (header.payloadLength() > Integer.MAX_VALUE) {
+            throw new IOException("The payload is too large : " + header.payloadLength());
+        }
+        ByteBuffer payload = ByteBuffer.allocate((int) header.payloadLength())
+                .order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, payload, crc);
+        return payload.flip();
+    }
+
+    /**
+     * Writes the checksum of the payload, if any.
+     *
+     * @param channel the channel where to write
+     * @param crc the checksum of the payload, null if none
+     * @throws IOException in case of problem when writing
+     */
+    private static void writeChecksum(WritableByteChannel channel, CRC32 crc)
+            throws IOException {
+        if (crc != null) {
+            ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            trailer.putInt((int) crc.getValue()).flip();
+            writeFully(channel, trailer, null);
+        }
+    }
+
+    /**
+     * Reads and checks the checksum of the payload, if any.
+     *
+     * @param channel the channel where to read
+     * @param crc the checksum of the payload read, null if none
+     * @throws IOException in case of problem when reading, or if the checksum
+     *             does not match
+     */
+    private static void checkChecksum(ReadableByteChannel channel, CRC32 crc)
+            throws IOException {
+        if (crc != null) {
+            ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, trailer, null);
+            if (trailer.flip().getInt() != (int) crc.getValue()) {
+                throw new IOException("The checksum of the matrix does not match.");
+            }
+        }
+    }
+
+    /**
+     * Writes all the remaining bytes of a buffer.
+     *
+     * @param channel the channel where to write
+     * @param buffer the buffer to write
+     * @param crc the checksum to update, null if none
+     * @throws IOException in case of problem when writing
+     */
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer, CRC32 crc)
+            throws IOException {
+        if (crc != null) {
+            crc.update(buffer.duplicate());
+        }
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Fills the remaining bytes of a buffer.
+     *
+     * @param channel the channel where to read
+     * @param buffer the buffer to fill
+     * @param crc the checksum to update, null if none
+     * @throws IOException in case of problem when reading, or if the channel
+     *             ends before the buffer is full
+     */
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer, CRC32 crc)
+            throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of the matrix data.");
+            }
+        }
+        if (crc != null) {
+            crc.update(buffer.duplicate().flip().position(start));
+        }
+    }
+
+}
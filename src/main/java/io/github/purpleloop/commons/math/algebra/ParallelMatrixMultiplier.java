@@ -0,0 +1,287 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * A cache-blocked matrix multiplication, running on a {@link ForkJoinPool}.
+ *
+ * <p>
+ * The rows of the result are split in blocks of tile size rows, computed in
+ * parallel. The blocks are shorter for a matrix having less than a tile of
+ * rows per thread, so that all the threads of the pool are used. Inside a
+ * block, the product is computed tile by tile, so that the
+ * tile of the right matrix and the rows of the result being accumulated stay
+ * in the processor caches. The inner loops use the same kernels as
+ * {@link Int2DMatrix#multiply(Int2DMatrix)}, vectorized when the Vector API is
+ * available.
+ * </p>
+ *
+ * <p>
+ * The number of threads is the parallelism of the pool. The results are the
+ * ones of {@link Int2DMatrix#multiply(Int2DMatrix)}, integer overflows
+ * wrapping around.
+ * </p>
+ */
+public final class ParallelMatrixMultiplier {
+
+    /** Class logger. */
+    private static final Log LOG = LogFactory.getLog(ParallelMatrixMultiplier.class);
+
+    /** Default size of the tiles, a 256 × 256 int tile using 256 kB. */
+    public static final int DEFAULT_TILE_SIZE = 256;
+
+    /** Size of the square tiles, in cells. */
+    private final int tileSize;
+
+    /** The fork join pool running the products. */
+    private final ForkJoinPool pool;
+
+    /** The operands and the result of a product. */
+    private static final class Product {
+
+        /** Left matrix, in row-major order. */
+        private final int[] left;
+
+        /** Right matrix, in row-major order. */
+        private final int[] right;
+
+        /** Result, in row-major order. */
+        private final int[] result;
+
+        /** Number of rows of the left matrix and of the result. */
+        private final int rows;
+
+        /** Number of columns of the left matrix, rows of the right matrix. */
+        private final int inner;
+
+        /** Number of columns of the right matrix and of the result. */
+        private final int columns;
+
+        /** Number of rows of the blocks computed in parallel. */
+        private final int blockHeight;
+
+        /**
+         * Creates a product.
+         *
+         * @param left left matrix, in row-major order
+         * @param right right matrix, in row-major order
+         * @param result zeroed result, in row-major order
+         * @param rows number of rows of the left matrix
+         * @param inner number of columns of the left matrix
+         * @param columns number of columns of the right matrix
+         * @param blockHeight number of rows of the blocks computed in parallel
+         */
+        private Product(int[] left, int[] right, int[] result, int rows, int inner,
+                int columns, int blockHeight) {
+            this.left = left;
+            this.right = right;
+            this.result = result;
+            this.rows = rows;
+            this.inner = inner;
+            this.columns = columns;
+            this.blockHeight = blockHeight;
+        }
+    }
+
+    /** A task computing a block of rows of the result. */
+    private final class RowBlockTask extends RecursiveAction {
+
+        /** Serial tag. */
+        private static final long serialVersionUID = 4172938846573315102L;
+
+        /** The product to compute. */
+        private final transient Product product;
+
+        /** First row of the block. */
+        private final int firstRow;
+
+        /** Row following the last row of the block. */
+        private final int endRow;
+
+        /**
+         * Creates a task.
+         *
+         * @param product the product to compute
+         * @param firstRow first row of the block
+         * @param endRow row following the last row of the block
+         */
+        private RowBlockTask(Product product, int firstRow, int endRow) {
+            this.product = product;
+            this.firstRow = firstRow;
+            this.endRow = endRow;
+        }
+
+        @Override
+        protected void compute() {
+            int blockHeight = product.blockHeight;
+            int blocks = (endRow - firstRow + blockHeight - 1) / blockHeight;
+            if (blocks <= 1) {
+                multiplyBlock(product, firstRow, endRow);
+            } else {
+                int middleRow = firstRow + (blocks / 2) * blockHeight;
+                invokeAll(new RowBlockTask(product, firstRow, middleRow),
+                        new RowBlockTask(product, middleRow, endRow));
+            }
+        }
+    }
+
+    /**
+     * Creates a multiplier using the default tile size and the common fork
+     * join pool.
+     */
+    public ParallelMatrixMultiplier() {
+        this(DEFAULT_TILE_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a multiplier.
+     *
+     * @param tileSize size of the square tiles, in cells, a tile of the right
+     *            matrix should fit in the L2 cache
+     * @param pool the fork join pool running the products, whose parallelism
+     *            is the number of threads
+     */
+    public ParallelMatrixMultiplier(int tileSize, ForkJoinPool pool) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("The tile size must be positive.");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("The fork join pool must not be null");
+        }
+        this.tileSize = tileSize;
+        this.pool = pool;
+    }
+
+    /** @return size of the square tiles, in cells */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /** @return the fork join pool running the products */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Computes the height of the blocks of rows computed in parallel : a tile,
+     * or less when the rows would not give a block to each thread of the pool.
+     *
+     * @param rows number of rows of the result
+     * @return number of rows of the blocks
+     */
+    int blockHeight(int rows) {
+        int parallelism = pool.getParallelism();
+        int rowsPerThread = (rows + parallelism - 1) / parallelism;
+        return Math.max(1, Math.min(tileSize, rowsPerThread));
+    }
+
+    /**
+     * Computes the product of two matrices.
+     *
+     * @param left the left matrix
+     * @param right the right matrix, whose height is the width of the left
+     *            matrix
+     * @return a new matrix, in row-major order, of the height of the left
+     *         matrix and of the width of the right matrix
+     */
+    public Int2DMatrix multiply(Int2DMatrix left, Int2DMatrix right) {
+        if (left.getWidth() != right.getHeight()) {
+            throw new IllegalArgumentException("The width of the left matrix ("
+                    + left.getWidth() + ") must be the height of the right matrix ("
+                    + right.getHeight() + ").");
+        }
+
+        Int2DMatrix result = new Int2DMatrix(right.getWidth(), left.getHeight());
+        Product product = new Product(left.rowMajorContents(), right.rowMajorContents(),
+                result.contents(), left.getHeight(), left.getWidth(), right.getWidth(),
+                blockHeight(left.getHeight()));
+
+        pool.invoke(new RowBlockTask(product, 0, product.rows));
+        return result;
+    }
+
+    /**
+     * Computes a block of rows of a product, tile by tile.
+     *
+     * @param product the product to compute
+     * @param firstRow first row of the block
+     * @param endRow row following the last row of the block
+     */
+    private void multiplyBlock(Product product, int firstRow, int endRow) {
+        IntKernel kernel = IntKernels.get();
+        int inner = product.inner;
+        int columns = product.columns;
+
+        for (int firstK = 0; firstK < inner; firstK += tileSize) {
+            int endK = Math.min(firstK + tileSize, inner);
+
+            for (int firstColumn = 0; firstColumn < columns; firstColumn += tileSize) {
+                int length = Math.min(tileSize, columns - firstColumn);
+
+                for (int i = firstRow; i < endRow; i++) {
+                    int leftOffset = i * inner;
+                    int resultOffset = i * columns + firstColumn;
+
+                    for (int k = firstK; k < endK; k++) {
+                        int aik = product.left[leftOffset + k];
+                        if (aik != 0) {
+                            kernel.multiplyAdd(aik, product.right, k * columns + firstColumn,
+                                    product.result, resultOffset, length);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes a power of a square matrix, by repeated squaring. For an
+     * adjacency matrix, the cell of a pair of nodes in the k-th power is the
+     * number of paths of length k between them.
+     *
+     * @param matrix the square matrix
+     * @param exponent the exponent, positive or zero
+     * @return a new matrix, in row-major order, the identity for a zero
+     *         exponent
+     */
+    public Int2DMatrix power(Int2DMatrix matrix, int exponent) {
+        if (!matrix.isSquare()) {
+            throw new IllegalArgumentException("Only square matrices have powers.");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("The exponent must be positive or zero.");
+        }
+
+        int size = matrix.getWidth();
+        Int2DMatrix result = null;
+        Int2DMatrix square = matrix;
+        int remaining = exponent;
+        while (remaining > 0) {
+            if ((remaining & 1) == 1) {
+                result = (result == null) ? square : multiply(result, square);
+            }
+            remaining >>= 1;
+            if (remaining > 0) {
+                square = multiply(square, square);
+            }
+        }
+
+        if (result == null) {
+            result = new Int2DMatrix(size, size);
+            for (int index = 0; index < size; index++) {
+                result.set(index, index, 1);
+            }
+        } else if (result == matrix) {
+            result = new Int2DMatrix(size, size);
+            result.copyFrom(matrix);
+        }
+
+        LOG.debug("Computed the power " + exponent + " of a " + size + " matrix");
+        return result;
+    }
+
+}
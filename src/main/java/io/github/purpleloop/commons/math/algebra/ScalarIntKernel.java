@@ -0,0 +1,74 @@
+package io.github.purpleloop.commons.math.algebra;
+
+/** Arithmetic kernels in plain Java, used when the Vector API is absent. */
+final class ScalarIntKernel implements IntKernel {
+
+    @Override
+    public void add(int[] a, int[] b, int[] result) {
+        for (int index = 0; index < result.length; index++) {
+            result[index] = a[index] + b[index];
+        }
+    }
+
+    @Override
+    public void add(int[] a, int value, int[] result) {
+        for (int index = 0; index < result.length; index++) {
+            result[index] = a[index] + value;
+        }
+    }
+
+    @Override
+    public void multiply(int[] a, int factor, int[] result) {
+        for (int index = 0; index < result.length; index++) {
+            result[index] = a[index] * factor;
+        }
+    }
+
+    @Override
+    public void multiplyAdd(int factor, int[] source, int sourceOffset, int[] target,
+            int targetOffset, int length) {
+        for (int index = 0; index < length; index++) {
+            target[targetOffset + index] += factor * source[sourceOffset + index];
+        }
+    }
+
+    @Override
+    public void multiply(int[] a, int[] b, int[] result, int rows, int inner, int columns) {
+
+        // i-k-j order, so that the inner loop scans rows of b and of the result
+        for (int i = 0; i < rows; i++) {
+            int resultOffset = i * columns;
+            for (int k = 0; k < inner; k++) {
+                int aik = a[i * inner + k];
+                if (aik == 0) {
+                    continue;
+                }
+                int bOffset = k * columns;
+                for (int j = 0; j < columns; j++) {
+                    result[resultOffset + j] += aik * b[bOffset + j];
+                }
+            }
+        }
+    }
+
+    @Override
+    public void booleanProduct(int[] a, int[] b, int[] result, int rows, int inner,
+            int columns) {
+
+        for (int i = 0; i < rows; i++) {
+            int resultOffset = i * columns;
+            for (int k = 0; k < inner; k++) {
+                if (a[i * inner + k] == 0) {
+                    continue;
+                }
+                int bOffset = k * columns;
+                for (int j = 0; j < columns; j++) {
+                    if (b[bOffset + j] != 0) {
+                        result[resultOffset + j] = 1;
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,175 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import java.util.Arrays;
+
+/**
+ * The not zero cells of a row of a sparse matrix, in an open addressing hash
+ * table of primitive abscissas and values. The sum of the values is kept up to
+ * date.
+ */
+final class SparseRow {
+
+    /** Marker of a free slot. */
+    private static final int FREE = -1;
+
+    /** Initial capacity, a power of two. */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /** Abscissas of the cells, FREE for the free slots. */
+    private int[] keys;
+
+    /** Values of the cells. */
+    private int[] values;
+
+    /** Number of cells. */
+    private int size;
+
+    /** Sum of the values. */
+    private int sum;
+
+    /** Creates an empty row. */
+    SparseRow() {
+        keys = new int[INITIAL_CAPACITY];
+        values = new int[INITIAL_CAPACITY];
+        Arrays.fill(keys, FREE);
+    }
+
+    /**
+     * @param key an abscissa
+     * @param mask mask of the table indexes
+     * @return the home slot of the abscissa
+     */
+    private static int slot(int key, int mask) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * @param key an abscissa
+     * @return the slot of the abscissa, or the free slot where to insert it
+     */
+    private int find(int key) {
+        int mask = keys.length - 1;
+        int index = slot(key, mask);
+        while (keys[index] != FREE && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /**
+     * @param x abscissa
+     * @return value of the cell, 0 if not stored
+     */
+    int get(int x) {
+        int index = find(x);
+        return (keys[index] == FREE) ? 0 : values[index];
+    }
+
+    /**
+     * Stores a not zero value.
+     *
+     * @param x abscissa
+     * @param value value of the cell, not zero
+     * @return the previous value of the cell
+     */
+    int put(int x, int value) {
+        int index = find(x);
+        if (keys[index] == x) {
+            int previous = values[index];
+            values[index] = value;
+            sum += value - previous;
+            return previous;
+        }
+
+        keys[index] = x;
+        values[index] = value;
+        size++;
+        sum += value;
+        if (size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        return 0;
+    }
+
+    /**
+     * Removes a cell.
+     *
+     * @param x abscissa
+     * @return the previous value of the cell, 0 if not stored
+     */
+    int remove(int x) {
+        int index = find(x);
+        if (keys[index] == FREE) {
+            return 0;
+        }
+        int previous = values[index];
+        size--;
+        sum -= previous;
+
+        // Backward shift of the following cells of the cluster
+        int mask = keys.length - 1;
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = slot(keys[next], mask);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = FREE;
+        return previous;
+    }
+
+    /**
+     * Rebuilds the table with a new capacity.
+     *
+     * @param capacity the new capacity, a power of two
+     */
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+        int mask = capacity - 1;
+        for (int index = 0; index < oldKeys.length; index++) {
+            if (oldKeys[index] != FREE) {
+                int slot = slot(oldKeys[index], mask);
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[index];
+                values[slot] = oldValues[index];
+            }
+        }
+    }
+
+    /** @return number of cells */
+    int size() {
+        return size;
+    }
+
+    /** @return sum of the values */
+    int sum() {
+        return sum;
+    }
+
+    /**
+     * Calls an action for each cell, in no particular order.
+     *
+     * @param y ordinate of the row
+     * @param action the action receiving the cells
+     */
+    void forEach(int y, IntMatrix.CellConsumer action) {
+        for (int index = 0; index < keys.length; index++) {
+            if (keys[index] != FREE) {
+                action.accept(keys[index], y, values[index]);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,12 @@
+package io.github.purpleloop.commons.math.algebra;
+
+/** Layout of the contents of a matrix in a single contiguous array. */
+public enum StorageOrder {
+
+    /** Cells of a row are contiguous, rows follow each other. */
+    ROW_MAJOR,
+
+    /** Cells of a column are contiguous, columns follow each other. */
+    COLUMN_MAJOR;
+
+}
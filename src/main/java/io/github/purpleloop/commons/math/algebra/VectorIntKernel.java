@@ -0,0 +1,113 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Arithmetic kernels using the SIMD instructions of the platform, through the
+ * incubating Vector API. This class must only be loaded when the
+ * jdk.incubator.vector module is available, see {@link IntKernels}.
+ */
+final class VectorIntKernel implements IntKernel {
+
+    /** The preferred vector shape of the platform. */
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void add(int[] a, int[] b, int[] result) {
+        int bound = SPECIES.loopBound(result.length);
+        int index = 0;
+        for (; index < bound; index += SPECIES.length()) {
+            IntVector.fromArray(SPECIES, a, index).add(IntVector.fromArray(SPECIES, b, index))
+                    .intoArray(result, index);
+        }
+        for (; index < result.length; index++) {
+            result[index] = a[index] + b[index];
+        }
+    }
+
+    @Override
+    public void add(int[] a, int value, int[] result) {
+        int bound = SPECIES.loopBound(result.length);
+        int index = 0;
+        for (; index < bound; index += SPECIES.length()) {
+            IntVector.fromArray(SPECIES, a, index).add(value).intoArray(result, index);
+        }
+        for (; index < result.length; index++) {
+            result[index] = a[index] + value;
+        }
+    }
+
+    @Override
+    public void multiply(int[] a, int factor, int[] result) {
+        int bound = SPECIES.loopBound(result.length);
+        int index = 0;
+        for (; index < bound; index += SPECIES.length()) {
+            IntVector.fromArray(SPECIES, a, index).mul(factor).intoArray(result, index);
+        }
+        for (; index < result.length; index++) {
+            result[index] = a[index] * factor;
+        }
+    }
+
+    @Override
+    public void multiplyAdd(int factor, int[] source, int sourceOffset, int[] target,
+            int targetOffset, int length) {
+        int bound = SPECIES.loopBound(length);
+        int index = 0;
+        for (; index < bound; index += SPECIES.length()) {
+            IntVector.fromArray(SPECIES, target, targetOffset + index)
+                    .add(IntVector.fromArray(SPECIES, source, sourceOffset + index).mul(factor))
+                    .intoArray(target, targetOffset + index);
+        }
+        for (; index < length; index++) {
+            target[targetOffset + index] += factor * source[sourceOffset + index];
+        }
+    }
+
+    @Override
+    public void multiply(int[] a, int[] b, int[] result, int rows, int inner, int columns) {
+
+        // i-k-j order, the rows of b are accumulated in the rows of the result
+        for (int i = 0; i < rows; i++) {
+            for (int k = 0; k < inner; k++) {
+                int aik = a[i * inner + k];
+                if (aik != 0) {
+                    multiplyAdd(aik, b, k * columns, result, i * columns, columns);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void booleanProduct(int[] a, int[] b, int[] result, int rows, int inner,
+            int columns) {
+        int bound = SPECIES.loopBound(columns);
+        IntVector ones = IntVector.broadcast(SPECIES, 1);
+
+        for (int i = 0; i < rows; i++) {
+            int resultOffset = i * columns;
+            for (int k = 0; k < inner; k++) {
+                if (a[i * inner + k] == 0) {
+                    continue;
+                }
+                int bOffset = k * columns;
+                int j = 0;
+                for (; j < bound; j += SPECIES.length()) {
+                    VectorMask<Integer> nonZero = IntVector.fromArray(SPECIES, b, bOffset + j)
+                            .compare(VectorOperators.NE, 0);
+                    IntVector.fromArray(SPECIES, result, resultOffset + j).blend(ones, nonZero)
+                            .intoArray(result, resultOffset + j);
+                }
+                for (; j < columns; j++) {
+                    if (b[bOffset + j] != 0) {
+                        result[resultOffset + j] = 1;
+                    }
+                }
+            }
+        }
+    }
+
+}
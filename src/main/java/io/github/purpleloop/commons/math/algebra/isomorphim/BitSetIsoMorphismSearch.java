@@ -0,0 +1,523 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.github.purpleloop.commons.math.algebra.Int2DMatrix;
+
+/**
+ * An alternative engine for the subgraph isomorphism search of
+ * {@link IsoMorphismSearch}, based on packed bit sets.
+ *
+ * <p>
+ * Adjacency of the data graph and candidate sets of the mapping are stored as
+ * <code>long[]</code> words. When a query node is bound, the candidates of
+ * the remaining query nodes are refined by word-wide AND operations with the
+ * neighbourhood of the bound data node (forward checking). Backtracking
+ * restores a per-level snapshot of the remaining candidate rows instead of
+ * copying the full mapping matrix.
+ * </p>
+ *
+ * <p>
+ * Query nodes are bound in their index order and data nodes are tried in
+ * ascending order, so the results are the same, and in the same order, as
+ * the ones of {@link IsoMorphismSearch#getIsomorphicSubgraphs}.
+ * </p>
+ */
+public final class BitSetIsoMorphismSearch {
+
+    /** Class logger. */
+    private static final Log LOG = LogFactory.getLog(BitSetIsoMorphismSearch.class);
+
+    /** Number of bits to shift an index to get its word index. */
+    private static final int WORD_SHIFT = 6;
+
+    /** Private constructor to prevent instantiation. */
+    private BitSetIsoMorphismSearch() {
+        // Nothing to do here
+    }
+
+    /** The state of a search, that enumerates the isomorphisms one by one. */
+    private static final class SearchState implements MappingEnumerator {
+
+        /** Number of nodes of the query graph. */
+        private final int querySize;
+
+        /** Number of words of a bit set of data nodes. */
+        private final int words;
+
+        /** Data nodes reached by an edge from each data node. */
+        private final long[][] dataOut;
+
+        /** Data nodes having an edge to each data node. */
+        private final long[][] dataIn;
+
+        /** For each query node, next query nodes reached by an edge from it. */
+        private final int[][] forwardOut;
+
+        /** For each query node, next query nodes having an edge to it. */
+        private final int[][] forwardIn;
+
+        /** For each query node, true if it has an edge to itself. */
+        private final boolean[] selfLoops;
+
+        /** Candidate data nodes for each query node, row after row. */
+        private final long[] candidates;
+
+        /** Per level snapshots of the candidates of the next query nodes. */
+        private final long[][] snapshots;
+
+        /** Data nodes already bound. */
+        private final long[] used;
+
+        /** Data node bound to each query node. */
+        private final int[] mapping;
+
+        /** For each level, index of the word of candidates being explored. */
+        private final int[] wordIndexes;
+
+        /** For each level, candidates of the explored word not tried yet. */
+        private final long[] pendingBits;
+
+        /** True once the search has started. */
+        private boolean started;
+
+        /** True when the search is finished. */
+        private boolean finished;
+
+        /**
+         * Prepares the search state.
+         *
+         * @param dataSize number of nodes of the data graph
+         * @param dataOut data nodes reached by an edge from each data node,
+         *            that must not be modified during the search
+         * @param dataIn data nodes having an edge to each data node, that must
+         *            not be modified during the search
+         * @param queryGraph Adjacency matrix of subgraph to search for
+         * @param candidates candidate data nodes for each query node, row
+         *            after row, owned by the search state
+         */
+        private SearchState(int dataSize, long[][] dataOut, long[][] dataIn,
+                Int2DMatrix queryGraph, long[] candidates) {
+
+            this.querySize = queryGraph.getWidth();
+            this.words = wordCount(dataSize);
+            this.dataOut = dataOut;
+            this.dataIn = dataIn;
+            this.candidates = candidates;
+
+            // Query graph adjacency, restricted to the next query nodes
+            forwardOut = new int[querySize][];
+            forwardIn = new int[querySize][];
+            selfLoops = new boolean[querySize];
+            for (int row = 0; row < querySize; row++) {
+                forwardOut[row] = forwardNeighbours(queryGraph, row, true);
+                forwardIn[row] = forwardNeighbours(queryGraph, row, false);
+                selfLoops[row] = queryGraph.get(row, row) == 1;
+            }
+
+            snapshots = new long[querySize][];
+            for (int row = 0; row < querySize; row++) {
+                snapshots[row] = new long[(querySize - row - 1) * words];
+            }
+
+            used = new long[words];
+            mapping = new int[querySize];
+            wordIndexes = new int[querySize];
+            pendingBits = new long[querySize];
+        }
+
+        /**
+         * Lists the query nodes after a given one that are adjacent to it.
+         *
+         * @param queryGraph Adjacency matrix of subgraph to search for
+         * @param row the query node
+         * @param outgoing true for edges from the node, false for edges to
+         *            the node
+         * @return indexes of the adjacent query nodes, in ascending order
+         */
+        private static int[] forwardNeighbours(Int2DMatrix queryGraph, int row,
+                boolean outgoing) {
+            int size = queryGraph.getWidth();
+            int count = 0;
+            int[] neighbours = new int[size];
+            for (int other = row + 1; other < size; other++) {
+                int value = outgoing ? queryGraph.get(other, row) : queryGraph.get(row, other);
+                if (value == 1) {
+                    neighbours[count++] = other;
+                }
+            }
+
+            int[] result = new int[count];
+            System.arraycopy(neighbours, 0, result, 0, count);
+            return result;
+        }
+
+        @Override
+        public boolean next() {
+
+            if (finished) {
+                return false;
+            }
+
+            int row;
+            if (!started) {
+                started = true;
+
+                // The empty query graph has a single, empty, isomorphism
+                if (querySize == 0) {
+                    return true;
+                }
+                row = 0;
+                enterLevel(row);
+
+            } else if (querySize == 0) {
+                finished = true;
+                return false;
+
+            } else {
+                // Backtracks from the previous isomorphism
+                row = querySize - 1;
+                release(row);
+            }
+
+            while (true) {
+
+                int col = nextCandidate(row);
+
+                if (col == -1) {
+
+                    // No more candidate at this level, backtracking
+                    if (row == 0) {
+                        finished = true;
+                        return false;
+                    }
+                    row--;
+                    release(row);
+
+                } else {
+
+                    used[col >>> WORD_SHIFT] |= 1L << col;
+                    mapping[row] = col;
+
+                    if (!refine(row, col)) {
+                        release(row);
+
+                    } else if (row == querySize - 1) {
+
+                        // All query nodes are bound, forward checking ensured
+                        // that all the edges are mapped
+                        return true;
+
+                    } else {
+                        row++;
+                        enterLevel(row);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public int[] currentMapping() {
+            return mapping;
+        }
+
+        /**
+         * Starts the exploration of the candidates of a query node.
+         *
+         * @param row the query node to bind
+         */
+        private void enterLevel(int row) {
+
+            // Saves the candidates of the next query nodes
+            long[] snapshot = snapshots[row];
+            System.arraycopy(candidates, (row + 1) * words, snapshot, 0, snapshot.length);
+
+            wordIndexes[row] = -1;
+            pendingBits[row] = 0;
+        }
+
+        /**
+         * Finds the next candidate of a query node, in ascending order.
+         *
+         * @param row the query node to bind
+         * @return the next available candidate data node, -1 if there is none
+         */
+        private int nextCandidate(int row) {
+            while (pendingBits[row] == 0) {
+                int word = ++wordIndexes[row];
+                if (word >= words) {
+                    return -1;
+                }
+                pendingBits[row] = candidates[row * words + word] & ~used[word];
+            }
+
+            long bits = pendingBits[row];
+            pendingBits[row] = bits & (bits - 1);
+            return (wordIndexes[row] << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+        }
+
+        /**
+         * Releases the binding of a query node (backtracking).
+         *
+         * @param row the bound query node
+         */
+        private void release(int row) {
+            int col = mapping[row];
+            used[col >>> WORD_SHIFT] &= ~(1L << col);
+
+            long[] snapshot = snapshots[row];
+            System.arraycopy(snapshot, 0, candidates, (row + 1) * words, snapshot.length);
+        }
+
+        /**
+         * Refines the candidates of the next query nodes after the binding of
+         * a query node to a data node.
+         *
+         * @param row the bound query node
+         * @param col the data node it is bound to
+         * @return true if every next query node still has an unused
+         *         candidate, false otherwise
+         */
+        private boolean refine(int row, int col) {
+
+            if (selfLoops[row] && !testBit(dataOut[col], col)) {
+                return false;
+            }
+
+            andRows(forwardOut[row], dataOut[col]);
+            andRows(forwardIn[row], dataIn[col]);
+
+            // Each next query node must keep an available candidate
+            for (int next = row + 1; next < querySize; next++) {
+                if (!hasAvailableCandidate(next)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Restricts the candidates of some query nodes to a set of data
+         * nodes.
+         *
+         * @param rows the query nodes to restrict
+         * @param mask the allowed data nodes
+         */
+        private void andRows(int[] rows, long[] mask) {
+            for (int row : rows) {
+                int base = row * words;
+                for (int word = 0; word < words; word++) {
+                    candidates[base + word] &= mask[word];
+                }
+            }
+        }
+
+        /**
+         * @param row a query node
+         * @return true if the query node has a candidate that is not bound
+         *         yet
+         */
+        private boolean hasAvailableCandidate(int row) {
+            int base = row * words;
+            for (int word = 0; word < words; word++) {
+                if ((candidates[base + word] & ~used[word]) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @param bits number of bits
+     * @return number of words needed to store the bits
+     */
+    static int wordCount(int bits) {
+        return (bits + Long.SIZE - 1) >>> WORD_SHIFT;
+    }
+
+    /**
+     * Sets a bit in a bit set.
+     *
+     * @param bitSet the bit set
+     * @param index index of the bit to set
+     */
+    static void setBit(long[] bitSet, int index) {
+        bitSet[index >>> WORD_SHIFT] |= 1L << index;
+    }
+
+    /**
+     * Clears a bit in a bit set.
+     *
+     * @param bitSet the bit set
+     * @param index index of the bit to clear
+     */
+    static void clearBit(long[] bitSet, int index) {
+        bitSet[index >>> WORD_SHIFT] &= ~(1L << index);
+    }
+
+    /**
+     * @param bitSet the bit set
+     * @param index index of the bit to test
+     * @return true if the bit is set
+     */
+    static boolean testBit(long[] bitSet, int index) {
+        return (bitSet[index >>> WORD_SHIFT] & (1L << index)) != 0;
+    }
+
+    /**
+     * Finds isomorphisms (mappings) of a subgraph in a host/mother graph.
+     *
+     * @param dataGraph Adjacency matrix of the host/mother graph in which to
+     *            search for a match.
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param maxNumIsoMorph the maximum number isomorphisms to find, may return
+     *            fewer if fewer are matched, is specified.
+     * @param similarityCriteria a function used to determine if two nodes are
+     *            similar enough to be candidates for matching in the resulting
+     *            morphism (degree criteria by default)
+     *
+     * @return the list of morphism matrix arrays found
+     */
+    public static List<Int2DMatrix> getIsomorphicSubgraphs(Int2DMatrix dataGraph,
+            Int2DMatrix queryGraph, Integer maxNumIsoMorph,
+            SimilarityMappingCriteria similarityCriteria) {
+
+        LOG.debug("Bit set search for isomorphisms - Preconditions checks");
+        IsoMorphismSearch.checkSearchArguments(dataGraph, queryGraph, maxNumIsoMorph);
+
+        List<Int2DMatrix> collectedIsomorphisms = new ArrayList<>();
+
+        MappingEnumerator state = createEnumerator(dataGraph, queryGraph, similarityCriteria);
+        while ((maxNumIsoMorph == null || collectedIsomorphisms.size() < maxNumIsoMorph)
+                && state.next()) {
+            collectedIsomorphisms.add(IsoMorphismSearch.toMappingMatrix(state.currentMapping(),
+                    dataGraph.getWidth()));
+        }
+
+        LOG.debug("Bit set search for isomorphisms - End of search, "
+                + collectedIsomorphisms.size() + " isomorphisms found.");
+
+        return collectedIsomorphisms;
+    }
+
+    /**
+     * Enumerates lazily the isomorphisms (mappings) of a subgraph in a
+     * host/mother graph. The search advances only when the next isomorphism
+     * is requested, so the consumer can stop at any time.
+     *
+     * @param dataGraph Adjacency matrix of the host/mother graph in which to
+     *            search for a match.
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param similarityCriteria a function used to determine if two nodes are
+     *            similar enough to be candidates for matching in the resulting
+     *            morphism (degree criteria by default)
+     *
+     * @return an iterator over the isomorphisms, each one being given as the
+     *         data node mapped to each query node
+     */
+    public static Iterator<int[]> iterateIsomorphisms(Int2DMatrix dataGraph,
+            Int2DMatrix queryGraph, SimilarityMappingCriteria similarityCriteria) {
+        IsoMorphismSearch.checkSearchArguments(dataGraph, queryGraph, null);
+        return new MappingIterator(createEnumerator(dataGraph, queryGraph, similarityCriteria));
+    }
+
+    /**
+     * Streams lazily the isomorphisms (mappings) of a subgraph in a
+     * host/mother graph. The search advances only when the stream pulls the
+     * next isomorphism, so short-circuiting operations stop the search.
+     *
+     * @param dataGraph Adjacency matrix of the host/mother graph in which to
+     *            search for a match.
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param similarityCriteria a function used to determine if two nodes are
+     *            similar enough to be candidates for matching in the resulting
+     *            morphism (degree criteria by default)
+     *
+     * @return a sequential stream of the isomorphisms, each one being given as
+     *         the data node mapped to each query node
+     */
+    public static Stream<int[]> streamIsomorphisms(Int2DMatrix dataGraph,
+            Int2DMatrix queryGraph, SimilarityMappingCriteria similarityCriteria) {
+        IsoMorphismSearch.checkSearchArguments(dataGraph, queryGraph, null);
+        return MappingIterator.stream(createEnumerator(dataGraph, queryGraph, similarityCriteria));
+    }
+
+    /**
+     * Prepares a lazy search.
+     *
+     * @param dataGraph Adjacency matrix of the host/mother graph
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param similarityCriteria the similarity criteria
+     * @return the search state
+     */
+    private static MappingEnumerator createEnumerator(Int2DMatrix dataGraph,
+            Int2DMatrix queryGraph, SimilarityMappingCriteria similarityCriteria) {
+
+        // No match is possible if query graph is bigger than data graph
+        if (dataGraph.getWidth() < queryGraph.getWidth()) {
+            return IsoMorphismSearch.NO_MAPPING;
+        }
+
+        int dataSize = dataGraph.getWidth();
+        int querySize = queryGraph.getWidth();
+        int words = wordCount(dataSize);
+
+        // Data graph adjacency, in both directions
+        long[][] dataOut = new long[dataSize][words];
+        long[][] dataIn = new long[dataSize][words];
+        for (int from = 0; from < dataSize; from++) {
+            for (int to = 0; to < dataSize; to++) {
+                if (dataGraph.get(to, from) == 1) {
+                    setBit(dataOut[from], to);
+                    setBit(dataIn[to], from);
+                }
+            }
+        }
+
+        // Candidates given by the initial mapping matrix
+        Int2DMatrix morphismMatrix = IsoMorphismSearch.initMorphism(dataGraph, queryGraph,
+                similarityCriteria);
+        long[] candidates = new long[querySize * words];
+        for (int row = 0; row < querySize; row++) {
+            for (int col = 0; col < dataSize; col++) {
+                if (morphismMatrix.get(col, row) == 1) {
+                    candidates[row * words + (col >>> WORD_SHIFT)] |= 1L << col;
+                }
+            }
+        }
+
+        return new SearchState(dataSize, dataOut, dataIn, queryGraph, candidates);
+    }
+
+    /**
+     * Prepares a lazy search on a data graph given as bit sets.
+     *
+     * @param dataSize number of nodes of the data graph
+     * @param dataOut data nodes reached by an edge from each data node, that
+     *            must not be modified during the search
+     * @param dataIn data nodes having an edge to each data node, that must not
+     *            be modified during the search
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param candidates candidate data nodes for each query node, row after
+     *            row, with {@link #wordCount(int)} words per row
+     * @return the search state
+     */
+    static MappingEnumerator createEnumerator(int dataSize, long[][] dataOut, long[][] dataIn,
+            Int2DMatrix queryGraph, long[] candidates) {
+
+        // No match is possible if query graph is bigger than data graph
+        if (dataSize < queryGraph.getWidth()) {
+            return IsoMorphismSearch.NO_MAPPING;
+        }
+
+        return new SearchState(dataSize, dataOut, dataIn, queryGraph, candidates);
+    }
+
+}
@@ -0,0 +1,262 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import java.util.Arrays;
+
+import io.github.purpleloop.commons.math.algebra.Int2DMatrix;
+
+/**
+ * A directed graph stored in compressed sparse row (CSR) format.
+ *
+ * <p>
+ * The neighbours of all the nodes are stored contiguously in a single array,
+ * sorted by node then by neighbour index, with an offset array giving the
+ * start of the neighbours of each node. Both outgoing and incoming edges are
+ * stored, so that degrees are obtained in constant time in both directions.
+ * The memory footprint is proportional to the number of edges, where an
+ * adjacency matrix needs the square of the number of nodes.
+ * </p>
+ *
+ * <p>
+ * As for adjacency matrices used by the isomorphism searches, a value of 1
+ * at column 'to' of row 'from' of a matrix is an edge from node 'from' to
+ * node 'to'. The graph is immutable.
+ * </p>
+ */
+public final class CsrGraph {
+
+    /** Number of nodes. */
+    private final int nodeCount;
+
+    /** Start of the outgoing edges of each node, plus the number of edges. */
+    private final int[] outOffsets;
+
+    /** Targets of the outgoing edges, sorted for each node. */
+    private final int[] outTargets;
+
+    /** Start of the incoming edges of each node, plus the number of edges. */
+    private final int[] inOffsets;
+
+    /** Sources of the incoming edges, sorted for each node. */
+    private final int[] inSources;
+
+    /**
+     * Creates a graph from an adjacency matrix.
+     *
+     * @param adjacencyMatrix square adjacency matrix, where a value of 1 at
+     *            (to, from) is an edge from node 'from' to node 'to'
+     */
+    public CsrGraph(Int2DMatrix adjacencyMatrix) {
+
+        if (!adjacencyMatrix.isSquare()) {
+            throw new IllegalArgumentException("Adjacency matrix is not square");
+        }
+
+        this.nodeCount = adjacencyMatrix.getWidth();
+        this.outOffsets = new int[nodeCount + 1];
+
+        for (int from = 0; from < nodeCount; from++) {
+            int degree = 0;
+            for (int to = 0; to < nodeCount; to++) {
+                if (adjacencyMatrix.get(to, from) == 1) {
+                    degree++;
+                }
+            }
+            outOffsets[from + 1] = outOffsets[from] + degree;
+        }
+
+        this.outTargets = new int[outOffsets[nodeCount]];
+        int edge = 0;
+        for (int from = 0; from < nodeCount; from++) {
+            for (int to = 0; to < nodeCount; to++) {
+                if (adjacencyMatrix.get(to, from) == 1) {
+                    outTargets[edge++] = to;
+                }
+            }
+        }
+
+        this.inOffsets = new int[nodeCount + 1];
+        this.inSources = new int[outTargets.length];
+        transpose(nodeCount, outOffsets, outTargets, inOffsets, inSources);
+    }
+
+    /**
+     * Creates a graph from a list of edges. Duplicate edges are merged.
+     *
+     * @param nodeCount number of nodes
+     * @param sources source node of each edge
+     * @param targets target node of each edge
+     */
+    public CsrGraph(int nodeCount, int[] sources, int[] targets) {
+
+        if (nodeCount < 0) {
+            throw new IllegalArgumentException("The number of nodes must not be negative");
+        }
+
+        if (sources.length != targets.length) {
+            throw new IllegalArgumentException(
+                    "Sources and targets of the edges must have the same length");
+        }
+
+        this.nodeCount = nodeCount;
+
+        // Counting sort of the edges by source node
+        int[] offsets = new int[nodeCount + 1];
+        for (int edge = 0; edge < sources.length; edge++) {
+            checkNode(sources[edge]);
+            checkNode(targets[edge]);
+            offsets[sources[edge] + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            offsets[node + 1] += offsets[node];
+        }
+
+        int[] sortedTargets = new int[sources.length];
+        int[] fill = Arrays.copyOf(offsets, nodeCount);
+        for (int edge = 0; edge < sources.length; edge++) {
+            sortedTargets[fill[sources[edge]]++] = targets[edge];
+        }
+
+        // Sorts the targets of each node and merges duplicates
+        this.outOffsets = new int[nodeCount + 1];
+        int edgeCount = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            Arrays.sort(sortedTargets, offsets[node], offsets[node + 1]);
+            for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+                if (edge == offsets[node] || sortedTargets[edge] != sortedTargets[edge - 1]) {
+                    sortedTargets[edgeCount++] = sortedTargets[edge];
+                }
+            }
+            outOffsets[node + 1] = edgeCount;
+        }
+
+        this.outTargets = Arrays.copyOf(sortedTargets, edgeCount);
+        this.inOffsets = new int[nodeCount + 1];
+        this.inSources = new int[edgeCount];
+        transpose(nodeCount, outOffsets, outTargets, inOffsets, inSources);
+    }
+
+    /**
+     * Computes the incoming edges from the outgoing edges.
+     *
+     * @param nodeCount number of nodes
+     * @param outOffsets start of the outgoing edges of each node
+     * @param outTargets targets of the outgoing edges
+     * @param inOffsets start of the incoming edges of each node, to fill
+     * @param inSources sources of the incoming edges, to fill
+     */
+    private static void transpose(int nodeCount, int[] outOffsets, int[] outTargets,
+            int[] inOffsets, int[] inSources) {
+
+        for (int target : outTargets) {
+            inOffsets[target + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            inOffsets[node + 1] += inOffsets[node];
+        }
+
+        // Sources are visited in ascending order, so they are sorted
+        int[] fill = Arrays.copyOf(inOffsets, nodeCount);
+        for (int from = 0; from < nodeCount; from++) {
+            for (int edge = outOffsets[from]; edge < outOffsets[from + 1]; edge++) {
+                inSources[fill[outTargets[edge]]++] = from;
+            }
+        }
+    }
+
+    /**
+     * Check the validity of a node index.
+     *
+     * @param node the node index to check
+     */
+    private void checkNode(int node) {
+        if (node < 0 || node >= nodeCount) {
+            throw new IllegalArgumentException(
+                    "Node " + node + " is out of bounds [0; " + (nodeCount - 1) + "]");
+        }
+    }
+
+    /** @return the number of nodes */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /** @return the number of edges */
+    public int getEdgeCount() {
+        return outTargets.length;
+    }
+
+    /**
+     * @param node a node
+     * @return number of edges from the node
+     */
+    public int getOutDegree(int node) {
+        return outOffsets[node + 1] - outOffsets[node];
+    }
+
+    /**
+     * @param node a node
+     * @return number of edges to the node
+     */
+    public int getInDegree(int node) {
+        return inOffsets[node + 1] - inOffsets[node];
+    }
+
+    /**
+     * @param from source node
+     * @param to target node
+     * @return true if there is an edge from the source to the target
+     */
+    public boolean hasEdge(int from, int to) {
+        return Arrays.binarySearch(outTargets, outOffsets[from], outOffsets[from + 1], to) >= 0;
+    }
+
+    /**
+     * @param node a node
+     * @return a copy of the targets of the edges from the node, in ascending
+     *         order
+     */
+    public int[] getOutNeighbours(int node) {
+        return Arrays.copyOfRange(outTargets, outOffsets[node], outOffsets[node + 1]);
+    }
+
+    /**
+     * @param node a node
+     * @return a copy of the sources of the edges to the node, in ascending
+     *         order
+     */
+    public int[] getInNeighbours(int node) {
+        return Arrays.copyOfRange(inSources, inOffsets[node], inOffsets[node + 1]);
+    }
+
+    /** @return start of the outgoing edges of each node, plus the number of edges */
+    int[] outOffsets() {
+        return outOffsets;
+    }
+
+    /** @return targets of the outgoing edges, sorted for each node */
+    int[] outTargets() {
+        return outTargets;
+    }
+
+    /** @return start of the incoming edges of each node, plus the number of edges */
+    int[] inOffsets() {
+        return inOffsets;
+    }
+
+    /** @return sources of the incoming edges, sorted for each node */
+    int[] inSources() {
+        return inSources;
+    }
+
+    /** @return the adjacency matrix of the graph */
+    public Int2DMatrix toAdjacencyMatrix() {
+        Int2DMatrix adjacencyMatrix = new Int2DMatrix(nodeCount, nodeCount);
+        for (int from = 0; from < nodeCount; from++) {
+            for (int edge = outOffsets[from]; edge < outOffsets[from + 1]; edge++) {
+                adjacencyMatrix.set(outTargets[edge], from, 1);
+            }
+        }
+        return adjacencyMatrix;
+    }
+
+}
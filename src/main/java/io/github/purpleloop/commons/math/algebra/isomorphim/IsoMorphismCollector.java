@@ -0,0 +1,19 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import io.github.purpleloop.commons.math.algebra.Int2DMatrix;
+
+/** Receives the isomorphisms found by a search and tells when it can stop. */
+interface IsoMorphismCollector {
+
+    /** @return true if no more isomorphism is wanted, false otherwise */
+    boolean isComplete();
+
+    /**
+     * Collects an isomorphism.
+     * 
+     * @param mappingMatrix the mapping matrix of the isomorphism, that is
+     *            still used by the search and must be copied if kept
+     */
+    void collect(Int2DMatrix mappingMatrix);
+
+}
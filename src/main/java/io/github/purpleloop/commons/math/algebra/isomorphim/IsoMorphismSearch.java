@@ -1,7 +1,9 @@
 package io.github.purpleloop.commons.math.algebra.isomorphim;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -16,60 +18,219 @@ public class IsoMorphismSearch {
     /** Class logger. */
     private static final Log LOG = LogFactory.getLog(IsoMorphismSearch.class);
 
+    /** A search state without any isomorphism. */
+    static final MappingEnumerator NO_MAPPING = new MappingEnumerator() {
+
+        @Override
+        public boolean next() {
+            return false;
+        }
+
+        @Override
+        public int[] currentMapping() {
+            throw new IllegalStateException("No isomorphism");
+        }
+    };
+
     /** Private constructor to prevent instantiation. */
     private IsoMorphismSearch() {
         // Nothing to do here
     }
 
     /**
+     * Prunes the candidates of a mapping matrix with the Ullmann refinement,
+     * iterated until nothing changes.
+     *
      * @param mappingMatrix the proposed morphism of query graph in data graph
      * @param queryGraph the query sub graph being matched
      * @param dataGraph the data graph
      */
     public static void pruneOptions(Int2DMatrix mappingMatrix, Int2DMatrix queryGraph,
             Int2DMatrix dataGraph) {
+        pruneOptions(mappingMatrix, queryGraph, dataGraph, new IsoMorphismSearchStatistics());
+    }
+
+    /**
+     * Prunes the candidates of a mapping matrix with the Ullmann refinement,
+     * iterated until nothing changes.
+     *
+     * <p>
+     * A data node 'col' remains a candidate for a query node 'row' only if,
+     * for each neighbour x of 'row' in the query graph, there is a neighbour y
+     * of 'col' in the data graph (through an edge of the same direction) that
+     * is still a candidate for x.
+     * </p>
+     *
+     * @param mappingMatrix the proposed morphism of query graph in data graph
+     * @param queryGraph the query sub graph being matched
+     * @param dataGraph the data graph
+     * @param statistics counters of the search
+     * @return true if each query node still has a candidate, false otherwise
+     */
+    public static boolean pruneOptions(Int2DMatrix mappingMatrix, Int2DMatrix queryGraph,
+            Int2DMatrix dataGraph, IsoMorphismSearchStatistics statistics) {
 
-        // For each row of the mapping matrix (node index of query graph)
-        for (int row = 0; row < mappingMatrix.getHeight(); row++) {
+        boolean[] changedRows = new boolean[mappingMatrix.getHeight()];
+        for (int row = 0; row < changedRows.length; row++) {
+            if (mappingMatrix.arraySumRow(row) == 0) {
+                return false;
+            }
+            changedRows[row] = true;
+        }
 
-            // For each column of the mapping matrix (node index of data graph)
-            for (int col = 0; col < mappingMatrix.getWidth(); col++) {
+        return refine(mappingMatrix, queryGraph, dataGraph, changedRows, statistics);
+    }
 
-                // If nodes 'row' and 'col' are mapped
-                if (mappingMatrix.get(col, row) == 1) {
+    /**
+     * Prunes the candidates of a mapping matrix after the binding of a query
+     * node, re-checking only the affected rows.
+     *
+     * <p>
+     * The data node bound to the query node is no more a candidate for the
+     * other query nodes, then the Ullmann refinement is propagated from the
+     * changed rows to their neighbours, until nothing changes.
+     * </p>
+     *
+     * @param mappingMatrix the proposed morphism of query graph in data graph,
+     *            where the row of the bound query node is already set
+     * @param queryGraph the query sub graph being matched
+     * @param dataGraph the data graph
+     * @param boundRow the query node that has been bound
+     * @param boundCol the data node it is bound to
+     * @param statistics counters of the search
+     * @return true if each query node still has a candidate, false otherwise
+     */
+    public static boolean refineOptions(Int2DMatrix mappingMatrix, Int2DMatrix queryGraph,
+            Int2DMatrix dataGraph, int boundRow, int boundCol,
+            IsoMorphismSearchStatistics statistics) {
+
+        int rows = mappingMatrix.getHeight();
+        boolean[] changedRows = new boolean[rows];
+        changedRows[boundRow] = true;
+
+        // The bound data node is not available for other query nodes
+        for (int row = 0; row < rows; row++) {
+            if (row != boundRow && mappingMatrix.get(boundCol, row) == 1) {
+                mappingMatrix.set(boundCol, row, 0);
+                statistics.removedCandidate();
+
+                if (mappingMatrix.arraySumRow(row) == 0) {
+                    return false;
+                }
+                changedRows[row] = true;
+            }
+        }
+
+        return refine(mappingMatrix, queryGraph, dataGraph, changedRows, statistics);
+    }
+
+    /**
+     * Propagates the Ullmann refinement from changed rows of a mapping matrix
+     * until nothing changes.
+     *
+     * @param mappingMatrix the proposed morphism of query graph in data graph
+     * @param queryGraph the query sub graph being matched
+     * @param dataGraph the data graph
+     * @param changedRows the rows whose candidates have changed, used as
+     *            work list flags
+     * @param statistics counters of the search
+     * @return true if each query node still has a candidate, false otherwise
+     */
+    private static boolean refine(Int2DMatrix mappingMatrix, Int2DMatrix queryGraph,
+            Int2DMatrix dataGraph, boolean[] changedRows, IsoMorphismSearchStatistics statistics) {
+
+        int rows = mappingMatrix.getHeight();
+        int cols = mappingMatrix.getWidth();
+
+        // Circular work list of changed rows, each row is queued at most once
+        int[] workList = new int[rows];
+        int head = 0;
+        int pending = 0;
+        for (int row = 0; row < rows; row++) {
+            if (changedRows[row]) {
+                workList[pending++] = row;
+            }
+        }
 
-                    // For all neighbors x of node 'row' in the query graph
-                    for (int x = 0; x < queryGraph.getWidth(); x++) {
+        while (pending > 0) {
 
-                        if (queryGraph.get(x, row) == 1) {
+            int x = workList[head];
+            head = (head + 1) % rows;
+            pending--;
+            changedRows[x] = false;
 
-                            // x is a node in query graph that is adjacent to
-                            // 'row'
+            // Only the neighbours of x in the query graph are affected
+            for (int row = 0; row < rows; row++) {
 
-                            // check if there is no neighbor y of node 'col' in
-                            // the data graph such that
-                            // M[x][y] == 1
+                boolean edgeToX = queryGraph.get(x, row) == 1;
+                boolean edgeFromX = queryGraph.get(row, x) == 1;
 
-                            boolean hasNeighbourY = false;
-                            for (int y = 0; y < dataGraph.getWidth(); y++) {
-                                if (dataGraph.get(col, y) == 1) {
-                                    hasNeighbourY = true;
-                                    break;
-                                }
-                            }
+                if (!edgeToX && !edgeFromX) {
+                    continue;
+                }
+
+                boolean rowChanged = false;
+                boolean rowHasCandidate = false;
+
+                for (int col = 0; col < cols; col++) {
 
-                            if (!hasNeighbourY) {
+                    if (mappingMatrix.get(col, row) == 1) {
 
-                                // 'row' and 'col' are not mapped anymore
-                                mappingMatrix.set(row, col, 0);
-                            }
+                        if ((edgeToX && !hasCandidateNeighbour(mappingMatrix, dataGraph, x, col,
+                                true))
+                                || (edgeFromX && !hasCandidateNeighbour(mappingMatrix, dataGraph,
+                                        x, col, false))) {
 
+                            // 'row' and 'col' are not mapped anymore
+                            mappingMatrix.set(col, row, 0);
+                            statistics.removedCandidate();
+                            rowChanged = true;
+
+                        } else {
+                            rowHasCandidate = true;
                         }
                     }
                 }
+
+                if (!rowHasCandidate) {
+                    return false;
+                }
+
+                if (rowChanged && !changedRows[row]) {
+                    changedRows[row] = true;
+                    workList[(head + pending) % rows] = row;
+                    pending++;
+                }
             }
         }
 
+        return true;
+    }
+
+    /**
+     * Checks if a data node has a neighbour that is a candidate for a given
+     * query node.
+     *
+     * @param mappingMatrix the proposed morphism of query graph in data graph
+     * @param dataGraph the data graph
+     * @param x the query node
+     * @param col the data node
+     * @param outgoing true to consider edges from the data node, false to
+     *            consider edges to the data node
+     * @return true if a neighbour y of col in the data graph verifies M[x][y]
+     *         == 1
+     */
+    private static boolean hasCandidateNeighbour(Int2DMatrix mappingMatrix,
+            Int2DMatrix dataGraph, int x, int col, boolean outgoing) {
+
+        int cols = mappingMatrix.getWidth();
+        for (int y = 0; y < cols; y++) {
+            if (mappingMatrix.get(y, x) == 1
+                    && (outgoing ? dataGraph.get(y, col) : dataGraph.get(col, y)) == 1) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -80,6 +241,12 @@ public class IsoMorphismSearch {
      * uses the degree, number of (outgoing) links of the nodes to determine
      * similarity.
      *
+     * The degree of a node is the number of cells equal to 1 in its row of the
+     * adjacency matrix, so that it is the outgoing degree of the node in a
+     * {@link CsrGraph} built from the matrix. The searches compute the degrees
+     * of all the nodes of both graphs once, when preparing the criteria, and
+     * then compare them in constant time.
+     *
      * @param queryGraph Adjacency matrix of subgraph to search for
      * @param dataGraph Adjacency matrix of the host/mother graph in which to
      *            search for a match.
@@ -88,16 +255,199 @@ public class IsoMorphismSearch {
      * @returns a function that returns true if nodes are similar enough, false
      *          otherwise.
      */
-    public static final SimilarityMappingCriteria DEGREE_CRITERIA = (queryGraph, dataGraph,
-            queryIndex, dataIndex) -> {
-        int queryNodeDegree = queryGraph.arraySumRow(queryIndex);
-        int dataNodeDegree = dataGraph.arraySumRow(dataIndex);
-
-        // The connectivity (degree) of the node in the query graph is lesser or
-        // equals than the one of the mapping candidate node in the data graph
-        return queryNodeDegree <= dataNodeDegree;
+    public static final SimilarityMappingCriteria DEGREE_CRITERIA =
+            new SimilarityMappingCriteria() {
+
+        @Override
+        public boolean verified(Int2DMatrix queryGraph, Int2DMatrix dataGraph, int queryIndex,
+                int dataIndex) {
+            int queryNodeDegree = outDegree(queryGraph, queryIndex);
+            int dataNodeDegree = outDegree(dataGraph, dataIndex);
+
+            // The connectivity (degree) of the node in the query graph is lesser
+            // or equals than the one of the mapping candidate node in the data
+            // graph
+            return queryNodeDegree <= dataNodeDegree;
+        }
+
+        @Override
+        public boolean verified(CsrGraph queryGraph, CsrGraph dataGraph, int queryIndex,
+                int dataIndex) {
+            return queryGraph.getOutDegree(queryIndex) <= dataGraph.getOutDegree(dataIndex);
+        }
+
+        @Override
+        public SimilarityMappingCriteria prepare(Int2DMatrix queryGraph,
+                Int2DMatrix dataGraph) {
+            return new PreparedDegreeCriteria(outDegrees(queryGraph), outDegrees(dataGraph));
+        }
+
+        @Override
+        public SimilarityMappingCriteria prepare(CsrGraph queryGraph, CsrGraph dataGraph) {
+            // The degrees of the sparse graphs are read in constant time
+            return this;
+        }
+    };
+
+    /**
+     * The degree criteria prepared for a search, comparing the outgoing
+     * degrees of the nodes of the query and data graphs of the search.
+     */
+    private static final class PreparedDegreeCriteria implements SimilarityMappingCriteria {
+
+        /** Outgoing degree of each node of the query graph. */
+        private final int[] queryDegrees;
+
+        /** Outgoing degree of each node of the data graph. */
+        private final int[] dataDegrees;
+
+        /**
+         * Creates a prepared criteria.
+         *
+         * @param queryDegrees outgoing degree of each node of the query graph
+         * @param dataDegrees outgoing degree of each node of the data graph
+         */
+        private PreparedDegreeCriteria(int[] queryDegrees, int[] dataDegrees) {
+            this.queryDegrees = queryDegrees;
+            this.dataDegrees = dataDegrees;
+        }
+
+        @Override
+        public boolean verified(Int2DMatrix queryGraph, Int2DMatrix dataGraph, int queryIndex,
+                int dataIndex) {
+            return queryDegrees[queryIndex] <= dataDegrees[dataIndex];
+        }
+
+        @Override
+        public boolean verified(CsrGraph queryGraph, CsrGraph dataGraph, int queryIndex,
+                int dataIndex) {
+            return queryDegrees[queryIndex] <= dataDegrees[dataIndex];
+        }
+
+        @Override
+        public SimilarityMappingCriteria prepare(CsrGraph queryGraph, CsrGraph dataGraph) {
+            return this;
+        }
+    }
+
+    /**
+     * @param graph adjacency matrix of a graph
+     * @param node index of a node
+     * @return number of outgoing links of the node, cells equal to 1 in its row
+     */
+    private static int outDegree(Int2DMatrix graph, int node) {
+        int width = graph.getWidth();
+        int degree = 0;
+        for (int to = 0; to < width; to++) {
+            if (graph.get(to, node) == 1) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * @param graph adjacency matrix of a graph
+     * @return number of outgoing links of each node, cells equal to 1 in its
+     *         row
+     */
+    private static int[] outDegrees(Int2DMatrix graph) {
+        int[] degrees = new int[graph.getHeight()];
+        for (int node = 0; node < degrees.length; node++) {
+            degrees[node] = outDegree(graph, node);
+        }
+        return degrees;
+    }
+
+    /**
+     * Determines if the nodes in query graph (P[p]) and in data graph (G[g])
+     * are similar enough to be candidates for an isomorphic mapping, by
+     * comparing their signatures : degrees, labels, triangles and degrees of
+     * the neighbours.
+     *
+     * The signatures of both graphs are taken from the cache of
+     * {@link NodeSignatureIndex}, so that they are computed once per graph
+     * and compared in constant time. The searches resolve both indexes once,
+     * when preparing the criteria.
+     *
+     * The cache cannot detect that a graph was modified after its signatures
+     * were computed : an adjacency matrix modified since must be evicted with
+     * {@link NodeSignatureIndex#evict(Int2DMatrix)}, else stale signatures may
+     * reject valid mappings.
+     */
+    public static final SimilarityMappingCriteria SIGNATURE_CRITERIA =
+            new SimilarityMappingCriteria() {
+
+        @Override
+        public boolean verified(Int2DMatrix queryGraph, Int2DMatrix dataGraph, int queryIndex,
+                int dataIndex) {
+            return prepare(queryGraph, dataGraph).verified(queryGraph, dataGraph, queryIndex,
+                    dataIndex);
+        }
+
+        @Override
+        public boolean verified(CsrGraph queryGraph, CsrGraph dataGraph, int queryIndex,
+                int dataIndex) {
+            return prepare(queryGraph, dataGraph).verified(queryGraph, dataGraph, queryIndex,
+                    dataIndex);
+        }
+
+        @Override
+        public SimilarityMappingCriteria prepare(Int2DMatrix queryGraph,
+                Int2DMatrix dataGraph) {
+            return new PreparedSignatureCriteria(NodeSignatureIndex.of(queryGraph),
+                    NodeSignatureIndex.of(dataGraph));
+        }
+
+        @Override
+        public SimilarityMappingCriteria prepare(CsrGraph queryGraph, CsrGraph dataGraph) {
+            return new PreparedSignatureCriteria(NodeSignatureIndex.of(queryGraph),
+                    NodeSignatureIndex.of(dataGraph));
+        }
     };
 
+    /**
+     * The signature criteria prepared for a search, comparing the signatures
+     * of the indexes of the query and data graphs of the search.
+     */
+    private static final class PreparedSignatureCriteria implements SimilarityMappingCriteria {
+
+        /** Signatures of the nodes of the query graph. */
+        private final NodeSignatureIndex querySignatures;
+
+        /** Signatures of the nodes of the data graph. */
+        private final NodeSignatureIndex dataSignatures;
+
+        /**
+         * Creates a prepared criteria.
+         *
+         * @param querySignatures signatures of the nodes of the query graph
+         * @param dataSignatures signatures of the nodes of the data graph
+         */
+        private PreparedSignatureCriteria(NodeSignatureIndex querySignatures,
+                NodeSignatureIndex dataSignatures) {
+            this.querySignatures = querySignatures;
+            this.dataSignatures = dataSignatures;
+        }
+
+        @Override
+        public boolean verified(Int2DMatrix queryGraph, Int2DMatrix dataGraph, int queryIndex,
+                int dataIndex) {
+            return querySignatures.isDominatedBy(queryIndex, dataSignatures, dataIndex);
+        }
+
+        @Override
+        public boolean verified(CsrGraph queryGraph, CsrGraph dataGraph, int queryIndex,
+                int dataIndex) {
+            return querySignatures.isDominatedBy(queryIndex, dataSignatures, dataIndex);
+        }
+
+        @Override
+        public SimilarityMappingCriteria prepare(CsrGraph queryGraph, CsrGraph dataGraph) {
+            return this;
+        }
+    }
+
     /**
      * @param testedMappingMatrix the matrix to test is it is an isomorphism
      * @return a mapping function for each node (row) from a source graph to
@@ -121,6 +471,44 @@ public class IsoMorphismSearch {
         };
     }
 
+    /**
+     * Builds the mapping matrix of an isomorphism given as a mapping array.
+     *
+     * @param mapping the data node mapped to each query node
+     * @param dataGraphSize number of nodes of the data graph
+     * @return the mapping matrix, with a row per query node and a column per
+     *         data node
+     */
+    public static Int2DMatrix toMappingMatrix(int[] mapping, int dataGraphSize) {
+        Int2DMatrix mappingMatrix = new Int2DMatrix(dataGraphSize, mapping.length);
+        for (int row = 0; row < mapping.length; row++) {
+            mappingMatrix.set(mapping[row], row, 1);
+        }
+        return mappingMatrix;
+    }
+
+    /**
+     * Extracts the mapping array of the first rows of a mapping matrix.
+     *
+     * @param mappingMatrix the mapping matrix
+     * @param rows number of rows to read
+     * @return the first column set to 1 in each row (0 if none), for a full
+     *         mapping
+     */
+    static int[] toMapping(Int2DMatrix mappingMatrix, int rows) {
+        int[] mapping = new int[mappingMatrix.getHeight()];
+        int width = mappingMatrix.getWidth();
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < width; col++) {
+                if (mappingMatrix.get(col, row) == 1) {
+                    mapping[row] = col;
+                    break;
+                }
+            }
+        }
+        return mapping;
+    }
+
     /**
      * Check if a given matrix is an isomorphism of the query graph matrix in
      * data graph matrix.
@@ -134,36 +522,144 @@ public class IsoMorphismSearch {
      */
     public static boolean isIsoMorphism(Int2DMatrix testedMappingMatrix,
             Int2DMatrix dataGraphMatrix, Int2DMatrix queryGraphMatrix) {
+        return isIsoMorphism(toMapping(testedMappingMatrix, testedMappingMatrix.getHeight()),
+                dataGraphMatrix, queryGraphMatrix);
+    }
 
-        int rows = queryGraphMatrix.getHeight();
+    /**
+     * Check if a given mapping is an isomorphism of the query graph matrix in
+     * data graph matrix.
+     * 
+     * @param mapping the data node mapped to each query node
+     * @param dataGraphMatrix Adjacency matrix of the host/mother graph in which
+     *            to search for a match.
+     * @param queryGraphMatrix Adjacency matrix of subgraph to search for
+     * 
+     * @return true if the mapping is an isomorphism, false otherwise
+     */
+    public static boolean isIsoMorphism(int[] mapping, Int2DMatrix dataGraphMatrix,
+            Int2DMatrix queryGraphMatrix) {
 
-        MappingFunction mappingFunction = mapQueryToDataGraph(testedMappingMatrix);
+        int rows = queryGraphMatrix.getHeight();
 
         for (int r1 = 0; r1 < rows; r1++) {
 
             for (int r2 = 0; r2 < rows; r2++) {
 
-                // If nodes are adjacent in query graph matrix P
-                if (queryGraphMatrix.get(r1, r2) == 1) {
+                // If nodes are adjacent in query graph matrix P, are the mapped
+                // nodes adjacent in data graph G?
+                if (queryGraphMatrix.get(r1, r2) == 1
+                        && dataGraphMatrix.get(mapping[r1], mapping[r2]) != 1) {
+                    // no - not isomorphism
+                    return false;
+                }
+            }
+        }
 
-                    // We find the mapped nodes in data graph matrix G
-                    int c1 = mappingFunction.map(r1);
-                    int c2 = mappingFunction.map(r2);
+        // Ok no failed mapping encountered, this is an isomorphism
+        return true;
+    }
 
-                    // are they adjacent in data graph G?
-                    if (dataGraphMatrix.get(c1, c2) != 1) {
-                        // no - not isomorphism
-                        return false;
-                    }
+    /**
+     * Checks incrementally a binding of a query node to a data node : the
+     * edges between the query node and itself or the previously bound query
+     * nodes must exist between the mapped data nodes.
+     *
+     * @param mapping the data node mapped to each query node, for the rows
+     *            before the bound row
+     * @param row the row (index of the bound node in the query graph)
+     * @param col the column (index of the bound node in the data graph)
+     * @param dataGraph Adjacency matrix of the host/mother graph
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @return true if all the edges checked are mapped
+     */
+    static boolean isConsistentBinding(int[] mapping, int row, int col, Int2DMatrix dataGraph,
+            Int2DMatrix queryGraph) {
 
-                }
+        if (queryGraph.get(row, row) == 1 && dataGraph.get(col, col) != 1) {
+            return false;
+        }
+
+        for (int boundRow = 0; boundRow < row; boundRow++) {
+            int boundCol = mapping[boundRow];
+            if (queryGraph.get(row, boundRow) == 1 && dataGraph.get(col, boundCol) != 1) {
+                return false;
+            }
+            if (queryGraph.get(boundRow, row) == 1 && dataGraph.get(boundCol, col) != 1) {
+                return false;
             }
+        }
+        return true;
+    }
 
+    /**
+     * Check if a given mapping is an isomorphism of the query graph in the
+     * data graph, both in compressed sparse row format.
+     * 
+     * @param mapping the data node mapped to each query node
+     * @param dataGraph the host/mother graph in which to search for a match.
+     * @param queryGraph subgraph to search for
+     * 
+     * @return true if the mapping is an isomorphism, false otherwise
+     */
+    public static boolean isIsoMorphism(int[] mapping, CsrGraph dataGraph, CsrGraph queryGraph) {
+
+        int[] offsets = queryGraph.outOffsets();
+        int[] targets = queryGraph.outTargets();
+
+        for (int from = 0; from < queryGraph.getNodeCount(); from++) {
+            for (int edge = offsets[from]; edge < offsets[from + 1]; edge++) {
+
+                // Each edge of the query graph must be mapped on an edge of
+                // the data graph
+                if (!dataGraph.hasEdge(mapping[from], mapping[targets[edge]])) {
+                    return false;
+                }
+            }
         }
 
-        // Ok no failed mapping encountered, this is an isomorphism
         return true;
+    }
+
+    /**
+     * Check if a given matrix is an isomorphism of the query graph in the data
+     * graph, both in compressed sparse row format.
+     * 
+     * @param testedMappingMatrix the matrix to test is it is an isomorphism
+     * @param dataGraph the host/mother graph in which to search for a match.
+     * @param queryGraph subgraph to search for
+     * 
+     * @return true if tested mapping matrix is an isomorphism, false otherwise
+     */
+    public static boolean isIsoMorphism(Int2DMatrix testedMappingMatrix, CsrGraph dataGraph,
+            CsrGraph queryGraph) {
+        return isIsoMorphism(toMapping(testedMappingMatrix, testedMappingMatrix.getHeight()),
+                dataGraph, queryGraph);
+    }
+
+    /**
+     * Creates a collector that keeps copies of the isomorphisms in a list.
+     *
+     * @param collectedIsomorphisms The list of collected isomorphisms
+     * @param maxNumIsoMorph the maximum number isomorphisms to find, if
+     *            specified
+     * @return the collector
+     */
+    static IsoMorphismCollector listCollector(List<Int2DMatrix> collectedIsomorphisms,
+            Integer maxNumIsoMorph) {
+
+        return new IsoMorphismCollector() {
 
+            @Override
+            public boolean isComplete() {
+                return maxNumIsoMorph != null && collectedIsomorphisms.size() >= maxNumIsoMorph;
+            }
+
+            @Override
+            public void collect(Int2DMatrix foundMappingMatrix) {
+                collectedIsomorphisms.add(new Int2DMatrix(foundMappingMatrix));
+            }
+        };
     }
 
     /**
@@ -188,29 +684,49 @@ public class IsoMorphismSearch {
             Int2DMatrix dataGraph, Int2DMatrix queryGraph, Int2DMatrix mappingMatrix,
             List<Int2DMatrix> collectedIsomorphisms, Integer maxNumIsoMorph, boolean prune) {
 
-        if (currentRow == mappingMatrix.getHeight()) {
+        IsoMorphismCollector collector = listCollector(collectedIsomorphisms, maxNumIsoMorph);
 
-            // Recursive search reached the last row of the mappingMatrix.
-            // Check mapping matrix is an isomorphism.
+        recurseMorphismSearch(boundedDataNodes, toMapping(mappingMatrix, currentRow), currentRow,
+                dataGraph, queryGraph, mappingMatrix, collector, prune,
+                new IsoMorphismSearchStatistics());
+    }
+
+    /**
+     * A recursive method that searches for isomorphisms of a query graph in a
+     * data graph.
+     *
+     * @param boundedDataNodes array of nodes that are bounded (used) in the
+     *            data graph
+     * @param mapping the data node bound to each query node, for the rows
+     *            before the current row
+     * @param currentRow the current row (index of the node to bind in the query
+     *            graph)
+     * @param dataGraph Adjacency matrix of the host/mother graph in which to
+     *            search for a match.
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param mappingMatrix mapping matrix candidate
+     * @param collector receives the isomorphisms found and tells when to stop
+     * @param prune true if pruning of the matrix mapping is enabled, false
+     *            otherwise
+     * @param statistics counters of the search
+     */
+    static void recurseMorphismSearch(boolean[] boundedDataNodes, int[] mapping, int currentRow,
+            Int2DMatrix dataGraph, Int2DMatrix queryGraph, Int2DMatrix mappingMatrix,
+            IsoMorphismCollector collector, boolean prune, IsoMorphismSearchStatistics statistics) {
 
-            if (isIsoMorphism(mappingMatrix, dataGraph, queryGraph)) {
+        if (currentRow == mappingMatrix.getHeight()) {
 
-                // The matrix is an isomorphism
-                // Collects a copy of the current mapping matrix as a solution
-                collectedIsomorphisms.add(new Int2DMatrix(mappingMatrix));
-            }
+            // Recursive search reached the last row of the mappingMatrix.
+            // Each binding was checked against the previous ones, so the
+            // mapping matrix is an isomorphism.
+            collector.collect(mappingMatrix);
 
         } else {
             // There are remaining nodes to explore (rows in the mapping matrix)
 
-            // Derives by copy a new mapping matrix
-            Int2DMatrix newMappingMatrix = new Int2DMatrix(mappingMatrix);
-
-            // Prune the proposed morphism to remove mappings candidates/options
-            // that are obviously not possible.
-            if (prune) {
-                pruneOptions(newMappingMatrix, queryGraph, dataGraph);
-            }
+            // Derives by copy a new mapping matrix, once for all the tried
+            // columns if the other rows are left unchanged
+            Int2DMatrix newMappingMatrix = prune ? null : new Int2DMatrix(mappingMatrix);
 
             int numMappingCols = mappingMatrix.getWidth();
 
@@ -221,26 +737,42 @@ public class IsoMorphismSearch {
                 // column has not been set yet.
                 if (!boundedDataNodes[testedCol] && mappingMatrix.get(testedCol, currentRow) == 1) {
 
-                    // set column testedCol in newMappingMatrix to 1 and other
-                    // columns to 0
-                    for (int colToUpdate = 0; colToUpdate < numMappingCols; colToUpdate++) {
-                        newMappingMatrix.set(colToUpdate, currentRow,
-                                (colToUpdate == testedCol) ? 1 : 0);
+                    // If one want to find more isomorphisms.
+                    if (collector.isComplete()) {
+                        return;
                     }
 
-                    // Marks the data node at index testedCol as bounded
-                    boundedDataNodes[testedCol] = true;
+                    statistics.exploredBranch();
 
-                    // If one want to find more isomorphisms.
-                    if (maxNumIsoMorph == null || collectedIsomorphisms.size() < maxNumIsoMorph) {
+                    // Rejects the binding as soon as an edge with the
+                    // previously bound nodes is missing
+                    if (!isConsistentBinding(mapping, currentRow, testedCol, dataGraph,
+                            queryGraph)) {
+                        statistics.rejectedBinding();
+                        continue;
+                    }
 
-                        // Recurse, considering a next node (current row) to
-                        // match
-                        recurseMorphismSearch(boundedDataNodes, currentRow + 1, dataGraph,
-                                queryGraph, newMappingMatrix, collectedIsomorphisms, maxNumIsoMorph,
-                                prune);
+                    if (prune) {
+                        newMappingMatrix = new Int2DMatrix(mappingMatrix);
+                    }
+                    selectColumn(newMappingMatrix, currentRow, testedCol);
+
+                    // Prune the proposed morphism to remove mappings
+                    // candidates/options that are no more possible.
+                    if (prune && !refineOptions(newMappingMatrix, queryGraph, dataGraph,
+                            currentRow, testedCol, statistics)) {
+                        statistics.prunedBranch();
+                        continue;
                     }
 
+                    // Marks the data node at index testedCol as bounded
+                    boundedDataNodes[testedCol] = true;
+                    mapping[currentRow] = testedCol;
+
+                    // Recurse, considering a next node (current row) to match
+                    recurseMorphismSearch(boundedDataNodes, mapping, currentRow + 1, dataGraph,
+                            queryGraph, newMappingMatrix, collector, prune, statistics);
+
                     // Release the data node at index testedCol (backtracking)
                     boundedDataNodes[testedCol] = false;
 
@@ -252,6 +784,22 @@ public class IsoMorphismSearch {
 
     }
 
+    /**
+     * Binds a query node to a data node in a mapping matrix : sets the
+     * column of the data node to 1 in the row of the query node, and the
+     * other columns of the row to 0.
+     *
+     * @param mappingMatrix the mapping matrix to update
+     * @param row the row (index of the node in the query graph)
+     * @param selectedCol the column (index of the node in the data graph)
+     */
+    static void selectColumn(Int2DMatrix mappingMatrix, int row, int selectedCol) {
+        int numMappingCols = mappingMatrix.getWidth();
+        for (int colToUpdate = 0; colToUpdate < numMappingCols; colToUpdate++) {
+            mappingMatrix.set(colToUpdate, row, (colToUpdate == selectedCol) ? 1 : 0);
+        }
+    }
+
     /**
      * Initializes a mapping matrix (base for a graph morphism) according to a
      * given criteria.
@@ -275,7 +823,7 @@ public class IsoMorphismSearch {
         if (mappingCriteria == null) {
             usedMappingCriteria = DEGREE_CRITERIA;
         } else {
-            usedMappingCriteria = mappingCriteria;
+            usedMappingCriteria = mappingCriteria.prepare(queryGraph, dataGraph);
         }
 
         // Creates a morphismMatrix M is |V_queryGraphSize| X |V_dataGraphSize|
@@ -294,9 +842,111 @@ public class IsoMorphismSearch {
         return morphismMatrix;
     }
 
+    /**
+     * Checks the arguments of an isomorphism search.
+     *
+     * @param dataGraph Adjacency matrix of the host/mother graph in which to
+     *            search for a match.
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param maxNumIsoMorph the maximum number isomorphisms to find, if
+     *            specified
+     * @throws IllegalArgumentException if one of the arguments is not valid
+     */
+    static void checkSearchArguments(Int2DMatrix dataGraph, Int2DMatrix queryGraph,
+            Integer maxNumIsoMorph) {
+
+        checkSearchLimit(maxNumIsoMorph);
+
+        // Checking given adjacency matrices
+        if (!dataGraph.isSquare()) {
+            throw new IllegalArgumentException("Data graph adjacency matrix is not square");
+        }
+
+        if (!queryGraph.isSquare()) {
+            throw new IllegalArgumentException("Query graph adjacency matrix is not square");
+        }
+    }
+
+    /**
+     * Checks the maximum number of isomorphisms of a search.
+     *
+     * @param maxNumIsoMorph the maximum number isomorphisms to find, if
+     *            specified
+     * @throws IllegalArgumentException if the maximum is not valid
+     */
+    static void checkSearchLimit(Integer maxNumIsoMorph) {
+
+        // Expectation check
+        if (maxNumIsoMorph != null && maxNumIsoMorph <= 0) {
+            throw new IllegalArgumentException(
+                    "Invalid upper limit of results, should be null or strictly positive");
+        }
+    }
+
+    /**
+     * Enumerates lazily the isomorphisms (mappings) of a subgraph in a
+     * host/mother graph. The search advances only when the next isomorphism
+     * is requested, so the consumer can stop at any time, and only keeps the
+     * isomorphisms it needs.
+     *
+     * The isomorphisms are the ones of
+     * {@link #getIsomorphicSubgraphs(Int2DMatrix, Int2DMatrix, Integer,
+     * SimilarityMappingCriteria, boolean)},
+     * in the same order, found by the bit set engine of
+     * {@link BitSetIsoMorphismSearch}.
+     *
+     * @param dataGraph Adjacency matrix of the host/mother graph in which to
+     *            search for a match.
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param similarityCriteria a function used to determine if two nodes are
+     *            similar enough to be candidates for matching in the resulting
+     *            morphism (degree criteria by default)
+     *
+     * @return an iterator over the isomorphisms, each one being given as the
+     *         data node mapped to each query node
+     */
+    public static Iterator<int[]> iterateIsomorphisms(Int2DMatrix dataGraph,
+            Int2DMatrix queryGraph, SimilarityMappingCriteria similarityCriteria) {
+        return BitSetIsoMorphismSearch.iterateIsomorphisms(dataGraph, queryGraph,
+                similarityCriteria);
+    }
+
+    /**
+     * Streams lazily the isomorphisms (mappings) of a subgraph in a
+     * host/mother graph. The search advances only when the stream pulls the
+     * next isomorphism, so short-circuiting operations stop the search.
+     *
+     * The isomorphisms are the ones of
+     * {@link #getIsomorphicSubgraphs(Int2DMatrix, Int2DMatrix, Integer,
+     * SimilarityMappingCriteria, boolean)},
+     * in the same order, found by the bit set engine of
+     * {@link BitSetIsoMorphismSearch}.
+     *
+     * @param dataGraph Adjacency matrix of the host/mother graph in which to
+     *            search for a match.
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param similarityCriteria a function used to determine if two nodes are
+     *            similar enough to be candidates for matching in the resulting
+     *            morphism (degree criteria by default)
+     *
+     * @return a sequential stream of the isomorphisms, each one being given as
+     *         the data node mapped to each query node
+     */
+    public static Stream<int[]> streamIsomorphisms(Int2DMatrix dataGraph,
+            Int2DMatrix queryGraph, SimilarityMappingCriteria similarityCriteria) {
+        return BitSetIsoMorphismSearch.streamIsomorphisms(dataGraph, queryGraph,
+                similarityCriteria);
+    }
+
     /**
      * Finds isomorphisms (mappings) of a subgraph in a host/mother graph.
      *
+     * Each isomorphism found is kept as a full mapping matrix. To process the
+     * isomorphisms one at a time, in bounded memory, see
+     * {@link #iterateIsomorphisms(Int2DMatrix, Int2DMatrix, SimilarityMappingCriteria)}
+     * and
+     * {@link #streamIsomorphisms(Int2DMatrix, Int2DMatrix, SimilarityMappingCriteria)}.
+     *
      * @param dataGraph Adjacency matrix of the host/mother graph in which to
      *            search for a match.
      * @param queryGraph Adjacency matrix of subgraph to search for
@@ -314,23 +964,34 @@ public class IsoMorphismSearch {
     public static List<Int2DMatrix> getIsomorphicSubgraphs(Int2DMatrix dataGraph,
             Int2DMatrix queryGraph, Integer maxNumIsoMorph,
             SimilarityMappingCriteria similarityCriteria, boolean prune) {
+        return getIsomorphicSubgraphs(dataGraph, queryGraph, maxNumIsoMorph, similarityCriteria,
+                prune, new IsoMorphismSearchStatistics());
+    }
 
-        LOG.debug("Search for isomorphisms - Preconditions checks");
-
-        // Expectation check
-        if (maxNumIsoMorph != null && maxNumIsoMorph <= 0) {
-            throw new IllegalArgumentException(
-                    "Invalid upper limit of results, should be null or strictly positive");
-        }
-
-        // Checking given adjacency matrices
-        if (!dataGraph.isSquare()) {
-            throw new IllegalArgumentException("Data graph adjacency matrix is not square");
-        }
+    /**
+     * Finds isomorphisms (mappings) of a subgraph in a host/mother graph.
+     *
+     * @param dataGraph Adjacency matrix of the host/mother graph in which to
+     *            search for a match.
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param maxNumIsoMorph the maximum number isomorphisms to find, may return
+     *            fewer if fewer are matched, is specified.
+     * @param similarityCriteria a function used to determine if two nodes are
+     *            similar enough to be candidates for matching in the resulting
+     *            morphism (degree criteria by default)
+     * @param prune true if pruning of the matrix mapping is enabled, false
+     *            otherwise.
+     * @param statistics counters of the search, updated during the search
+     *
+     * @return the list of morphism matrix arrays found
+     */
+    public static List<Int2DMatrix> getIsomorphicSubgraphs(Int2DMatrix dataGraph,
+            Int2DMatrix queryGraph, Integer maxNumIsoMorph,
+            SimilarityMappingCriteria similarityCriteria, boolean prune,
+            IsoMorphismSearchStatistics statistics) {
 
-        if (!queryGraph.isSquare()) {
-            throw new IllegalArgumentException("Query graph adjacency matrix is not square");
-        }
+        LOG.debug("Search for isomorphisms - Preconditions checks");
+        checkSearchArguments(dataGraph, queryGraph, maxNumIsoMorph);
 
         // Easy results
 
@@ -349,17 +1010,24 @@ public class IsoMorphismSearch {
         LOG.debug("Search for isomorphisms - Initialises first mapping matrix");
         Int2DMatrix morphismMatrix = initMorphism(dataGraph, queryGraph, similarityCriteria);
 
+        if (prune && !pruneOptions(morphismMatrix, queryGraph, dataGraph, statistics)) {
+            LOG.debug("Search for isomorphisms - No candidate left after pruning");
+            return collectedIsomorphisms;
+        }
+
         if (LOG.isDebugEnabled()) {
             LOG.debug(morphismMatrix.toPrettyString());
         }
 
         boolean[] boundedDataNodes = new boolean[dataGraphSize];
 
-        recurseMorphismSearch(boundedDataNodes, 0, dataGraph, queryGraph, morphismMatrix,
-                collectedIsomorphisms, maxNumIsoMorph, prune);
+        IsoMorphismCollector collector = listCollector(collectedIsomorphisms, maxNumIsoMorph);
+
+        recurseMorphismSearch(boundedDataNodes, new int[queryGraphSize], 0, dataGraph, queryGraph,
+                morphismMatrix, collector, prune, statistics);
 
         LOG.debug("Search for isomorphisms - End of search, " + collectedIsomorphisms.size()
-                + " isomorphisms found.");
+                + " isomorphisms found (" + statistics + ").");
 
         return collectedIsomorphisms;
     }
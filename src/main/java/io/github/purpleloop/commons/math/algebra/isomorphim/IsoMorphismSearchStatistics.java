@@ -0,0 +1,83 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters gathered during an isomorphism search, to measure the effect of
+ * the pruning.
+ *
+ * <p>
+ * Counters are thread safe, so that a single instance can be shared by the
+ * tasks of a parallel search.
+ * </p>
+ */
+public class IsoMorphismSearchStatistics {
+
+    /** Number of bindings of a query node to a data node that were tried. */
+    private final LongAdder exploredBranches = new LongAdder();
+
+    /** Number of bindings rejected by the refinement of the candidates. */
+    private final LongAdder prunedBranches = new LongAdder();
+
+    /** Number of candidates removed by the refinement. */
+    private final LongAdder removedCandidates = new LongAdder();
+
+    /** Number of bindings rejected because an edge with a bound node is missing. */
+    private final LongAdder rejectedBindings = new LongAdder();
+
+    /** @return number of bindings of a query node to a data node that were tried */
+    public long getExploredBranches() {
+        return exploredBranches.sum();
+    }
+
+    /** @return number of bindings rejected by the refinement of the candidates */
+    public long getPrunedBranches() {
+        return prunedBranches.sum();
+    }
+
+    /** @return number of candidates removed by the refinement */
+    public long getRemovedCandidates() {
+        return removedCandidates.sum();
+    }
+
+    /** @return number of bindings rejected because an edge with a bound node is missing */
+    public long getRejectedBindings() {
+        return rejectedBindings.sum();
+    }
+
+    /** Counts a tried binding. */
+    void exploredBranch() {
+        exploredBranches.increment();
+    }
+
+    /** Counts a binding rejected by the refinement. */
+    void prunedBranch() {
+        prunedBranches.increment();
+    }
+
+    /** Counts a candidate removed by the refinement. */
+    void removedCandidate() {
+        removedCandidates.increment();
+    }
+
+    /** Counts a binding rejected because an edge with a bound node is missing. */
+    void rejectedBinding() {
+        rejectedBindings.increment();
+    }
+
+    /** Resets all the counters. */
+    public void reset() {
+        exploredBranches.reset();
+        prunedBranches.reset();
+        removedCandidates.reset();
+        rejectedBindings.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "explored branches=" + getExploredBranches() + ", pruned branches="
+                + getPrunedBranches() + ", removed candidates=" + getRemovedCandidates()
+                + ", rejected bindings=" + getRejectedBindings();
+    }
+
+}
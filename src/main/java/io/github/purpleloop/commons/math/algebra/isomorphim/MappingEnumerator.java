@@ -0,0 +1,24 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+/**
+ * A search state enumerating isomorphisms one by one, on demand, as mappings
+ * from query nodes to data nodes.
+ */
+interface MappingEnumerator {
+
+    /**
+     * Advances the search to the next isomorphism.
+     * 
+     * @return true if an isomorphism was found, false if there is no more
+     *         isomorphism
+     */
+    boolean next();
+
+    /**
+     * @return the data node mapped to each query node, for the isomorphism
+     *         found by the last successful call to {@link #next()}, in an array
+     *         owned by the search state
+     */
+    int[] currentMapping();
+
+}
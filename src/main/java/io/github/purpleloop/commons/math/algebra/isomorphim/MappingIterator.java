@@ -0,0 +1,62 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An iterator over the isomorphisms of a search, that drives the search only
+ * when the next isomorphism is requested.
+ */
+final class MappingIterator implements Iterator<int[]> {
+
+    /** The search state. */
+    private final MappingEnumerator enumerator;
+
+    /** True if the search state holds an isomorphism not returned yet. */
+    private boolean pending;
+
+    /** True if the search is finished. */
+    private boolean finished;
+
+    /**
+     * Creates an iterator.
+     * 
+     * @param enumerator the search state
+     */
+    MappingIterator(MappingEnumerator enumerator) {
+        this.enumerator = enumerator;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!pending && !finished) {
+            pending = enumerator.next();
+            finished = !pending;
+        }
+        return pending;
+    }
+
+    @Override
+    public int[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more isomorphism");
+        }
+        pending = false;
+        return enumerator.currentMapping().clone();
+    }
+
+    /**
+     * @param enumerator the search state
+     * @return a sequential and lazy stream of the isomorphisms of the search
+     */
+    static Stream<int[]> stream(MappingEnumerator enumerator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                new MappingIterator(enumerator), Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+}
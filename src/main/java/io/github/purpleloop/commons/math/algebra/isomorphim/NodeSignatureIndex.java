@@ -0,0 +1,375 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.github.purpleloop.commons.math.algebra.Int2DMatrix;
+
+/**
+ * Signatures of the nodes of a graph, computed once and compared in constant
+ * time to filter the candidates of an isomorphism search.
+ *
+ * <p>
+ * The signature of a node holds its outgoing and incoming degrees, its label,
+ * the number of triangles it belongs to, and a histogram of the degrees of its
+ * neighbours. The histogram is cumulative : bucket k counts the neighbours of
+ * degree at least 2^k. As an isomorphism maps each edge of the query graph to
+ * an edge of the data graph, all these values of a query node are lower or
+ * equal than the ones of its image (labels being equal).
+ * </p>
+ *
+ * <p>
+ * Indexes are cached per graph, so that the cost of building the index of a
+ * data graph is paid once for many queries. The cache does not retain the
+ * graphs. A graph modified after its index was built must be evicted from the
+ * cache, as the modification cannot be detected. The indexes are built out of
+ * the lock of the cache, so that building the index of a large graph does not
+ * block the searches on other graphs.
+ * </p>
+ */
+public final class NodeSignatureIndex {
+
+    /** Class logger. */
+    private static final Log LOG = LogFactory.getLog(NodeSignatureIndex.class);
+
+    /** Number of buckets of the histogram of the degrees of the neighbours. */
+    public static final int HISTOGRAM_BUCKETS = 8;
+
+    /** Cached indexes, by graph. */
+    private static final Map<Object, NodeSignatureIndex> CACHE = new WeakHashMap<>();
+
+    /** Number of nodes. */
+    private final int nodeCount;
+
+    /** Number of edges from each node. */
+    private final int[] outDegrees;
+
+    /** Number of edges to each node. */
+    private final int[] inDegrees;
+
+    /** Label of each node. */
+    private final int[] labels;
+
+    /** Number of triangles each node belongs to, edges being undirected. */
+    private final int[] triangles;
+
+    /** Cumulative histograms of the degrees of the neighbours, per node. */
+    private final int[] histograms;
+
+    /**
+     * Builds the index of an unlabelled graph.
+     *
+     * @param graph the graph
+     */
+    public NodeSignatureIndex(CsrGraph graph) {
+        this(graph, null);
+    }
+
+    /**
+     * Builds the index of a labelled graph.
+     *
+     * @param graph the graph
+     * @param labels label of each node, null if the graph is not labelled
+     */
+    public NodeSignatureIndex(CsrGraph graph, int[] labels) {
+
+        this.nodeCount = graph.getNodeCount();
+
+        if (labels != null && labels.length != nodeCount) {
+            throw new IllegalArgumentException("A label is expected for each of the "
+                    + nodeCount + " nodes, got " + labels.length);
+        }
+
+        this.labels = labels == null ? new int[nodeCount] : labels.clone();
+        this.outDegrees = new int[nodeCount];
+        this.inDegrees = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            outDegrees[node] = graph.getOutDegree(node);
+            inDegrees[node] = graph.getInDegree(node);
+        }
+
+        int[][] neighbours = new int[nodeCount][];
+        for (int node = 0; node < nodeCount; node++) {
+            neighbours[node] = undirectedNeighbours(graph, node);
+        }
+
+        this.histograms = new int[nodeCount * HISTOGRAM_BUCKETS];
+        for (int node = 0; node < nodeCount; node++) {
+            for (int neighbour : neighbours[node]) {
+                int degree = outDegrees[neighbour] + inDegrees[neighbour];
+                for (int bucket = 0; bucket < HISTOGRAM_BUCKETS
+                        && degree >= 1 << bucket; bucket++) {
+                    histograms[node * HISTOGRAM_BUCKETS + bucket]++;
+                }
+            }
+        }
+
+        this.triangles = countTriangles(neighbours);
+    }
+
+    /**
+     * Builds the index of an unlabelled graph.
+     *
+     * @param graph adjacency matrix of the graph
+     */
+    public NodeSignatureIndex(Int2DMatrix graph) {
+        this(new CsrGraph(graph), null);
+    }
+
+    /**
+     * Builds the index of a labelled graph.
+     *
+     * @param graph adjacency matrix of the graph
+     * @param labels label of each node, null if the graph is not labelled
+     */
+    public NodeSignatureIndex(Int2DMatrix graph, int[] labels) {
+        this(new CsrGraph(graph), labels);
+    }
+
+    /**
+     * Computes the neighbours of a node, regardless of the direction of the
+     * edges.
+     *
+     * @param graph the graph
+     * @param node the node
+     * @return the other nodes linked to the node, in ascending order
+     */
+    private static int[] undirectedNeighbours(CsrGraph graph, int node) {
+        int[] out = graph.getOutNeighbours(node);
+        int[] in = graph.getInNeighbours(node);
+        int[] merged = new int[out.length + in.length];
+
+        int count = 0;
+        int outIndex = 0;
+        int inIndex = 0;
+        while (outIndex < out.length || inIndex < in.length) {
+            int next;
+            if (inIndex == in.length || (outIndex < out.length && out[outIndex] <= in[inIndex])) {
+                next = out[outIndex++];
+            } else {
+                next = in[inIndex++];
+            }
+            if (next != node && (count == 0 || merged[count - 1] != next)) {
+                merged[count++] = next;
+            }
+        }
+        return Arrays.copyOf(merged, count);
+    }
+
+    /**
+     * Counts the triangles of an undirected graph.
+     *
+     * @param neighbours sorted neighbours of each node
+     * @return number of triangles each node belongs to
+     */
+    private static int[] countTriangles(int[][] neighbours) {
+        int[] counts = new int[neighbours.length];
+        boolean[] marked = new boolean[neighbours.length];
+
+        for (int node = 0; node < neighbours.length; node++) {
+            for (int neighbour : neighbours[node]) {
+                marked[neighbour] = true;
+            }
+
+            // Each pair of linked neighbours closes a triangle
+            for (int neighbour : neighbours[node]) {
+                for (int other : neighbours[neighbour]) {
+                    if (other > neighbour && marked[other]) {
+                        counts[node]++;
+                    }
+                }
+            }
+
+            for (int neighbour : neighbours[node]) {
+                marked[neighbour] = false;
+            }
+        }
+        return counts;
+    }
+
+    /** @return the number of nodes */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @param node a node
+     * @return number of edges from the node
+     */
+    public int getOutDegree(int node) {
+        return outDegrees[node];
+    }
+
+    /**
+     * @param node a node
+     * @return number of edges to the node
+     */
+    public int getInDegree(int node) {
+        return inDegrees[node];
+    }
+
+    /**
+     * @param node a node
+     * @return label of the node, 0 if the graph is not labelled
+     */
+    public int getLabel(int node) {
+        return labels[node];
+    }
+
+    /**
+     * @param node a node
+     * @return number of triangles the node belongs to, edges being undirected
+     */
+    public int getTriangleCount(int node) {
+        return triangles[node];
+    }
+
+    /**
+     * @param node a node
+     * @param bucket a bucket of the histogram, in [0; HISTOGRAM_BUCKETS[
+     * @return number of neighbours of the node having at least 2^bucket edges
+     */
+    public int getNeighbourCount(int node, int bucket) {
+        return histograms[node * HISTOGRAM_BUCKETS + bucket];
+    }
+
+    /**
+     * Compares the signature of a node of this (query) graph with the one of
+     * a node of another (data) graph.
+     *
+     * @param node a node of this graph
+     * @param other the index of the other graph
+     * @param otherNode a node of the other graph
+     * @return true if the node may be mapped on the other node by an
+     *         isomorphism
+     */
+    public boolean isDominatedBy(int node, NodeSignatureIndex other, int otherNode) {
+
+        if (outDegrees[node] > other.outDegrees[otherNode]
+                || inDegrees[node] > other.inDegrees[otherNode]
+                || labels[node] != other.labels[otherNode]
+                || triangles[node] > other.triangles[otherNode]) {
+            return false;
+        }
+
+        int offset = node * HISTOGRAM_BUCKETS;
+        int otherOffset = otherNode * HISTOGRAM_BUCKETS;
+        for (int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++) {
+            if (histograms[offset + bucket] > other.histograms[otherOffset + bucket]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the cached index of an unlabelled graph, building it if needed.
+     *
+     * @param graph adjacency matrix of the graph, that must not be modified
+     *            while its index is cached
+     * @return the index of the graph
+     */
+    public static NodeSignatureIndex of(Int2DMatrix graph) {
+        return cached(graph, () -> new NodeSignatureIndex(graph));
+    }
+
+    /**
+     * Gets the cached index of a graph, building it if needed.
+     *
+     * @param graph the graph
+     * @return the index of the graph
+     */
+    public static NodeSignatureIndex of(CsrGraph graph) {
+        return cached(graph, () -> new NodeSignatureIndex(graph));
+    }
+
+    /**
+     * Gets the cached index of a graph, building it if needed.
+     *
+     * @param graph the graph
+     * @param builder builds the index of the graph
+     * @return the index of the graph
+     */
+    private static NodeSignatureIndex cached(Object graph,
+            Supplier<NodeSignatureIndex> builder) {
+        NodeSignatureIndex index;
+        synchronized (CACHE) {
+            index = CACHE.get(graph);
+        }
+        if (index != null) {
+            return index;
+        }
+
+        // Built without holding the lock, the first index cached being kept
+        NodeSignatureIndex built = builder.get();
+        synchronized (CACHE) {
+            index = CACHE.putIfAbsent(graph, built);
+        }
+        if (index != null) {
+            return index;
+        }
+        LOG.debug("Node signatures indexed for a graph of " + built.nodeCount + " nodes");
+        return built;
+    }
+
+    /**
+     * Builds the index of a labelled graph and caches it, replacing any
+     * previous index of the graph.
+     *
+     * @param graph adjacency matrix of the graph, that must not be modified
+     *            while its index is cached
+     * @param labels label of each node
+     * @return the index of the graph
+     */
+    public static NodeSignatureIndex ofLabelled(Int2DMatrix graph, int[] labels) {
+        NodeSignatureIndex index = new NodeSignatureIndex(graph, labels);
+        synchronized (CACHE) {
+            CACHE.put(graph, index);
+        }
+        return index;
+    }
+
+    /**
+     * Builds the index of a labelled graph and caches it, replacing any
+     * previous index of the graph.
+     *
+     * @param graph the graph
+     * @param labels label of each node
+     * @return the index of the graph
+     */
+    public static NodeSignatureIndex ofLabelled(CsrGraph graph, int[] labels) {
+        NodeSignatureIndex index = new NodeSignatureIndex(graph, labels);
+        synchronized (CACHE) {
+            CACHE.put(graph, index);
+        }
+        return index;
+    }
+
+    /**
+     * Removes the cached index of a graph, for instance after it was modified.
+     *
+     * @param graph adjacency matrix of the graph
+     */
+    public static void evict(Int2DMatrix graph) {
+        synchronized (CACHE) {
+            CACHE.remove(graph);
+        }
+    }
+
+    /**
+     * Removes the cached index of a graph.
+     *
+     * @param graph the graph
+     */
+    public static void evict(CsrGraph graph) {
+        synchronized (CACHE) {
+            CACHE.remove(graph);
+        }
+    }
+
+}
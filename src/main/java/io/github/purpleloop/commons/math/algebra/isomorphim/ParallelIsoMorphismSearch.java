@@ -0,0 +1,344 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.github.purpleloop.commons.math.algebra.Int2DMatrix;
+
+/**
+ * A parallel version of the isomorphism search of {@link IsoMorphismSearch},
+ * running on a {@link ForkJoinPool}.
+ *
+ * <p>
+ * Each choice of a data node for a query node is an independent branch of the
+ * search. Branches are split into tasks as long as the workers of the pool
+ * lack work, then explored sequentially, so that uneven subtrees are balanced
+ * by work stealing.
+ * </p>
+ *
+ * <p>
+ * The maximum number of isomorphisms is a budget shared by all the tasks :
+ * every worker stops as soon as it is reached. Without limit, the results are
+ * the same, in the same order, as the ones of the sequential search. With a
+ * limit, the returned isomorphisms are the first ones found by the workers,
+ * that may differ from the first ones of the sequential search.
+ * </p>
+ */
+public final class ParallelIsoMorphismSearch {
+
+    /** Class logger. */
+    private static final Log LOG = LogFactory.getLog(ParallelIsoMorphismSearch.class);
+
+    /**
+     * Number of tasks that may wait in the queue of a worker before a branch
+     * is explored sequentially rather than split.
+     */
+    private static final int SURPLUS_TASKS_THRESHOLD = 3;
+
+    /** Private constructor to prevent instantiation. */
+    private ParallelIsoMorphismSearch() {
+        // Nothing to do here
+    }
+
+    /** The parameters and the shared state of a parallel search. */
+    private static final class SearchContext {
+
+        /** Adjacency matrix of the data graph. */
+        private final Int2DMatrix dataGraph;
+
+        /** Adjacency matrix of the query graph. */
+        private final Int2DMatrix queryGraph;
+
+        /** The maximum number of isomorphisms to find, null if unlimited. */
+        private final Integer maxNumIsoMorph;
+
+        /** True if pruning of the matrix mapping is enabled. */
+        private final boolean prune;
+
+        /** Counters of the search. */
+        private final IsoMorphismSearchStatistics statistics;
+
+        /** Number of isomorphisms found by all the tasks. */
+        private final AtomicInteger foundIsomorphisms = new AtomicInteger();
+
+        /**
+         * Creates a search context.
+         *
+         * @param dataGraph Adjacency matrix of the data graph
+         * @param queryGraph Adjacency matrix of the query graph
+         * @param maxNumIsoMorph the maximum number isomorphisms to find
+         * @param prune true if pruning of the matrix mapping is enabled
+         * @param statistics counters of the search
+         */
+        private SearchContext(Int2DMatrix dataGraph, Int2DMatrix queryGraph,
+                Integer maxNumIsoMorph, boolean prune, IsoMorphismSearchStatistics statistics) {
+            this.dataGraph = dataGraph;
+            this.queryGraph = queryGraph;
+            this.maxNumIsoMorph = maxNumIsoMorph;
+            this.prune = prune;
+            this.statistics = statistics;
+        }
+
+        /** @return true if the budget of isomorphisms is exhausted */
+        private boolean isComplete() {
+            return maxNumIsoMorph != null && foundIsomorphisms.get() >= maxNumIsoMorph;
+        }
+
+        /** @return true if a found isomorphism can be kept within the budget */
+        private boolean reserve() {
+            return maxNumIsoMorph == null
+                    || foundIsomorphisms.incrementAndGet() <= maxNumIsoMorph;
+        }
+    }
+
+    /** A task exploring a branch of the search. */
+    private static final class MorphismSearchTask extends RecursiveTask<List<Int2DMatrix>> {
+
+        /** Serial tag. */
+        private static final long serialVersionUID = -1758473539211409337L;
+
+        /** The search context. */
+        private final transient SearchContext context;
+
+        /** Data nodes that are bounded (used) in this branch. */
+        private final boolean[] boundedDataNodes;
+
+        /** Data node bound to each query node before the current row. */
+        private final int[] mapping;
+
+        /** The row (index of the node to bind in the query graph). */
+        private final int currentRow;
+
+        /** The mapping matrix of this branch. */
+        private final transient Int2DMatrix mappingMatrix;
+
+        /**
+         * Creates a task.
+         *
+         * @param context the search context
+         * @param boundedDataNodes data nodes bounded in this branch, owned by
+         *            the task
+         * @param mapping data node bound to each query node before the
+         *            current row, owned by the task
+         * @param currentRow the row to bind
+         * @param mappingMatrix the mapping matrix of this branch, owned by the
+         *            task
+         */
+        private MorphismSearchTask(SearchContext context, boolean[] boundedDataNodes,
+                int[] mapping, int currentRow, Int2DMatrix mappingMatrix) {
+            this.context = context;
+            this.boundedDataNodes = boundedDataNodes;
+            this.mapping = mapping;
+            this.currentRow = currentRow;
+            this.mappingMatrix = mappingMatrix;
+        }
+
+        @Override
+        protected List<Int2DMatrix> compute() {
+
+            if (context.isComplete()) {
+                return new ArrayList<>();
+            }
+
+            if (currentRow < mappingMatrix.getHeight() - 1
+                    && getSurplusQueuedTaskCount() <= SURPLUS_TASKS_THRESHOLD) {
+                return split();
+            }
+
+            return exploreSequentially();
+        }
+
+        /**
+         * Splits the branch in sub tasks, one per candidate data node for the
+         * current row.
+         *
+         * @return the isomorphisms found by the sub tasks, in the order of
+         *         the candidates
+         */
+        private List<Int2DMatrix> split() {
+
+            List<MorphismSearchTask> subTasks = new ArrayList<>();
+            int numMappingCols = mappingMatrix.getWidth();
+
+            for (int testedCol = 0; testedCol < numMappingCols; testedCol++) {
+
+                if (!boundedDataNodes[testedCol]
+                        && mappingMatrix.get(testedCol, currentRow) == 1) {
+
+                    context.statistics.exploredBranch();
+
+                    if (!IsoMorphismSearch.isConsistentBinding(mapping, currentRow, testedCol,
+                            context.dataGraph, context.queryGraph)) {
+                        context.statistics.rejectedBinding();
+                        continue;
+                    }
+
+                    Int2DMatrix branchMappingMatrix = new Int2DMatrix(mappingMatrix);
+                    IsoMorphismSearch.selectColumn(branchMappingMatrix, currentRow, testedCol);
+
+                    if (context.prune && !IsoMorphismSearch.refineOptions(branchMappingMatrix,
+                            context.queryGraph, context.dataGraph, currentRow, testedCol,
+                            context.statistics)) {
+                        context.statistics.prunedBranch();
+                        continue;
+                    }
+
+                    boolean[] branchBoundedDataNodes = boundedDataNodes.clone();
+                    branchBoundedDataNodes[testedCol] = true;
+                    int[] branchMapping = mapping.clone();
+                    branchMapping[currentRow] = testedCol;
+
+                    subTasks.add(new MorphismSearchTask(context, branchBoundedDataNodes,
+                            branchMapping, currentRow + 1, branchMappingMatrix));
+                }
+            }
+
+            invokeAll(subTasks);
+
+            List<Int2DMatrix> collectedIsomorphisms = new ArrayList<>();
+            for (MorphismSearchTask subTask : subTasks) {
+                collectedIsomorphisms.addAll(subTask.join());
+            }
+            return collectedIsomorphisms;
+        }
+
+        /** @return the isomorphisms found in the branch by a sequential search */
+        private List<Int2DMatrix> exploreSequentially() {
+
+            List<Int2DMatrix> collectedIsomorphisms = new ArrayList<>();
+
+            IsoMorphismCollector collector = new IsoMorphismCollector() {
+
+                @Override
+                public boolean isComplete() {
+                    return context.isComplete();
+                }
+
+                @Override
+                public void collect(Int2DMatrix foundMappingMatrix) {
+                    if (context.reserve()) {
+                        collectedIsomorphisms.add(new Int2DMatrix(foundMappingMatrix));
+                    }
+                }
+            };
+
+            IsoMorphismSearch.recurseMorphismSearch(boundedDataNodes, mapping, currentRow,
+                    context.dataGraph, context.queryGraph, mappingMatrix, collector,
+                    context.prune, context.statistics);
+
+            return collectedIsomorphisms;
+        }
+    }
+
+    /**
+     * Finds isomorphisms (mappings) of a subgraph in a host/mother graph, using
+     * the common fork join pool.
+     *
+     * @param dataGraph Adjacency matrix of the host/mother graph in which to
+     *            search for a match.
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param maxNumIsoMorph the maximum number isomorphisms to find, may return
+     *            fewer if fewer are matched, is specified.
+     * @param similarityCriteria a function used to determine if two nodes are
+     *            similar enough to be candidates for matching in the resulting
+     *            morphism (degree criteria by default)
+     * @param prune true if pruning of the matrix mapping is enabled, false
+     *            otherwise.
+     *
+     * @return the list of morphism matrix arrays found
+     */
+    public static List<Int2DMatrix> getIsomorphicSubgraphs(Int2DMatrix dataGraph,
+            Int2DMatrix queryGraph, Integer maxNumIsoMorph,
+            SimilarityMappingCriteria similarityCriteria, boolean prune) {
+        return getIsomorphicSubgraphs(dataGraph, queryGraph, maxNumIsoMorph, similarityCriteria,
+                prune, ForkJoinPool.commonPool(), new IsoMorphismSearchStatistics());
+    }
+
+    /**
+     * Finds isomorphisms (mappings) of a subgraph in a host/mother graph, using
+     * the given fork join pool.
+     *
+     * @param dataGraph Adjacency matrix of the host/mother graph in which to
+     *            search for a match.
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param maxNumIsoMorph the maximum number isomorphisms to find, may return
+     *            fewer if fewer are matched, is specified.
+     * @param similarityCriteria a function used to determine if two nodes are
+     *            similar enough to be candidates for matching in the resulting
+     *            morphism (degree criteria by default)
+     * @param prune true if pruning of the matrix mapping is enabled, false
+     *            otherwise.
+     * @param pool the fork join pool running the search
+     *
+     * @return the list of morphism matrix arrays found
+     */
+    public static List<Int2DMatrix> getIsomorphicSubgraphs(Int2DMatrix dataGraph,
+            Int2DMatrix queryGraph, Integer maxNumIsoMorph,
+            SimilarityMappingCriteria similarityCriteria, boolean prune, ForkJoinPool pool) {
+        return getIsomorphicSubgraphs(dataGraph, queryGraph, maxNumIsoMorph, similarityCriteria,
+                prune, pool, new IsoMorphismSearchStatistics());
+    }
+
+    /**
+     * Finds isomorphisms (mappings) of a subgraph in a host/mother graph, using
+     * the given fork join pool and gathering statistics.
+     *
+     * @param dataGraph Adjacency matrix of the host/mother graph in which to
+     *            search for a match.
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param maxNumIsoMorph the maximum number isomorphisms to find, may return
+     *            fewer if fewer are matched, is specified.
+     * @param similarityCriteria a function used to determine if two nodes are
+     *            similar enough to be candidates for matching in the resulting
+     *            morphism (degree criteria by default)
+     * @param prune true if pruning of the matrix mapping is enabled, false
+     *            otherwise.
+     * @param pool the fork join pool running the search
+     * @param statistics counters of the search, updated during the search
+     *
+     * @return the list of morphism matrix arrays found
+     */
+    public static List<Int2DMatrix> getIsomorphicSubgraphs(Int2DMatrix dataGraph,
+            Int2DMatrix queryGraph, Integer maxNumIsoMorph,
+            SimilarityMappingCriteria similarityCriteria, boolean prune, ForkJoinPool pool,
+            IsoMorphismSearchStatistics statistics) {
+
+        LOG.debug("Parallel search for isomorphisms - Preconditions checks");
+        IsoMorphismSearch.checkSearchArguments(dataGraph, queryGraph, maxNumIsoMorph);
+
+        if (pool == null) {
+            throw new IllegalArgumentException("The fork join pool must not be null");
+        }
+
+        // No match is possible if query graph is bigger than data graph
+        if (dataGraph.getWidth() < queryGraph.getWidth()) {
+            return new ArrayList<>();
+        }
+
+        Int2DMatrix morphismMatrix = IsoMorphismSearch.initMorphism(dataGraph, queryGraph,
+                similarityCriteria);
+
+        if (prune && !IsoMorphismSearch.pruneOptions(morphismMatrix, queryGraph, dataGraph,
+                statistics)) {
+            return new ArrayList<>();
+        }
+
+        SearchContext context = new SearchContext(dataGraph, queryGraph, maxNumIsoMorph, prune,
+                statistics);
+        List<Int2DMatrix> collectedIsomorphisms = pool.invoke(new MorphismSearchTask(context,
+                new boolean[dataGraph.getWidth()], new int[queryGraph.getWidth()], 0,
+                morphismMatrix));
+
+        LOG.debug("Parallel search for isomorphisms - End of search, "
+                + collectedIsomorphisms.size() + " isomorphisms found.");
+
+        return collectedIsomorphisms;
+    }
+
+}
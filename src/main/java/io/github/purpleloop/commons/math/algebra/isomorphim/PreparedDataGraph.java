@@ -0,0 +1,587 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.github.purpleloop.commons.math.algebra.Int2DMatrix;
+
+/**
+ * A data graph prepared once for many isomorphism queries.
+ *
+ * <p>
+ * The graph is held as adjacency bit sets in both directions, with the degree
+ * and the label of each node, an index of the nodes by label and optionally
+ * an inverted index of the nodes by degree bucket. Queries are answered by the
+ * bit set engine of {@link BitSetIsoMorphismSearch}, the candidates of each
+ * query node being computed from the indexes instead of a scan of the full
+ * adjacency matrix.
+ * </p>
+ *
+ * <p>
+ * The inverted index is keyed by the total degree of the nodes, and not by
+ * the full signatures of {@link NodeSignatureIndex} : the triangles and the
+ * degrees of the neighbours of a node change when an edge is added or removed
+ * anywhere in its neighbourhood, so maintaining them would make each update
+ * cost a traversal of the neighbours of both ends. The degrees only change for
+ * the two ends of the edge, so the index is updated in constant time, and the
+ * candidates it gives are then filtered on their exact degrees in each
+ * direction.
+ * </p>
+ *
+ * <p>
+ * The adjacency is dense : the memory used grows with the square of the number
+ * of nodes (see {@link #getMemoryFootprint()}). Sparse graphs of many nodes
+ * are better searched as a {@link CsrGraph} with {@link Vf2IsoMorphismSearch}.
+ * </p>
+ *
+ * <p>
+ * The graph can be updated incrementally by adding or removing edges and
+ * nodes. Removed nodes keep their index, that is not reused. Queries from
+ * many threads run concurrently, updates wait for the running queries to end.
+ * </p>
+ */
+public final class PreparedDataGraph {
+
+    /** Class logger. */
+    private static final Log LOG = LogFactory.getLog(PreparedDataGraph.class);
+
+    /** Number of buckets of the degree inverted index. */
+    private static final int DEGREE_BUCKETS = 16;
+
+    /** Minimal capacity, in nodes. */
+    private static final int MIN_CAPACITY = Long.SIZE;
+
+    /** Lock sharing the graph between queries and updates. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** True if the degree inverted index is maintained. */
+    private final boolean degreeIndexEnabled;
+
+    /** Time spent to build the indexes, in nanoseconds. */
+    private final long buildTimeNanos;
+
+    /** Number of nodes, including the removed ones. */
+    private int nodeCount;
+
+    /** Number of edges. */
+    private int edgeCount;
+
+    /** Number of words of the bit sets of nodes. */
+    private int words;
+
+    /** Nodes reached by an edge from each node. */
+    private long[][] out;
+
+    /** Nodes having an edge to each node. */
+    private long[][] in;
+
+    /** Number of edges from each node. */
+    private int[] outDegrees;
+
+    /** Number of edges to each node. */
+    private int[] inDegrees;
+
+    /** Label of each node. */
+    private int[] labels;
+
+    /** Nodes that are not removed. */
+    private long[] activeNodes;
+
+    /** Nodes of each label. */
+    private final Map<Integer, long[]> labelIndex = new HashMap<>();
+
+    /**
+     * For each bucket b, the nodes having at least 2^b edges in both
+     * directions, null if disabled.
+     */
+    private long[][] degreeIndex;
+
+    /**
+     * Prepares an unlabelled data graph, with the degree inverted index.
+     *
+     * @param dataGraph Adjacency matrix of the data graph
+     */
+    public PreparedDataGraph(Int2DMatrix dataGraph) {
+        this(new CsrGraph(dataGraph), null, true);
+    }
+
+    /**
+     * Prepares a data graph.
+     *
+     * @param dataGraph Adjacency matrix of the data graph
+     * @param labels label of each node, null if the graph is not labelled
+     * @param degreeIndexEnabled true to maintain the degree inverted index
+     */
+    public PreparedDataGraph(Int2DMatrix dataGraph, int[] labels, boolean degreeIndexEnabled) {
+        this(new CsrGraph(dataGraph), labels, degreeIndexEnabled);
+    }
+
+    /**
+     * Prepares a data graph.
+     *
+     * @param dataGraph the data graph
+     * @param labels label of each node, null if the graph is not labelled
+     * @param degreeIndexEnabled true to maintain the degree inverted index
+     */
+    public PreparedDataGraph(CsrGraph dataGraph, int[] labels, boolean degreeIndexEnabled) {
+
+        long start = System.nanoTime();
+
+        int size = dataGraph.getNodeCount();
+        if (labels != null && labels.length != size) {
+            throw new IllegalArgumentException("A label is expected for each of the " + size
+                    + " nodes, got " + labels.length);
+        }
+
+        this.degreeIndexEnabled = degreeIndexEnabled;
+        allocate(Math.max(MIN_CAPACITY, size));
+
+        for (int node = 0; node < size; node++) {
+            insertNode(labels == null ? 0 : labels[node]);
+        }
+
+        for (int from = 0; from < size; from++) {
+            for (int to : dataGraph.getOutNeighbours(from)) {
+                BitSetIsoMorphismSearch.setBit(out[from], to);
+                BitSetIsoMorphismSearch.setBit(in[to], from);
+                outDegrees[from]++;
+                inDegrees[to]++;
+            }
+        }
+        edgeCount = dataGraph.getEdgeCount();
+
+        if (degreeIndexEnabled) {
+            for (int node = 0; node < size; node++) {
+                updateDegreeIndex(node);
+            }
+        }
+
+        this.buildTimeNanos = System.nanoTime() - start;
+        LOG.debug("Data graph of " + size + " nodes prepared in " + buildTimeNanos / 1000
+                + " µs, " + getMemoryFootprint() + " bytes");
+    }
+
+    /**
+     * Allocates the storage for a number of nodes.
+     *
+     * @param capacity the number of nodes
+     */
+    private void allocate(int capacity) {
+        words = BitSetIsoMorphismSearch.wordCount(capacity);
+        out = new long[capacity][words];
+        in = new long[capacity][words];
+        outDegrees = new int[capacity];
+        inDegrees = new int[capacity];
+        labels = new int[capacity];
+        activeNodes = new long[words];
+        degreeIndex = degreeIndexEnabled ? new long[DEGREE_BUCKETS][words] : null;
+    }
+
+    /** Doubles the capacity of the storage, keeping its content. */
+    private void grow() {
+        int capacity = out.length * 2;
+        int newWords = BitSetIsoMorphismSearch.wordCount(capacity);
+
+        out = Arrays.copyOf(out, capacity);
+        in = Arrays.copyOf(in, capacity);
+        for (int node = 0; node < capacity; node++) {
+            out[node] = node < nodeCount ? Arrays.copyOf(out[node], newWords) : new long[newWords];
+            in[node] = node < nodeCount ? Arrays.copyOf(in[node], newWords) : new long[newWords];
+        }
+
+        outDegrees = Arrays.copyOf(outDegrees, capacity);
+        inDegrees = Arrays.copyOf(inDegrees, capacity);
+        labels = Arrays.copyOf(labels, capacity);
+        activeNodes = Arrays.copyOf(activeNodes, newWords);
+        labelIndex.replaceAll((label, nodes) -> Arrays.copyOf(nodes, newWords));
+        if (degreeIndex != null) {
+            for (int bucket = 0; bucket < DEGREE_BUCKETS; bucket++) {
+                degreeIndex[bucket] = Arrays.copyOf(degreeIndex[bucket], newWords);
+            }
+        }
+        words = newWords;
+    }
+
+    /**
+     * Appends a node without edges.
+     *
+     * @param label label of the node
+     * @return index of the node
+     */
+    private int insertNode(int label) {
+        if (nodeCount == out.length) {
+            grow();
+        }
+
+        int node = nodeCount++;
+        labels[node] = label;
+        BitSetIsoMorphismSearch.setBit(activeNodes, node);
+        BitSetIsoMorphismSearch.setBit(labelIndex.computeIfAbsent(label, l -> new long[words]),
+                node);
+        return node;
+    }
+
+    /**
+     * Updates the degree inverted index for a node.
+     *
+     * @param node the node
+     */
+    private void updateDegreeIndex(int node) {
+        if (degreeIndex == null) {
+            return;
+        }
+
+        boolean active = BitSetIsoMorphismSearch.testBit(activeNodes, node);
+        int degree = outDegrees[node] + inDegrees[node];
+        for (int bucket = 0; bucket < DEGREE_BUCKETS; bucket++) {
+            if (active && degree >= 1 << bucket) {
+                BitSetIsoMorphismSearch.setBit(degreeIndex[bucket], node);
+            } else {
+                BitSetIsoMorphismSearch.clearBit(degreeIndex[bucket], node);
+            }
+        }
+    }
+
+    /**
+     * Checks that a node exists and is not removed.
+     *
+     * @param node the node
+     */
+    private void checkNode(int node) {
+        if (node < 0 || node >= nodeCount || !BitSetIsoMorphismSearch.testBit(activeNodes, node)) {
+            throw new IllegalArgumentException("Node " + node + " does not exist");
+        }
+    }
+
+    /**
+     * Adds a node without edges.
+     *
+     * @param label label of the node
+     * @return index of the new node
+     */
+    public int addNode(int label) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            int node = insertNode(label);
+            updateDegreeIndex(node);
+            return node;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes a node and its edges. The index of the node is not reused.
+     *
+     * @param node the node to remove
+     */
+    public void removeNode(int node) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            checkNode(node);
+
+            for (int other = 0; other < nodeCount; other++) {
+                if (BitSetIsoMorphismSearch.testBit(out[node], other)) {
+                    unlink(node, other);
+                }
+                if (BitSetIsoMorphismSearch.testBit(in[node], other)) {
+                    unlink(other, node);
+                }
+            }
+
+            BitSetIsoMorphismSearch.clearBit(activeNodes, node);
+            BitSetIsoMorphismSearch.clearBit(labelIndex.get(labels[node]), node);
+            updateDegreeIndex(node);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Changes the label of a node.
+     *
+     * @param node the node
+     * @param label the new label
+     */
+    public void setLabel(int node, int label) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            checkNode(node);
+            BitSetIsoMorphismSearch.clearBit(labelIndex.get(labels[node]), node);
+            labels[node] = label;
+            BitSetIsoMorphismSearch.setBit(
+                    labelIndex.computeIfAbsent(label, l -> new long[words]), node);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Adds an edge.
+     *
+     * @param from source node
+     * @param to target node
+     * @return true if the edge was added, false if it already existed
+     */
+    public boolean addEdge(int from, int to) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            checkNode(from);
+            checkNode(to);
+            if (BitSetIsoMorphismSearch.testBit(out[from], to)) {
+                return false;
+            }
+
+            BitSetIsoMorphismSearch.setBit(out[from], to);
+            BitSetIsoMorphismSearch.setBit(in[to], from);
+            outDegrees[from]++;
+            inDegrees[to]++;
+            edgeCount++;
+            updateDegreeIndex(from);
+            updateDegreeIndex(to);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes an edge.
+     *
+     * @param from source node
+     * @param to target node
+     * @return true if the edge was removed, false if it did not exist
+     */
+    public boolean removeEdge(int from, int to) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            checkNode(from);
+            checkNode(to);
+            if (!BitSetIsoMorphismSearch.testBit(out[from], to)) {
+                return false;
+            }
+
+            unlink(from, to);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes an existing edge.
+     *
+     * @param from source node
+     * @param to target node
+     */
+    private void unlink(int from, int to) {
+        BitSetIsoMorphismSearch.clearBit(out[from], to);
+        BitSetIsoMorphismSearch.clearBit(in[to], from);
+        outDegrees[from]--;
+        inDegrees[to]--;
+        edgeCount--;
+        updateDegreeIndex(from);
+        updateDegreeIndex(to);
+    }
+
+    /**
+     * Finds isomorphisms (mappings) of an unlabelled subgraph in the data
+     * graph, the labels of the data nodes being ignored.
+     *
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param maxNumIsoMorph the maximum number isomorphisms to find, may return
+     *            fewer if fewer are matched, is specified.
+     * @return the list of isomorphisms found, each one being given as the data
+     *         node mapped to each query node
+     */
+    public List<int[]> getIsomorphisms(Int2DMatrix queryGraph, Integer maxNumIsoMorph) {
+        return getIsomorphisms(queryGraph, null, maxNumIsoMorph);
+    }
+
+    /**
+     * Finds isomorphisms (mappings) of a subgraph in the data graph. A query
+     * node can only be mapped on a data node having at least as many edges in
+     * each direction, and the same label.
+     *
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param queryLabels label of each query node, null to ignore the labels
+     * @param maxNumIsoMorph the maximum number isomorphisms to find, may return
+     *            fewer if fewer are matched, is specified.
+     * @return the list of isomorphisms found, each one being given as the data
+     *         node mapped to each query node
+     */
+    public List<int[]> getIsomorphisms(Int2DMatrix queryGraph, int[] queryLabels,
+            Integer maxNumIsoMorph) {
+
+        IsoMorphismSearch.checkSearchLimit(maxNumIsoMorph);
+        if (!queryGraph.isSquare()) {
+            throw new IllegalArgumentException("Query graph adjacency matrix is not square");
+        }
+
+        int querySize = queryGraph.getWidth();
+        if (queryLabels != null && queryLabels.length != querySize) {
+            throw new IllegalArgumentException("A label is expected for each of the "
+                    + querySize + " query nodes, got " + queryLabels.length);
+        }
+
+        List<int[]> collectedIsomorphisms = new ArrayList<>();
+
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            long[] candidates = initCandidates(queryGraph, queryLabels);
+            MappingEnumerator state = BitSetIsoMorphismSearch.createEnumerator(nodeCount, out,
+                    in, queryGraph, candidates);
+            while ((maxNumIsoMorph == null || collectedIsomorphisms.size() < maxNumIsoMorph)
+                    && state.next()) {
+                collectedIsomorphisms.add(state.currentMapping().clone());
+            }
+        } finally {
+            readLock.unlock();
+        }
+
+        return collectedIsomorphisms;
+    }
+
+    /**
+     * Computes the candidates of each query node from the indexes.
+     *
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param queryLabels label of each query node, null to ignore the labels
+     * @return candidate data nodes for each query node, row after row
+     */
+    private long[] initCandidates(Int2DMatrix queryGraph, int[] queryLabels) {
+
+        int querySize = queryGraph.getWidth();
+        int rowWords = BitSetIsoMorphismSearch.wordCount(nodeCount);
+        long[] candidates = new long[querySize * rowWords];
+
+        // Edges are the cells equal to 1, as in the data graph
+        CsrGraph query = new CsrGraph(queryGraph);
+
+        for (int row = 0; row < querySize; row++) {
+            int outDegree = query.getOutDegree(row);
+            int inDegree = query.getInDegree(row);
+
+            long[] labelNodes = queryLabels == null ? activeNodes
+                    : labelIndex.get(queryLabels[row]);
+            if (labelNodes == null) {
+                continue;
+            }
+
+            long[] degreeNodes = activeNodes;
+            if (degreeIndex != null && outDegree + inDegree > 0) {
+                int bucket = Math.min(DEGREE_BUCKETS - 1,
+                        31 - Integer.numberOfLeadingZeros(outDegree + inDegree));
+                degreeNodes = degreeIndex[bucket];
+            }
+
+            int base = row * rowWords;
+            for (int word = 0; word < rowWords; word++) {
+                long bits = labelNodes[word] & degreeNodes[word] & activeNodes[word];
+
+                // Exact degrees of the remaining nodes
+                for (long pending = bits; pending != 0; pending &= pending - 1) {
+                    int node = word * Long.SIZE + Long.numberOfTrailingZeros(pending);
+                    if (outDegrees[node] < outDegree || inDegrees[node] < inDegree) {
+                        bits &= ~(1L << node);
+                    }
+                }
+                candidates[base + word] = bits;
+            }
+        }
+        return candidates;
+    }
+
+    /** @return number of nodes, including the removed ones */
+    public int getNodeCount() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return nodeCount;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /** @return number of edges */
+    public int getEdgeCount() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return edgeCount;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * @param from source node
+     * @param to target node
+     * @return true if there is an edge from the source to the target
+     */
+    public boolean hasEdge(int from, int to) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            checkNode(from);
+            checkNode(to);
+            return BitSetIsoMorphismSearch.testBit(out[from], to);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /** @return time spent to build the indexes, in nanoseconds */
+    public long getBuildTimeNanos() {
+        return buildTimeNanos;
+    }
+
+    /**
+     * Estimates the memory used by the indexes, counting the content of the
+     * arrays only.
+     *
+     * <p>
+     * The adjacency bit sets take capacity × capacity bits in each direction,
+     * that is capacity² / 4 bytes : about 2.5 GB for 100,000 nodes. The
+     * capacity doubles when a node is added to a full graph, which makes the
+     * bit sets four times larger. While growing, the rows are copied one at a
+     * time, each previous row being released when its copy replaces it.
+     * </p>
+     *
+     * @return the estimated footprint, in bytes
+     */
+    public long getMemoryFootprint() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            long capacity = out.length;
+            long bitSetBytes = (long) words * Long.BYTES;
+
+            long footprint = 2 * capacity * bitSetBytes;
+            footprint += 3 * capacity * Integer.BYTES;
+            footprint += (1 + labelIndex.size()) * bitSetBytes;
+            if (degreeIndex != null) {
+                footprint += DEGREE_BUCKETS * bitSetBytes;
+            }
+            return footprint;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+}
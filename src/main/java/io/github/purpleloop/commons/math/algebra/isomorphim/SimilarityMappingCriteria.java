@@ -19,4 +19,66 @@ public interface SimilarityMappingCriteria {
      */
     boolean verified(Int2DMatrix queryGraph, Int2DMatrix dataGraph, int queryIndex, int dataIndex);
 
+    /**
+     * Decide if the nodes in query graph (P[p]) and in data graph (G[g]) are
+     * similar enough to be candidates for an isomorphic mapping, for graphs
+     * given in compressed sparse row format.
+     * 
+     * <p>
+     * Criteria working only on adjacency matrices do not need to implement
+     * it, but cannot be used for searches on {@link CsrGraph}, which reject
+     * them when preparing the criteria (see
+     * {@link #prepare(CsrGraph, CsrGraph)}).
+     * </p>
+     * 
+     * @param queryGraph subgraph to search for
+     * @param dataGraph the host/mother graph in which to search for a match.
+     * @param queryIndex index of a node in the query graph
+     * @param dataIndex index of a node in the data graph
+     * @return true if nodes are similar enough, false otherwise.
+     * @throws UnsupportedOperationException if the criteria does not support
+     *             graphs in compressed sparse row format
+     */
+    default boolean verified(CsrGraph queryGraph, CsrGraph dataGraph, int queryIndex,
+            int dataIndex) {
+        throw new UnsupportedOperationException(
+                "This similarity criteria does not support compressed sparse row graphs");
+    }
+
+    /**
+     * Prepares the criteria for a search, so that what it needs to know about
+     * both graphs is resolved once, and not on each pair of nodes.
+     * 
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param dataGraph Adjacency matrix of the host/mother graph in which to
+     *            search for a match.
+     * @return the criteria to use for the pairs of nodes of these graphs, this
+     *         criteria by default
+     */
+    default SimilarityMappingCriteria prepare(Int2DMatrix queryGraph, Int2DMatrix dataGraph) {
+        return this;
+    }
+
+    /**
+     * Prepares the criteria for a search on graphs given in compressed sparse
+     * row format, so that what it needs to know about both graphs is resolved
+     * once, and not on each pair of nodes.
+     * 
+     * <p>
+     * Criteria supporting these graphs must implement it with
+     * {@link #verified(CsrGraph, CsrGraph, int, int)}. By default, the
+     * criteria is rejected, before the search starts.
+     * </p>
+     * 
+     * @param queryGraph subgraph to search for
+     * @param dataGraph the host/mother graph in which to search for a match.
+     * @return the criteria to use for the pairs of nodes of these graphs
+     * @throws IllegalArgumentException if the criteria does not support graphs
+     *             in compressed sparse row format
+     */
+    default SimilarityMappingCriteria prepare(CsrGraph queryGraph, CsrGraph dataGraph) {
+        throw new IllegalArgumentException("The similarity criteria " + this
+                + " does not support compressed sparse row graphs");
+    }
+
 }
@@ -0,0 +1,708 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.github.purpleloop.commons.math.algebra.Int2DMatrix;
+
+/**
+ * A VF2++ subgraph isomorphism search, an alternative to the Ullmann-style
+ * search of {@link IsoMorphismSearch} suited for large sparse data graphs.
+ *
+ * <p>
+ * The match is grown through neighbouring nodes : query nodes are ordered by
+ * a breadth first traversal starting from the rarest node, preferring the
+ * nodes most connected to the already ordered ones, then the nodes of highest
+ * degree. Candidates for a query node are taken among the neighbours of the
+ * data node bound to an already matched neighbour, and are cut using the
+ * counts of neighbours in the frontier (terminal) sets of both graphs.
+ * </p>
+ *
+ * <p>
+ * As with {@link IsoMorphismSearch}, an isomorphism maps each edge of the
+ * query graph to an edge of the data graph. The same isomorphisms are found,
+ * but in a different order.
+ * </p>
+ *
+ * <p>
+ * Graphs are handled in compressed sparse row format ({@link CsrGraph}), so
+ * that the search works on graphs too large for adjacency matrices.
+ * </p>
+ */
+public final class Vf2IsoMorphismSearch {
+
+    /** Class logger. */
+    private static final Log LOG = LogFactory.getLog(Vf2IsoMorphismSearch.class);
+
+    /** Marker of a node that is not matched. */
+    private static final int UNMATCHED = -1;
+
+    /** Private constructor to prevent instantiation. */
+    private Vf2IsoMorphismSearch() {
+        // Nothing to do here
+    }
+
+    /** A similarity test of a query node and a data node. */
+    @FunctionalInterface
+    private interface NodeSimilarity {
+
+        /**
+         * @param queryNode a query node
+         * @param dataNode a data node
+         * @return true if the nodes are similar enough to be matched
+         */
+        boolean similar(int queryNode, int dataNode);
+    }
+
+    /** The state of a search, that enumerates the isomorphisms one by one. */
+    private static final class Matcher implements MappingEnumerator {
+
+        /** The query graph. */
+        private final CsrGraph query;
+
+        /** The data graph. */
+        private final CsrGraph data;
+
+        /** Similarity test for candidate nodes. */
+        private final NodeSimilarity similarity;
+
+        /** Query nodes in matching order. */
+        private final int[] order;
+
+        /**
+         * For each depth, the array holding the data nodes to try as
+         * candidates, null to try all the data nodes.
+         */
+        private final int[][] candidates;
+
+        /** For each depth, position of the next candidate to try. */
+        private final int[] positions;
+
+        /** For each depth, position after the last candidate to try. */
+        private final int[] limits;
+
+        /** Data node matched with each query node. */
+        private final int[] queryCore;
+
+        /** Query node matched with each data node. */
+        private final int[] dataCore;
+
+        /** Number of matched neighbours of each query node. */
+        private final int[] queryTerminal;
+
+        /** Number of matched neighbours of each data node. */
+        private final int[] dataTerminal;
+
+        /** Number of matched query nodes. */
+        private int depth;
+
+        /** True when a complete match is held by the state. */
+        private boolean matched;
+
+        /** True when the search is finished. */
+        private boolean finished;
+
+        /**
+         * Prepares a search.
+         *
+         * @param data the data graph
+         * @param query the query graph
+         * @param similarity similarity test for candidate nodes
+         */
+        private Matcher(CsrGraph data, CsrGraph query, NodeSimilarity similarity) {
+            this.data = data;
+            this.query = query;
+            this.similarity = similarity;
+
+            int querySize = query.getNodeCount();
+            this.order = computeOrder(query, computeRarities(query, data));
+            this.candidates = new int[querySize][];
+            this.positions = new int[querySize];
+            this.limits = new int[querySize];
+            this.queryCore = new int[querySize];
+            this.dataCore = new int[data.getNodeCount()];
+            this.queryTerminal = new int[querySize];
+            this.dataTerminal = new int[data.getNodeCount()];
+            Arrays.fill(queryCore, UNMATCHED);
+            Arrays.fill(dataCore, UNMATCHED);
+
+            if (querySize > 0) {
+                prepareCandidates(0);
+            }
+        }
+
+        @Override
+        public boolean next() {
+
+            if (finished) {
+                return false;
+            }
+
+            if (order.length == 0) {
+
+                // The empty query graph has a single, empty, isomorphism
+                finished = matched;
+                matched = true;
+                return !finished;
+            }
+
+            if (matched) {
+                // Backtracks from the previous isomorphism
+                matched = false;
+                depth--;
+                unmatch(order[depth]);
+            }
+
+            while (true) {
+
+                int queryNode = order[depth];
+                int dataNode = nextCandidate(queryNode);
+
+                if (dataNode != UNMATCHED) {
+
+                    match(queryNode, dataNode);
+                    depth++;
+
+                    if (depth == order.length) {
+                        matched = true;
+                        return true;
+                    }
+                    prepareCandidates(depth);
+
+                } else if (depth == 0) {
+                    finished = true;
+                    return false;
+
+                } else {
+                    depth--;
+                    unmatch(order[depth]);
+                }
+            }
+        }
+
+        /**
+         * Prepares the candidates for the query node at a given depth : the
+         * neighbours of the data node matched with its first ordered
+         * neighbour, or all the data nodes.
+         *
+         * @param level the depth
+         */
+        private void prepareCandidates(int level) {
+            candidates[level] = null;
+            positions[level] = 0;
+            limits[level] = data.getNodeCount();
+
+            int queryNode = order[level];
+            for (int previous = 0; previous < level; previous++) {
+                int parent = order[previous];
+                int image = queryCore[parent];
+                if (query.hasEdge(parent, queryNode)) {
+                    candidates[level] = data.outTargets();
+                    positions[level] = data.outOffsets()[image];
+                    limits[level] = data.outOffsets()[image + 1];
+                    return;
+                }
+                if (query.hasEdge(queryNode, parent)) {
+                    candidates[level] = data.inSources();
+                    positions[level] = data.inOffsets()[image];
+                    limits[level] = data.inOffsets()[image + 1];
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Finds the next feasible candidate for the query node at the current
+         * depth.
+         *
+         * @param queryNode the query node
+         * @return the data node, or {@link #UNMATCHED} if there is no more
+         *         candidate
+         */
+        private int nextCandidate(int queryNode) {
+            int[] levelCandidates = candidates[depth];
+
+            while (positions[depth] < limits[depth]) {
+                int position = positions[depth]++;
+                int dataNode = levelCandidates == null ? position : levelCandidates[position];
+                if (isFeasible(queryNode, dataNode)) {
+                    return dataNode;
+                }
+            }
+            return UNMATCHED;
+        }
+
+        /**
+         * Checks if a query node can be matched with a data node.
+         *
+         * @param queryNode the query node
+         * @param dataNode the data node
+         * @return true if the pair is feasible
+         */
+        private boolean isFeasible(int queryNode, int dataNode) {
+
+            if (dataCore[dataNode] != UNMATCHED) {
+                return false;
+            }
+
+            if (query.getOutDegree(queryNode) > data.getOutDegree(dataNode)
+                    || query.getInDegree(queryNode) > data.getInDegree(dataNode)) {
+                return false;
+            }
+
+            if (query.hasEdge(queryNode, queryNode) && !data.hasEdge(dataNode, dataNode)) {
+                return false;
+            }
+
+            // Edges with matched neighbours must be mapped
+            int[] queryOutOffsets = query.outOffsets();
+            int[] queryTargets = query.outTargets();
+            for (int edge = queryOutOffsets[queryNode]; edge < queryOutOffsets[queryNode
+                    + 1]; edge++) {
+                int image = queryCore[queryTargets[edge]];
+                if (image != UNMATCHED && !data.hasEdge(dataNode, image)) {
+                    return false;
+                }
+            }
+            int[] queryInOffsets = query.inOffsets();
+            int[] querySources = query.inSources();
+            for (int edge = queryInOffsets[queryNode]; edge < queryInOffsets[queryNode
+                    + 1]; edge++) {
+                int image = queryCore[querySources[edge]];
+                if (image != UNMATCHED && !data.hasEdge(image, dataNode)) {
+                    return false;
+                }
+            }
+
+            // Look ahead : unmatched neighbours must have enough images
+            return lookAhead(queryOutOffsets, queryTargets, queryNode, data.outOffsets(),
+                    data.outTargets(), dataNode)
+                    && lookAhead(queryInOffsets, querySources, queryNode, data.inOffsets(),
+                            data.inSources(), dataNode)
+                    && similarity.similar(queryNode, dataNode);
+        }
+
+        /**
+         * Compares the unmatched neighbours of a query node and of a data
+         * node, in the frontier and overall.
+         *
+         * @param queryOffsets start of the neighbours of each query node
+         * @param queryNeighbours neighbours of the query nodes
+         * @param queryNode the query node
+         * @param dataOffsets start of the neighbours of each data node
+         * @param dataNeighbours neighbours of the data nodes, through edges of
+         *            the same direction
+         * @param dataNode the data node
+         * @return true if the data node has enough unmatched neighbours
+         */
+        private boolean lookAhead(int[] queryOffsets, int[] queryNeighbours, int queryNode,
+                int[] dataOffsets, int[] dataNeighbours, int dataNode) {
+
+            int queryFrontier = 0;
+            int queryUnmatched = 0;
+            for (int edge = queryOffsets[queryNode]; edge < queryOffsets[queryNode + 1]; edge++) {
+                int neighbour = queryNeighbours[edge];
+                if (queryCore[neighbour] == UNMATCHED) {
+                    queryUnmatched++;
+                    if (queryTerminal[neighbour] > 0) {
+                        queryFrontier++;
+                    }
+                }
+            }
+
+            int dataFrontier = 0;
+            int dataUnmatched = 0;
+            for (int edge = dataOffsets[dataNode]; edge < dataOffsets[dataNode + 1]; edge++) {
+                int neighbour = dataNeighbours[edge];
+                if (dataCore[neighbour] == UNMATCHED) {
+                    dataUnmatched++;
+                    if (dataTerminal[neighbour] > 0) {
+                        dataFrontier++;
+                    }
+                }
+            }
+
+            return queryFrontier <= dataFrontier && queryUnmatched <= dataUnmatched;
+        }
+
+        /**
+         * Matches a query node with a data node.
+         *
+         * @param queryNode the query node
+         * @param dataNode the data node
+         */
+        private void match(int queryNode, int dataNode) {
+            queryCore[queryNode] = dataNode;
+            dataCore[dataNode] = queryNode;
+            updateTerminal(queryTerminal, query, queryNode, 1);
+            updateTerminal(dataTerminal, data, dataNode, 1);
+        }
+
+        /**
+         * Releases the match of a query node.
+         *
+         * @param queryNode the query node
+         */
+        private void unmatch(int queryNode) {
+            int dataNode = queryCore[queryNode];
+            updateTerminal(queryTerminal, query, queryNode, -1);
+            updateTerminal(dataTerminal, data, dataNode, -1);
+            queryCore[queryNode] = UNMATCHED;
+            dataCore[dataNode] = UNMATCHED;
+        }
+
+        /**
+         * Updates the counts of matched neighbours for the neighbours of a
+         * node.
+         *
+         * @param terminal counts of matched neighbours
+         * @param graph the graph
+         * @param node the node being matched or released
+         * @param delta 1 on match, -1 on release
+         */
+        private static void updateTerminal(int[] terminal, CsrGraph graph, int node, int delta) {
+            int[] targets = graph.outTargets();
+            for (int edge = graph.outOffsets()[node]; edge < graph.outOffsets()[node + 1]; edge++) {
+                terminal[targets[edge]] += delta;
+            }
+            int[] sources = graph.inSources();
+            for (int edge = graph.inOffsets()[node]; edge < graph.inOffsets()[node + 1]; edge++) {
+                terminal[sources[edge]] += delta;
+            }
+        }
+
+        @Override
+        public int[] currentMapping() {
+            return queryCore;
+        }
+    }
+
+    /**
+     * Computes the rarity of each query node, as the number of data nodes
+     * having enough outgoing and incoming edges to be matched with it.
+     *
+     * @param query the query graph
+     * @param data the data graph
+     * @return number of possible images of each query node
+     */
+    private static int[] computeRarities(CsrGraph query, CsrGraph data) {
+        int[] rarities = new int[query.getNodeCount()];
+        for (int queryNode = 0; queryNode < query.getNodeCount(); queryNode++) {
+            int outDegree = query.getOutDegree(queryNode);
+            int inDegree = query.getInDegree(queryNode);
+            for (int dataNode = 0; dataNode < data.getNodeCount(); dataNode++) {
+                if (data.getOutDegree(dataNode) >= outDegree
+                        && data.getInDegree(dataNode) >= inDegree) {
+                    rarities[queryNode]++;
+                }
+            }
+        }
+        return rarities;
+    }
+
+    /**
+     * Computes the VF2++ matching order of the query nodes.
+     *
+     * @param query the query graph
+     * @param rarities number of possible images of each query node
+     * @return the query nodes in matching order
+     */
+    private static int[] computeOrder(CsrGraph query, int[] rarities) {
+
+        int size = query.getNodeCount();
+        int[] order = new int[size];
+        int ordered = 0;
+
+        boolean[] visited = new boolean[size];
+        int[] connections = new int[size];
+        int[] degrees = new int[size];
+        for (int node = 0; node < size; node++) {
+            degrees[node] = query.getOutDegree(node) + query.getInDegree(node);
+        }
+
+        while (ordered < size) {
+
+            // Root of a new component : the rarest node, then of highest degree
+            int root = -1;
+            for (int node = 0; node < size; node++) {
+                if (!visited[node] && (root == -1 || rarities[node] < rarities[root]
+                        || (rarities[node] == rarities[root] && degrees[node] > degrees[root]))) {
+                    root = node;
+                }
+            }
+
+            visited[root] = true;
+            List<Integer> level = new ArrayList<>();
+            level.add(root);
+
+            // Breadth first traversal, level by level
+            while (!level.isEmpty()) {
+
+                List<Integer> nextLevel = new ArrayList<>();
+                for (int node : level) {
+                    for (int[] neighbours : new int[][] { query.getOutNeighbours(node),
+                            query.getInNeighbours(node) }) {
+                        for (int neighbour : neighbours) {
+                            if (!visited[neighbour]) {
+                                visited[neighbour] = true;
+                                nextLevel.add(neighbour);
+                            }
+                        }
+                    }
+                }
+
+                while (!level.isEmpty()) {
+                    int best = 0;
+                    for (int index = 1; index < level.size(); index++) {
+                        if (isPreferred(level.get(index), level.get(best), connections, degrees,
+                                rarities)) {
+                            best = index;
+                        }
+                    }
+
+                    int node = level.remove(best);
+                    order[ordered++] = node;
+                    for (int neighbour : query.getOutNeighbours(node)) {
+                        connections[neighbour]++;
+                    }
+                    for (int neighbour : query.getInNeighbours(node)) {
+                        connections[neighbour]++;
+                    }
+                }
+
+                level = nextLevel;
+            }
+        }
+
+        return order;
+    }
+
+    /**
+     * Compares two query nodes for the matching order.
+     *
+     * @param node a query node
+     * @param other another query node
+     * @param connections number of ordered neighbours of each node
+     * @param degrees degree of each node
+     * @param rarities number of possible images of each node
+     * @return true if the node must be ordered before the other one
+     */
+    private static boolean isPreferred(int node, int other, int[] connections, int[] degrees,
+            int[] rarities) {
+        if (connections[node] != connections[other]) {
+            return connections[node] > connections[other];
+        }
+        if (degrees[node] != degrees[other]) {
+            return degrees[node] > degrees[other];
+        }
+        return rarities[node] < rarities[other];
+    }
+
+    /**
+     * Finds isomorphisms (mappings) of a subgraph in a host/mother graph.
+     *
+     * @param dataGraph Adjacency matrix of the host/mother graph in which to
+     *            search for a match.
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param maxNumIsoMorph the maximum number isomorphisms to find, may return
+     *            fewer if fewer are matched, is specified.
+     * @param similarityCriteria a function used to determine if two nodes are
+     *            similar enough to be candidates for matching in the resulting
+     *            morphism (degree criteria by default)
+     *
+     * @return the list of morphism matrix arrays found
+     */
+    public static List<Int2DMatrix> getIsomorphicSubgraphs(Int2DMatrix dataGraph,
+            Int2DMatrix queryGraph, Integer maxNumIsoMorph,
+            SimilarityMappingCriteria similarityCriteria) {
+
+        LOG.debug("VF2++ search for isomorphisms - Preconditions checks");
+        IsoMorphismSearch.checkSearchArguments(dataGraph, queryGraph, maxNumIsoMorph);
+
+        List<Int2DMatrix> collectedIsomorphisms = new ArrayList<>();
+
+        MappingEnumerator matcher = createEnumerator(dataGraph, queryGraph, similarityCriteria);
+        while ((maxNumIsoMorph == null || collectedIsomorphisms.size() < maxNumIsoMorph)
+                && matcher.next()) {
+            collectedIsomorphisms.add(IsoMorphismSearch.toMappingMatrix(matcher.currentMapping(),
+                    dataGraph.getWidth()));
+        }
+
+        LOG.debug("VF2++ search for isomorphisms - End of search, "
+                + collectedIsomorphisms.size() + " isomorphisms found.");
+
+        return collectedIsomorphisms;
+    }
+
+    /**
+     * Enumerates lazily the isomorphisms (mappings) of a subgraph in a
+     * host/mother graph. The search advances only when the next isomorphism
+     * is requested, so the consumer can stop at any time.
+     *
+     * @param dataGraph Adjacency matrix of the host/mother graph in which to
+     *            search for a match.
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param similarityCriteria a function used to determine if two nodes are
+     *            similar enough to be candidates for matching in the resulting
+     *            morphism (degree criteria by default)
+     *
+     * @return an iterator over the isomorphisms, each one being given as the
+     *         data node mapped to each query node
+     */
+    public static Iterator<int[]> iterateIsomorphisms(Int2DMatrix dataGraph,
+            Int2DMatrix queryGraph, SimilarityMappingCriteria similarityCriteria) {
+        IsoMorphismSearch.checkSearchArguments(dataGraph, queryGraph, null);
+        return new MappingIterator(createEnumerator(dataGraph, queryGraph, similarityCriteria));
+    }
+
+    /**
+     * Streams lazily the isomorphisms (mappings) of a subgraph in a
+     * host/mother graph. The search advances only when the stream pulls the
+     * next isomorphism, so short-circuiting operations stop the search.
+     *
+     * @param dataGraph Adjacency matrix of the host/mother graph in which to
+     *            search for a match.
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param similarityCriteria a function used to determine if two nodes are
+     *            similar enough to be candidates for matching in the resulting
+     *            morphism (degree criteria by default)
+     *
+     * @return a sequential stream of the isomorphisms, each one being given as
+     *         the data node mapped to each query node
+     */
+    public static Stream<int[]> streamIsomorphisms(Int2DMatrix dataGraph,
+            Int2DMatrix queryGraph, SimilarityMappingCriteria similarityCriteria) {
+        IsoMorphismSearch.checkSearchArguments(dataGraph, queryGraph, null);
+        return MappingIterator.stream(createEnumerator(dataGraph, queryGraph, similarityCriteria));
+    }
+
+    /**
+     * Finds isomorphisms (mappings) of a subgraph in a host/mother graph, both
+     * in compressed sparse row format. No adjacency nor mapping matrix is
+     * allocated, so that large data graphs can be searched.
+     *
+     * @param dataGraph the host/mother graph in which to search for a match.
+     * @param queryGraph subgraph to search for
+     * @param maxNumIsoMorph the maximum number isomorphisms to find, may return
+     *            fewer if fewer are matched, is specified.
+     * @param similarityCriteria a function used to determine if two nodes are
+     *            similar enough to be candidates for matching in the resulting
+     *            morphism (degree criteria by default)
+     *
+     * @return the list of isomorphisms found, each one being given as the data
+     *         node mapped to each query node
+     */
+    public static List<int[]> getIsomorphisms(CsrGraph dataGraph, CsrGraph queryGraph,
+            Integer maxNumIsoMorph, SimilarityMappingCriteria similarityCriteria) {
+
+        LOG.debug("VF2++ search for isomorphisms - Preconditions checks");
+        IsoMorphismSearch.checkSearchLimit(maxNumIsoMorph);
+
+        List<int[]> collectedIsomorphisms = new ArrayList<>();
+
+        MappingEnumerator matcher = createEnumerator(dataGraph, queryGraph, similarityCriteria);
+        while ((maxNumIsoMorph == null || collectedIsomorphisms.size() < maxNumIsoMorph)
+                && matcher.next()) {
+            collectedIsomorphisms.add(matcher.currentMapping().clone());
+        }
+
+        LOG.debug("VF2++ search for isomorphisms - End of search, "
+                + collectedIsomorphisms.size() + " isomorphisms found.");
+
+        return collectedIsomorphisms;
+    }
+
+    /**
+     * Enumerates lazily the isomorphisms (mappings) of a subgraph in a
+     * host/mother graph, both in compressed sparse row format.
+     *
+     * @param dataGraph the host/mother graph in which to search for a match.
+     * @param queryGraph subgraph to search for
+     * @param similarityCriteria a function used to determine if two nodes are
+     *            similar enough to be candidates for matching in the resulting
+     *            morphism (degree criteria by default)
+     *
+     * @return an iterator over the isomorphisms, each one being given as the
+     *         data node mapped to each query node
+     */
+    public static Iterator<int[]> iterateIsomorphisms(CsrGraph dataGraph, CsrGraph queryGraph,
+            SimilarityMappingCriteria similarityCriteria) {
+        return new MappingIterator(createEnumerator(dataGraph, queryGraph, similarityCriteria));
+    }
+
+    /**
+     * Streams lazily the isomorphisms (mappings) of a subgraph in a
+     * host/mother graph, both in compressed sparse row format.
+     *
+     * @param dataGraph the host/mother graph in which to search for a match.
+     * @param queryGraph subgraph to search for
+     * @param similarityCriteria a function used to determine if two nodes are
+     *            similar enough to be candidates for matching in the resulting
+     *            morphism (degree criteria by default)
+     *
+     * @return a sequential stream of the isomorphisms, each one being given as
+     *         the data node mapped to each query node
+     */
+    public static Stream<int[]> streamIsomorphisms(CsrGraph dataGraph, CsrGraph queryGraph,
+            SimilarityMappingCriteria similarityCriteria) {
+        return MappingIterator.stream(createEnumerator(dataGraph, queryGraph, similarityCriteria));
+    }
+
+    /**
+     * Prepares a lazy search on adjacency matrices.
+     *
+     * @param dataGraph Adjacency matrix of the host/mother graph
+     * @param queryGraph Adjacency matrix of subgraph to search for
+     * @param similarityCriteria the similarity criteria (degree criteria if
+     *            null)
+     * @return the search state
+     */
+    private static MappingEnumerator createEnumerator(Int2DMatrix dataGraph,
+            Int2DMatrix queryGraph, SimilarityMappingCriteria similarityCriteria) {
+
+        // No match is possible if query graph is bigger than data graph
+        if (dataGraph.getWidth() < queryGraph.getWidth()) {
+            return IsoMorphismSearch.NO_MAPPING;
+        }
+
+        SimilarityMappingCriteria usedCriteria = similarityCriteria == null
+                ? IsoMorphismSearch.DEGREE_CRITERIA
+                : similarityCriteria.prepare(queryGraph, dataGraph);
+
+        return new Matcher(new CsrGraph(dataGraph), new CsrGraph(queryGraph),
+                (queryNode, dataNode) -> usedCriteria.verified(queryGraph, dataGraph, queryNode,
+                        dataNode));
+    }
+
+    /**
+     * Prepares a lazy search on graphs in compressed sparse row format.
+     *
+     * @param dataGraph the host/mother graph
+     * @param queryGraph subgraph to search for
+     * @param similarityCriteria the similarity criteria (degree criteria if
+     *            null)
+     * @return the search state
+     */
+    private static MappingEnumerator createEnumerator(CsrGraph dataGraph, CsrGraph queryGraph,
+            SimilarityMappingCriteria similarityCriteria) {
+
+        // No match is possible if query graph is bigger than data graph
+        if (dataGraph.getNodeCount() < queryGraph.getNodeCount()) {
+            return IsoMorphismSearch.NO_MAPPING;
+        }
+
+        SimilarityMappingCriteria usedCriteria = similarityCriteria == null
+                ? IsoMorphismSearch.DEGREE_CRITERIA
+                : similarityCriteria.prepare(queryGraph, dataGraph);
+
+        return new Matcher(dataGraph, queryGraph, (queryNode, dataNode) -> usedCriteria
+                .verified(queryGraph, dataGraph, queryNode, dataNode));
+    }
+
+}
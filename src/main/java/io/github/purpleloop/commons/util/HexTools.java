@@ -1,5 +1,7 @@
 package io.github.purpleloop.commons.util;
 
+import java.io.IOException;
+
 /** Hexadecimal tools. */
 public final class HexTools {
 
@@ -76,6 +78,22 @@ public final class HexTools {
         return hexBuilder.toString();
     }
 
+    /**
+     * Appends the hexadecimal digits of an integer value, without allocation.
+     * Negative values are written in two's complement, keeping the requested
+     * number of low digits.
+     * 
+     * @param out where to append the digits
+     * @param value integer value to convert
+     * @param digits number of requested digits, at most 8
+     * @throws IOException in case of problem when appending
+     */
+    public static void appendHex(Appendable out, int value, int digits) throws IOException {
+        for (int hexDigit = digits - 1; hexDigit >= 0; hexDigit--) {
+            out.append(HEXA.charAt((value >>> (hexDigit * 4)) & LO_MASK));
+        }
+    }
+
     /**
      * Converts a byte buffer to an hexadecimal string.
      * 
@@ -11,5 +11,6 @@ module io.github.purpleloop.commons {
     exports io.github.purpleloop.commons.xml;
 
     requires org.apache.commons.logging;
+    requires static jdk.incubator.vector;
     requires transitive java.xml;
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package io.github.purpleloop.commons.lang;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.purpleloop.commons.lang.ArrayShape.Layout;
+
+/** Tests on the ArrayShape class. */
+class ArrayShapeTest {
+
+    /** Tests the strides and indexes of the row-major layout. */
+    @Test
+    void testRowMajor() {
+        ArrayShape shape = new ArrayShape(2, 3, 4);
+        assertEquals(Layout.ROW_MAJOR, shape.getLayout());
+        assertEquals(3, shape.getDimension());
+        assertEquals(24, shape.getCellCount());
+        assertEquals(12, shape.getStride(0));
+        assertEquals(4, shape.getStride(1));
+        assertEquals(1, shape.getStride(2));
+        assertEquals(0, shape.index(0, 0, 0));
+        assertEquals(23, shape.index(1, 2, 3));
+        assertEquals(17, shape.index(1, 1, 1));
+    }
+
+    /** Tests the strides and indexes of the column-major layout. */
+    @Test
+    void testColumnMajor() {
+        ArrayShape shape = new ArrayShape(Layout.COLUMN_MAJOR, 2, 3, 4);
+        assertEquals(1, shape.getStride(0));
+        assertEquals(2, shape.getStride(1));
+        assertEquals(6, shape.getStride(2));
+        assertEquals(23, shape.index(1, 2, 3));
+        assertEquals(9, shape.index(1, 1, 1));
+    }
+
+    /** Tests that the coordinates of all the indexes are found back. */
+    @Test
+    void testCoordinates() {
+        for (Layout layout : Layout.values()) {
+            ArrayShape shape = new ArrayShape(layout, 3, 1, 4, 2);
+            int[] coords = new int[4];
+            for (int index = 0; index < shape.getCellCount(); index++) {
+                shape.coordinates(index, coords);
+                assertEquals(index, shape.index(coords));
+            }
+        }
+    }
+
+    /** Tests the invalid shapes and coordinates. */
+    @Test
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new ArrayShape());
+        assertThrows(IllegalArgumentException.class, () -> new ArrayShape(2, -1));
+        assertThrows(IllegalArgumentException.class, () -> new ArrayShape(65536, 65536));
+
+        ArrayShape shape = new ArrayShape(2, 3, 4);
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> shape.index(1, -1, 0));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> shape.index(1, 3, 0));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> shape.index(1, 2));
+        assertThrows(ArrayIndexOutOfBoundsException.class,
+                () -> shape.coordinates(24, new int[3]));
+    }
+
+    /** Tests the equality of shapes. */
+    @Test
+    void testEquals() {
+        assertEquals(new ArrayShape(2, 3), new ArrayShape(Layout.ROW_MAJOR, 2, 3));
+        assertEquals(new ArrayShape(2, 3).hashCode(), new ArrayShape(2, 3).hashCode());
+        assertNotEquals(new ArrayShape(2, 3), new ArrayShape(Layout.COLUMN_MAJOR, 2, 3));
+        assertNotEquals(new ArrayShape(2, 3), new ArrayShape(3, 2));
+        assertArrayEquals(new int[] { 2, 3 }, new ArrayShape(2, 3).getSizes());
+    }
+
+}
@@ -0,0 +1,66 @@
+package io.github.purpleloop.commons.lang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.purpleloop.commons.lang.ArrayShape.Layout;
+
+/** Tests on the flat multi-dimensional arrays. */
+class FlatArrayTest {
+
+    /**
+     * Tests the storage and retrieval of integers in a 2 x 3 x 4 array, as in
+     * {@link RecursiveArrayTest}.
+     */
+    @Test
+    void testStoreAndRetrieve() {
+        for (Layout layout : Layout.values()) {
+            FlatIntArray array = new FlatIntArray(new ArrayShape(layout, 2, 3, 4));
+            int[] coords = new int[3];
+            int value = 0;
+            for (coords[0] = 0; coords[0] < 2; coords[0]++) {
+                for (coords[1] = 0; coords[1] < 3; coords[1]++) {
+                    for (coords[2] = 0; coords[2] < 4; coords[2]++) {
+                        array.set(value++, coords);
+                    }
+                }
+            }
+
+            StringBuilder sb = new StringBuilder();
+            for (coords[2] = 0; coords[2] < 4; coords[2]++) {
+                for (coords[1] = 0; coords[1] < 3; coords[1]++) {
+                    for (coords[0] = 0; coords[0] < 2; coords[0]++) {
+                        sb.append(array.get(coords) + " ");
+                    }
+                }
+            }
+
+            assertEquals("0 12 4 16 8 20 1 13 5 17 9 21 2 14 6 18 10 22 3 15 7 19 11 23 ",
+                    sb.toString());
+        }
+    }
+
+    /** Tests the long and double arrays, and the copies. */
+    @Test
+    void testLongAndDouble() {
+        FlatLongArray longs = new FlatLongArray(2, 2, 2, 2, 2);
+        longs.fill(7L);
+        longs.set(Long.MAX_VALUE, 1, 0, 1, 0, 1);
+        FlatLongArray longsCopy = new FlatLongArray(longs);
+        longs.set(0L, 1, 0, 1, 0, 1);
+        assertEquals(Long.MAX_VALUE, longsCopy.get(1, 0, 1, 0, 1));
+        assertEquals(7L, longsCopy.get(1, 1, 1, 1, 1));
+        assertEquals(5, longsCopy.getDimension());
+
+        FlatDoubleArray doubles = new FlatDoubleArray(new ArrayShape(Layout.COLUMN_MAJOR, 3, 5));
+        assertEquals(0.0, doubles.get(2, 4));
+        doubles.set(0.5, 2, 4);
+        assertEquals(0.5, doubles.get(2, 4));
+        assertEquals(5, doubles.getSize(1));
+
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> doubles.get(3, 0));
+    }
+
+}
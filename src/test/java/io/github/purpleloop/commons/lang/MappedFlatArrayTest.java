@@ -0,0 +1,137 @@
+package io.github.purpleloop.commons.lang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.purpleloop.commons.lang.ArrayShape.Layout;
+import io.github.purpleloop.commons.lang.MappedFlatArray.ElementType;
+
+/** Tests for the memory-mapped multi-dimensional arrays. */
+class MappedFlatArrayTest {
+
+    /** Temporary directory for the array files. */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests the accesses, and that the values are kept when reopening.
+     *
+     * @throws IOException in case of problem with the file
+     */
+    @Test
+    void testPersistence() throws IOException {
+        Path path = tempDir.resolve("array.bin");
+        ArrayShape shape = new ArrayShape(Layout.COLUMN_MAJOR, 2, 3, 4, 5, 6);
+
+        try (MappedFlatArray array = MappedFlatArray.create(path, ElementType.DOUBLE, shape)) {
+            assertEquals(0.0, array.getDouble(1, 2, 3, 4, 5));
+            array.setDouble(1.25, 1, 2, 3, 4, 5);
+            array.setDouble(-3.5, 0, 0, 0, 0, 1);
+        }
+
+        // Header of 20 + 5 x 4 bytes, then 720 doubles
+        assertEquals(40 + 720 * 8, Files.size(path));
+
+        try (MappedFlatArray array = MappedFlatArray.open(path)) {
+            assertEquals(ElementType.DOUBLE, array.getElementType());
+            assertEquals(shape, array.getShape());
+            assertEquals(1.25, array.getDouble(1, 2, 3, 4, 5));
+            assertEquals(-3.5, array.getDouble(0, 0, 0, 0, 1));
+            assertThrows(ReadOnlyBufferException.class, () -> array.setDouble(0.0, 0, 0, 0, 0, 0));
+            assertThrows(UnsupportedOperationException.class, () -> array.getInt(0, 0, 0, 0, 0));
+            assertThrows(ArrayIndexOutOfBoundsException.class,
+                    () -> array.getDouble(2, 0, 0, 0, 0));
+        }
+    }
+
+    /**
+     * Tests a copy-on-write mapping, whose changes are not written to the
+     * file.
+     *
+     * @throws IOException in case of problem with the file
+     */
+    @Test
+    void testCopyOnWrite() throws IOException {
+        Path path = tempDir.resolve("array.bin");
+
+        try (MappedFlatArray array = MappedFlatArray.create(path, ElementType.INT,
+                new ArrayShape(10, 10))) {
+            array.setInt(42, 3, 7);
+        }
+
+        try (MappedFlatArray array = MappedFlatArray.open(path, MapMode.PRIVATE)) {
+            array.setInt(-1, 3, 7);
+            assertEquals(-1, array.getInt(3, 7));
+        }
+
+        try (MappedFlatArray array = MappedFlatArray.open(path)) {
+            assertEquals(42, array.getInt(3, 7));
+        }
+    }
+
+    /**
+     * Tests an array mapped in several chunks.
+     *
+     * @throws IOException in case of problem with the file
+     */
+    @Test
+    void testChunks() throws IOException {
+        Path path = tempDir.resolve("array.bin");
+        ArrayShape shape = new ArrayShape(7, 5);
+
+        MappedFlatArray.create(path, ElementType.LONG, shape).close();
+        try (MappedFlatArray array = MappedFlatArray.open(path, MapMode.READ_WRITE, 16)) {
+            for (int x = 0; x < 7; x++) {
+                for (int y = 0; y < 5; y++) {
+                    array.setLong(Long.MAX_VALUE - shape.index(x, y), x, y);
+                }
+            }
+        }
+
+        try (MappedFlatArray array = MappedFlatArray.open(path, MapMode.READ_ONLY, 24)) {
+            for (int x = 0; x < 7; x++) {
+                for (int y = 0; y < 5; y++) {
+                    assertEquals(Long.MAX_VALUE - shape.index(x, y), array.getLong(x, y));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests the files which are not array files.
+     *
+     * @throws IOException in case of problem with the file
+     */
+    @Test
+    void testInvalidFiles() throws IOException {
+        Path path = tempDir.resolve("array.bin");
+
+        Files.write(path, new byte[] { 1, 2, 3 });
+        assertThrows(IOException.class, () -> MappedFlatArray.open(path));
+
+        MappedFlatArray.create(path, ElementType.INT, new ArrayShape(4, 4)).close();
+        byte[] contents = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(contents, contents.length - 1));
+        assertThrows(IOException.class, () -> MappedFlatArray.open(path));
+
+        // Truncated to its header, the file is not silently extended
+        Files.write(path, Arrays.copyOf(contents, contents.length - 16 * Integer.BYTES));
+        assertThrows(IOException.class, () -> MappedFlatArray.open(path, MapMode.READ_WRITE));
+
+        MappedFlatArray closed = MappedFlatArray.create(path, ElementType.INT,
+                new ArrayShape(4, 4));
+        closed.close();
+        assertThrows(IllegalStateException.class, () -> closed.getInt(0, 0));
+    }
+
+}
@@ -1,13 +1,21 @@
 package io.github.purpleloop.commons.lang;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Spliterator;
 
 import org.junit.jupiter.api.Test;
 
+import io.github.purpleloop.commons.lang.RecursiveArray.LeafType;
+import io.github.purpleloop.commons.lang.RecursiveArray.Range;
+
 /** Tests on the RecursiveArray class. */
 class RecursiveArrayTest {
 
@@ -73,4 +81,242 @@ class RecursiveArrayTest {
                 sb.toString());
     }
 
+    /** Tests the primitive cells, zero until set. */
+    @Test
+    void testPrimitiveLeaves() {
+
+        List<Integer> dimensions = Arrays.asList(new Integer[] { 2, 3, 4 });
+        List<Integer> coordinates = Arrays.asList(new Integer[] { 1, 2, 3 });
+
+        RecursiveArray doubles = new RecursiveArray(dimensions, LeafType.DOUBLE);
+        assertEquals(LeafType.DOUBLE, doubles.getLeafType());
+        assertEquals(0.0, doubles.getDouble(coordinates));
+        doubles.setDouble(2.5, coordinates);
+        assertEquals(2.5, doubles.getDouble(coordinates));
+        assertEquals(Double.valueOf(2.5), doubles.getObject(coordinates));
+        doubles.setObject(Integer.valueOf(3), coordinates);
+        assertEquals(3.0, doubles.getDouble(coordinates));
+
+        RecursiveArray ints = new RecursiveArray(dimensions, LeafType.INT);
+        ints.setInt(-7, coordinates);
+        assertEquals(-7, ints.getInt(coordinates));
+        assertEquals(0, ints.getInt(Arrays.asList(new Integer[] { 0, 2, 3 })));
+        assertThrows(IllegalArgumentException.class, () -> ints.setObject("7", coordinates));
+        ints.setDouble(2.7, coordinates);
+        assertEquals(2.0, ints.getDouble(coordinates));
+        assertEquals(2L, ints.getLong(coordinates));
+
+        RecursiveArray longs = new RecursiveArray(dimensions, LeafType.LONG);
+        longs.setLong(Long.MIN_VALUE, coordinates);
+        assertEquals(Long.MIN_VALUE, longs.getLong(coordinates));
+        assertThrows(ArrayIndexOutOfBoundsException.class,
+                () -> longs.getLong(Arrays.asList(new Integer[] { 1, 2, 4 })));
+    }
+
+    /** Tests the lazy mode, where the sub arrays are created on first write. */
+    @Test
+    void testLazy() {
+
+        List<Integer> dimensions = Arrays.asList(new Integer[] { 10, 10, 10, 10, 10, 10 });
+        List<Integer> coordinates = Arrays.asList(new Integer[] { 1, 2, 3, 4, 5, 6 });
+        RecursiveArray recArray = new RecursiveArray(dimensions, LeafType.OBJECT, true);
+        assertTrue(recArray.isLazy());
+
+        assertNull(recArray.getObject(coordinates));
+        assertNull(recArray.getObject(coordinates.subList(0, 2)));
+        recArray.setObject(null, coordinates);
+        assertThrows(ArrayIndexOutOfBoundsException.class,
+                () -> recArray.getObject(Arrays.asList(new Integer[] { 1, 2, 3, 4, 5, 10 })));
+
+        recArray.setObject("first", coordinates);
+        recArray.setObject("second", Arrays.asList(new Integer[] { 9, 0, 0, 0, 0, 0 }));
+        assertEquals("first", recArray.getObject(coordinates));
+        assertEquals(10, recArray.getSubArray(5).getSize());
+
+        StringBuilder sb = new StringBuilder();
+        recArray.forEachSetCell((coords, value) -> {
+            sb.append(Arrays.toString(coords)).append('=').append(value).append(' ');
+        });
+        assertEquals("[1, 2, 3, 4, 5, 6]=first [9, 0, 0, 0, 0, 0]=second ", sb.toString());
+    }
+
+    /** Tests the lazy mode with primitive cells. */
+    @Test
+    void testLazyPrimitive() {
+
+        List<Integer> dimensions = Arrays.asList(new Integer[] { 4, 4, 4 });
+        List<Integer> coordinates = Arrays.asList(new Integer[] { 3, 2, 1 });
+        RecursiveArray recArray = new RecursiveArray(dimensions, LeafType.DOUBLE, true);
+
+        assertEquals(0.0, recArray.getDouble(coordinates));
+        assertEquals(Double.valueOf(0.0), recArray.getObject(coordinates));
+        recArray.setDouble(0.0, coordinates);
+        recArray.setDouble(1.5, coordinates);
+        recArray.setDouble(-2.0, Arrays.asList(new Integer[] { 0, 0, 3 }));
+        assertEquals(1.5, recArray.getDouble(coordinates));
+
+        List<Double> values = new ArrayList<>();
+        recArray.forEachSetCell((coords, value) -> values.add((Double) value));
+        assertEquals(List.of(-2.0, 1.5), values);
+    }
+
+    /** Tests that writing zeros of any type creates no sub array in lazy mode. */
+    @Test
+    void testLazyZeros() {
+
+        List<Integer> dimensions = Arrays.asList(new Integer[] { 2, 2 });
+        List<Integer> coordinates = Arrays.asList(new Integer[] { 1, 0 });
+
+        for (LeafType leafType : new LeafType[] { LeafType.INT, LeafType.LONG,
+                LeafType.DOUBLE }) {
+            RecursiveArray recArray = new RecursiveArray(dimensions, leafType, true);
+
+            recArray.setObject(0, coordinates);
+            recArray.setObject(0L, coordinates);
+            recArray.setObject(0.0, coordinates);
+            recArray.setInt(0, coordinates);
+            recArray.setLong(0L, coordinates);
+            recArray.setDouble(0.0, coordinates);
+            recArray.fill(recArray.range(), 0L);
+            recArray.fill(recArray.range(), 0.0);
+            recArray.map(recArray.range(), (Number value) -> 0L);
+            assertFalse(recArray.isSubArrayCreated(1), leafType.toString());
+
+            recArray.setDouble(0.5, coordinates);
+            assertEquals(leafType != LeafType.INT && leafType != LeafType.LONG,
+                    recArray.isSubArrayCreated(1), leafType.toString());
+            recArray.setLong(3L, coordinates);
+            assertTrue(recArray.isSubArrayCreated(1));
+            assertEquals(3, recArray.getInt(coordinates));
+        }
+    }
+
+    /** Tests the bulk operations on ranges and slices. */
+    @Test
+    void testBulkOperations() {
+
+        List<Integer> dimensions = Arrays.asList(new Integer[] { 2, 3, 4 });
+        RecursiveArray recArray = new RecursiveArray(dimensions, LeafType.INT);
+        Range all = recArray.range();
+        assertEquals(24, all.getCellCount());
+
+        recArray.fill(all, 1);
+        recArray.map(all.fix(1, 2), (Integer value) -> value + 2);
+        recArray.fill(all.fix(0, 1).restrict(2, 1, 3), 10);
+        assertEquals(3, recArray.getInt(Arrays.asList(new Integer[] { 0, 2, 3 })));
+        assertEquals(10, recArray.getInt(Arrays.asList(new Integer[] { 1, 2, 1 })));
+        assertEquals(3, recArray.getInt(Arrays.asList(new Integer[] { 1, 2, 0 })));
+
+        // Slice 0 : 8 x 1 + 4 x 3, slice 1 : 4 x 1 + 6 x 10 + 2 x 3
+        assertEquals(20, recArray.reduce(all.fix(0, 0), 0, Integer::sum));
+        assertEquals(70.0, recArray.reduceDouble(all.fix(0, 1), 0.0, Double::sum));
+
+        StringBuilder sb = new StringBuilder();
+        recArray.forEach(all.fix(0, 1).fix(1, 2), (coords, value) -> {
+            sb.append(Arrays.toString(coords)).append('=').append(value).append(' ');
+        });
+        assertEquals("[1, 2, 0]=3 [1, 2, 1]=10 [1, 2, 2]=10 [1, 2, 3]=3 ", sb.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> all.restrict(1, 0, 4));
+    }
+
+    /** Tests the bulk operations in lazy mode, where missing cells are default ones. */
+    @Test
+    void testLazyBulkOperations() {
+
+        List<Integer> dimensions = Arrays.asList(new Integer[] { 3, 3, 3 });
+        RecursiveArray recArray = new RecursiveArray(dimensions, LeafType.DOUBLE, true);
+        recArray.setDouble(2.0, Arrays.asList(new Integer[] { 2, 1, 0 }));
+
+        assertEquals(2.0, recArray.reduceDouble(recArray.range(), 0.0, Double::sum));
+        assertEquals(0.0, recArray.reduceDouble(recArray.range(), 1.0, Double::min));
+
+        int[] count = { 0 };
+        recArray.forEach((coords, value) -> count[0]++);
+        assertEquals(27, count[0]);
+
+        recArray.map(recArray.range(), (Double value) -> value + 1.0);
+        assertEquals(3.0, recArray.getDouble(Arrays.asList(new Integer[] { 2, 1, 0 })));
+        assertEquals(1.0, recArray.getDouble(Arrays.asList(new Integer[] { 0, 0, 0 })));
+    }
+
+    /** Tests the sequential and parallel streams on the cells. */
+    @Test
+    void testStreams() {
+
+        List<Integer> dimensions = Arrays.asList(new Integer[] { 50, 20, 10 });
+        List<Integer> coordinates = Arrays.asList(new Integer[] { 0, 0, 0 });
+        RecursiveArray recArray = new RecursiveArray(dimensions, LeafType.LONG);
+        long value = 0;
+        for (int x = 0; x < 50; x++) {
+            coordinates.set(0, x);
+            for (int y = 0; y < 20; y++) {
+                coordinates.set(1, y);
+                for (int z = 0; z < 10; z++) {
+                    coordinates.set(2, z);
+                    recArray.setLong(value++, coordinates);
+                }
+            }
+        }
+
+        assertEquals(List.of(0L, 1L, 2L),
+                recArray.stream().limit(3).map(Long.class::cast).toList());
+        assertEquals(9999L * 10000L / 2,
+                recArray.parallelStream().mapToLong(Long.class::cast).sum());
+        assertEquals(10000L, recArray.parallelStream().count());
+        assertEquals(9999L, recArray.parallelStream().skip(9999).findFirst().get());
+    }
+
+    /** Tests that map calls its function once per cell, only on the values of the cells. */
+    @Test
+    void testMapCalls() {
+
+        List<Integer> dimensions = Arrays.asList(new Integer[] { 2, 2 });
+        RecursiveArray recArray = new RecursiveArray(dimensions);
+        recArray.fill(recArray.range(), "a");
+
+        // Not null-safe, never given the default value of an eager array
+        recArray.map(recArray.range(), (String value) -> value.toUpperCase());
+        assertEquals("A", recArray.getObject(Arrays.asList(new Integer[] { 1, 1 })));
+
+        RecursiveArray ints = new RecursiveArray(Arrays.asList(new Integer[] { 2 }),
+                LeafType.INT);
+        int[] calls = { 0 };
+        ints.map(ints.range(), (Integer value) -> {
+            calls[0]++;
+            return value + 1;
+        });
+        assertEquals(2, calls[0]);
+
+        RecursiveArray lazy = new RecursiveArray(Arrays.asList(new Integer[] { 3, 2 }),
+                LeafType.INT, true);
+        lazy.setInt(5, Arrays.asList(new Integer[] { 1, 0 }));
+        calls[0] = 0;
+        lazy.map(lazy.range(), (Integer value) -> {
+            calls[0]++;
+            return value * 2;
+        });
+        assertEquals(6, calls[0]);
+        assertEquals(10, lazy.getInt(Arrays.asList(new Integer[] { 1, 0 })));
+        assertNull(lazy.getObject(Arrays.asList(new Integer[] { 2 })));
+    }
+
+    /** Tests the sizes reported by the spliterator. */
+    @Test
+    void testSpliteratorSizes() {
+
+        List<Integer> dimensions = Arrays.asList(new Integer[] { 4, 3 });
+        RecursiveArray recArray = new RecursiveArray(dimensions, LeafType.INT);
+        Spliterator<Object> spliterator = recArray.spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+        assertEquals(12, spliterator.getExactSizeIfKnown());
+
+        Spliterator<Object> prefix = spliterator.trySplit();
+        assertEquals(6, prefix.getExactSizeIfKnown());
+        prefix.tryAdvance(value -> { });
+        assertEquals(5, prefix.getExactSizeIfKnown());
+        assertEquals(6, spliterator.getExactSizeIfKnown());
+        assertEquals(12, recArray.parallelStream().toArray().length);
+    }
+
 }
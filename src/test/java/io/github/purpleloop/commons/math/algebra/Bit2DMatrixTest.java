@@ -0,0 +1,130 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for the 2D bit matrix. */
+class Bit2DMatrixTest {
+
+    // @formatter:off
+    /** Test matrix. */
+    private static final int[][] M = {
+            { 1, 0, 1, 1 },
+            { 0, 0, 0, 7 },
+            { 1, 1, 0, 1 }
+          };
+    // @formatter:on
+
+    /** Tests a simple get and set, across words. */
+    @Test
+    void testGetSet() {
+
+        Bit2DMatrix matrix = new Bit2DMatrix(130, 3);
+        matrix.set(129, 2, true);
+        matrix.set(64, 2, true);
+        assertTrue(matrix.get(129, 2));
+        assertTrue(matrix.get(64, 2));
+        assertFalse(matrix.get(65, 2));
+        assertFalse(matrix.get(129, 1));
+
+        matrix.set(64, 2, false);
+        assertFalse(matrix.get(64, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> matrix.get(130, 0));
+    }
+
+    /** Tests the conversions from and to integer matrices. */
+    @Test
+    void testConversions() {
+
+        Bit2DMatrix matrix = new Bit2DMatrix(new Int2DMatrix(M));
+        assertTrue(matrix.get(3, 1));
+        assertFalse(matrix.get(2, 1));
+        assertEquals("""
+                [
+                  [1, 0, 1, 1],
+                  [0, 0, 0, 1],
+                  [1, 1, 0, 1]
+                ]""", matrix.toPrettyString());
+    }
+
+    /** Tests the sums of rows and columns on random matrices. */
+    @Test
+    void testSums() {
+        Random random = new Random(41);
+        Int2DMatrix source = new Int2DMatrix(200, 20);
+        for (int y = 0; y < 20; y++) {
+            for (int x = 0; x < 200; x++) {
+                source.set(x, y, random.nextInt(3) == 0 ? 1 : 0);
+            }
+        }
+        Bit2DMatrix matrix = new Bit2DMatrix(source);
+
+        for (int y = 0; y < 20; y++) {
+            assertEquals(source.arraySumRow(y), matrix.arraySumRow(y));
+        }
+        for (int x = 0; x < 200; x++) {
+            assertEquals(source.arraySumColumn(x), matrix.arraySumColumn(x));
+        }
+    }
+
+    /** Tests the operations on rows. */
+    @Test
+    void testRowOperations() {
+
+        Bit2DMatrix matrix = new Bit2DMatrix(new Int2DMatrix(M));
+        assertEquals(2, matrix.intersectionCount(0, matrix, 2));
+
+        Bit2DMatrix copy = new Bit2DMatrix(matrix);
+        copy.andRow(0, matrix, 2);
+        assertEquals(2, copy.arraySumRow(0));
+        copy.orRow(0, matrix, 2);
+        assertEquals(3, copy.arraySumRow(0));
+        copy.xorRow(0, matrix, 1);
+        assertEquals(2, copy.arraySumRow(0));
+        copy.andNotRow(0, matrix, 0);
+        assertEquals(1, copy.arraySumRow(0));
+        assertTrue(copy.get(1, 0));
+        copy.clearRow(0);
+        assertEquals(0, copy.arraySumRow(0));
+
+        // The source is unchanged
+        assertEquals(3, matrix.arraySumRow(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> matrix.orRow(0, new Bit2DMatrix(5, 3), 0));
+    }
+
+    /** Tests the iteration over the set bits. */
+    @Test
+    void testIteration() {
+
+        Bit2DMatrix matrix = new Bit2DMatrix(200, 2);
+        int[] expected = { 0, 5, 63, 64, 130, 199 };
+        for (int x : expected) {
+            matrix.set(x, 1, true);
+        }
+
+        List<Integer> visited = new ArrayList<>();
+        matrix.forEachSetBit(1, visited::add);
+        assertEquals(List.of(0, 5, 63, 64, 130, 199), visited);
+
+        visited.clear();
+        for (int x = matrix.nextSetBit(1, 0); x >= 0; x = matrix.nextSetBit(1, x + 1)) {
+            visited.add(x);
+        }
+        assertEquals(List.of(0, 5, 63, 64, 130, 199), visited);
+        assertEquals(-1, matrix.nextSetBit(0, 0));
+        assertEquals(-1, matrix.nextSetBit(1, 200));
+        assertEquals(IndexOutOfBoundsException.class,
+                assertThrows(IndexOutOfBoundsException.class, () -> matrix.nextSetBit(1, -1))
+                        .getClass());
+    }
+
+}
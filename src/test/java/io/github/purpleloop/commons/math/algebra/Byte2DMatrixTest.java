@@ -1,6 +1,10 @@
 package io.github.purpleloop.commons.math.algebra;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
 
 import org.junit.jupiter.api.Test;
 
@@ -95,4 +99,23 @@ class Byte2DMatrixTest {
         String actual = matrix.hexDump();
         assertEquals("2D 48 13\n62 22 30\n", actual);
     }
+
+    /**
+     * Tests the streaming dump of a region, with negative values.
+     * 
+     * @throws IOException in case of problem
+     */
+    @Test
+    void testHexDumpRegion() throws IOException {
+
+        Byte2DMatrix matrix = new Byte2DMatrix(3, 2, DATA);
+        matrix.put(2, 1, (byte) -1);
+
+        StringWriter writer = new StringWriter();
+        matrix.hexDump(writer, 1, 0, 2, 2);
+        assertEquals("48 13\n22 FF\n", writer.toString());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> matrix.hexDump(new StringWriter(), 2, 0, 2, 1));
+    }
 }
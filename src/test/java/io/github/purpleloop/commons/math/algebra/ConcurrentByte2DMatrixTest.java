@@ -0,0 +1,157 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for the concurrent 2D byte array. */
+class ConcurrentByte2DMatrixTest {
+
+    /** Tests the single thread accesses. */
+    @Test
+    void testAccesses() {
+        ConcurrentByte2DMatrix matrix = new ConcurrentByte2DMatrix(3, 2, 4);
+        for (int y = 0; y < 2; y++) {
+            for (int x = 0; x < 3; x++) {
+                matrix.put(x, y, Byte2DMatrixTest.DATA[x][y]);
+            }
+        }
+        assertEquals(new Byte2DMatrix(3, 2, Byte2DMatrixTest.DATA).hexDump(),
+                matrix.hexDump());
+
+        assertEquals(45, matrix.getAndOr(0, 0, (byte) 2));
+        assertEquals(47, matrix.getAndAnd(0, 0, (byte) 0x0F));
+        assertEquals(15, matrix.getAndSet(0, 0, (byte) 1));
+        assertTrue(matrix.compareAndSet(0, 0, (byte) 1, (byte) 2));
+        assertFalse(matrix.compareAndSet(0, 0, (byte) 1, (byte) 3));
+        assertEquals(2, matrix.get(0, 0));
+
+        matrix.fillRow(1, (byte) 0x11);
+        matrix.orRow(1, new byte[] { 0x20, 0, 0x40 });
+        matrix.andRow(1, new byte[] { -1, 0x01, 0x50 });
+        assertEquals("02 48 13\n31 01 50\n", matrix.hexDump());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> matrix.get(3, 0));
+        assertThrows(IllegalArgumentException.class, () -> matrix.orRow(0, new byte[2]));
+    }
+
+    /** Tests that concurrent updates of the same cells are not lost. */
+    @Test
+    void testConcurrentUpdates() {
+        ConcurrentByte2DMatrix matrix = new ConcurrentByte2DMatrix(16, 16);
+        ConcurrentByte2DMatrix counter = new ConcurrentByte2DMatrix(1, 1);
+
+        // Each task sets its own bit in all the cells, and counts in the counter
+        IntStream.range(0, 8).parallel().forEach(bit -> {
+            for (int y = 0; y < 16; y++) {
+                for (int x = 0; x < 16; x++) {
+                    matrix.or(x, y, (byte) (1 << bit));
+                }
+            }
+            for (int count = 0; count < 10; count++) {
+                byte value;
+                do {
+                    value = counter.get(0, 0);
+                } while (!counter.compareAndSet(0, 0, value, (byte) (value + 1)));
+            }
+        });
+
+        Byte2DMatrix snapshot = matrix.snapshot();
+        assertEquals((byte) 0xFF, snapshot.get(15, 0));
+        assertEquals((byte) 0xFF, snapshot.get(0, 15));
+        assertEquals(80, counter.get(0, 0));
+
+        // The snapshot is independent of the array
+        matrix.put(1, 1, (byte) 0);
+        assertEquals((byte) 0xFF, snapshot.get(1, 1));
+    }
+
+    /**
+     * Tests that the snapshots never see a part of a row operation.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void testSnapshotsDuringRowOperations() throws InterruptedException {
+        ConcurrentByte2DMatrix matrix = new ConcurrentByte2DMatrix(64, 8, 2);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        Thread writer = new Thread(() -> {
+            byte value = 0;
+            while (running.get()) {
+                value++;
+                for (int y = 0; y < 8; y++) {
+                    matrix.fillRow(y, value);
+                }
+            }
+        });
+        writer.start();
+        try {
+            for (int count = 0; count < 200; count++) {
+                Byte2DMatrix snapshot = matrix.snapshot();
+                for (int y = 0; y < 8; y++) {
+                    for (int x = 1; x < 64; x++) {
+                        assertEquals(snapshot.get(0, y), snapshot.get(x, y));
+                    }
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+    /**
+     * Tests that the snapshots are consistent with the order of the cell
+     * updates. Each writer adds bits to the first cell of its row, then to
+     * the last one, and clears the last cell before the first one, so the
+     * bits of the last cell are always in the first one.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void testSnapshotsDuringCellUpdates() throws InterruptedException {
+        int width = 256;
+        int rows = 4;
+        ConcurrentByte2DMatrix matrix = new ConcurrentByte2DMatrix(width, rows);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        Thread[] writers = new Thread[rows];
+        for (int row = 0; row < rows; row++) {
+            int y = row;
+            writers[row] = new Thread(() -> {
+                while (running.get()) {
+                    for (int bit = 0; bit < 8; bit++) {
+                        matrix.or(0, y, (byte) (1 << bit));
+                        matrix.or(width - 1, y, (byte) (1 << bit));
+                    }
+                    matrix.and(width - 1, y, 0);
+                    matrix.and(0, y, 0);
+                }
+            });
+            writers[row].start();
+        }
+        try {
+            for (int count = 0; count < 500; count++) {
+                Byte2DMatrix snapshot = matrix.snapshot();
+                for (int y = 0; y < rows; y++) {
+                    byte first = snapshot.get(0, y);
+                    byte last = snapshot.get(width - 1, y);
+                    assertEquals(0, last & ~first);
+                }
+            }
+        } finally {
+            running.set(false);
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for the CSR sparse matrix. */
+class CsrIntMatrixTest {
+
+    /**
+     * @param random random generator
+     * @param width width of the matrix
+     * @param height height of the matrix
+     * @return a sparse dense matrix, a tenth of the cells being not zero
+     */
+    private static Int2DMatrix randomMatrix(Random random, int width, int height) {
+        Int2DMatrix matrix = new Int2DMatrix(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (random.nextInt(10) == 0) {
+                    matrix.set(x, y, random.nextInt(21) - 10);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /** Tests the conversions and the accesses. */
+    @Test
+    void testContents() {
+        Random random = new Random(53);
+        Int2DMatrix dense = randomMatrix(random, 70, 30);
+
+        HashSparseIntMatrixTest.assertSameContents(dense, new CsrIntMatrix(dense));
+        HashSparseIntMatrixTest.assertSameContents(dense,
+                new HashSparseIntMatrix(dense).toCsr());
+
+        Int2DMatrix identity = new Int2DMatrix(4, 4);
+        for (int index = 0; index < 4; index++) {
+            identity.set(index, index, 1);
+        }
+        assertTrue(new CsrIntMatrix(identity).isDiagonal());
+        assertThrows(UnsupportedOperationException.class,
+                () -> new CsrIntMatrix(identity).set(0, 0, 2));
+    }
+
+    /** Compares the sparse-dense products with the dense ones. */
+    @Test
+    void testProducts() {
+        Random random = new Random(59);
+        Int2DMatrix left = randomMatrix(random, 40, 25);
+        Int2DMatrix right = randomMatrix(random, 33, 40);
+        CsrIntMatrix sparse = new CsrIntMatrix(left);
+
+        assertEquals(left.multiply(right).toPrettyString(),
+                sparse.multiply(right).toPrettyString());
+
+        int[] vector = new int[40];
+        Int2DMatrix column = new Int2DMatrix(1, 40);
+        for (int index = 0; index < 40; index++) {
+            vector[index] = random.nextInt(100);
+            column.set(0, index, vector[index]);
+        }
+        Int2DMatrix expected = left.multiply(column);
+        int[] product = sparse.multiply(vector);
+        for (int index = 0; index < 25; index++) {
+            assertEquals(expected.get(0, index), product[index]);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> sparse.multiply(left));
+        assertArrayEquals(new int[0], new CsrIntMatrix(new Int2DMatrix(3, 0)).multiply(new int[3]));
+    }
+
+}
@@ -0,0 +1,99 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for the hash based sparse matrix. */
+class HashSparseIntMatrixTest {
+
+    /**
+     * Checks that a sparse matrix has the contents of a dense one.
+     *
+     * @param expected the dense matrix
+     * @param actual the sparse matrix
+     */
+    static void assertSameContents(Int2DMatrix expected, IntMatrix actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            assertEquals(expected.arraySumRow(y), actual.arraySumRow(y));
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.get(x, y), actual.get(x, y));
+            }
+        }
+        for (int x = 0; x < expected.getWidth(); x++) {
+            assertEquals(expected.arraySumColumn(x), actual.arraySumColumn(x));
+        }
+        assertEquals(expected.getNonZeroCount(), actual.getNonZeroCount());
+        assertEquals(expected.isDiagonal(), actual.isDiagonal());
+
+        Int2DMatrix visited = new Int2DMatrix(expected.getWidth(), expected.getHeight());
+        actual.forEachNonZero(visited::set);
+        assertEquals(expected.toPrettyString(), visited.toPrettyString());
+    }
+
+    /** Compares random writes, including removals, with a dense matrix. */
+    @Test
+    void testRandomWrites() {
+        Random random = new Random(47);
+        Int2DMatrix dense = new Int2DMatrix(60, 40);
+        HashSparseIntMatrix sparse = new HashSparseIntMatrix(60, 40);
+
+        for (int write = 0; write < 5000; write++) {
+            int x = random.nextInt(60);
+            int y = random.nextInt(40);
+            int value = random.nextInt(4) == 0 ? random.nextInt(1000) - 500 : 0;
+            dense.set(x, y, value);
+            sparse.set(x, y, value);
+        }
+
+        assertSameContents(dense, sparse);
+        assertSameContents(dense, new HashSparseIntMatrix(dense));
+    }
+
+    /** Tests the diagonal check and the bounds. */
+    @Test
+    void testDiagonal() {
+        HashSparseIntMatrix matrix = new HashSparseIntMatrix(3, 3);
+        assertFalse(matrix.isDiagonal());
+        for (int index = 0; index < 3; index++) {
+            matrix.set(index, index, index + 1);
+        }
+        assertTrue(matrix.isDiagonal());
+
+        matrix.set(0, 2, 5);
+        assertFalse(matrix.isDiagonal());
+        matrix.set(0, 2, 0);
+        assertTrue(matrix.isDiagonal());
+        assertEquals(3, matrix.getNonZeroCount());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> matrix.set(3, 0, 1));
+        assertFalse(new HashSparseIntMatrix(3, 2).isDiagonal());
+    }
+
+    /** Tests the bounds of the row and column sums. */
+    @Test
+    void testSumBounds() {
+        HashSparseIntMatrix matrix = new HashSparseIntMatrix(3, 2);
+        matrix.set(2, 1, 4);
+        assertEquals(4, matrix.arraySumRow(1));
+        assertEquals(4, matrix.arraySumColumn(2));
+
+        assertEquals(IndexOutOfBoundsException.class,
+                assertThrows(IndexOutOfBoundsException.class, () -> matrix.arraySumRow(2))
+                        .getClass());
+        assertEquals(IndexOutOfBoundsException.class,
+                assertThrows(IndexOutOfBoundsException.class, () -> matrix.arraySumColumn(-1))
+                        .getClass());
+
+        // The columns of a matrix without rows are valid
+        assertEquals(0, new HashSparseIntMatrix(3, 0).arraySumColumn(1));
+    }
+
+}
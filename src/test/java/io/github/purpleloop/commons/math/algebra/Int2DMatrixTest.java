@@ -2,8 +2,12 @@ package io.github.purpleloop.commons.math.algebra;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 import org.junit.jupiter.api.Test;
 
 /** Tests for the 2D int array. */
@@ -115,4 +119,254 @@ public class Int2DMatrixTest {
                 ]""", matrix.toPrettyString());
     }
 
+    /**
+     * Copies a matrix in the given storage order.
+     * 
+     * @param source the source matrix
+     * @param order the storage order of the copy
+     * @return the copy
+     */
+    private static Int2DMatrix copy(Int2DMatrix source, StorageOrder order) {
+        Int2DMatrix copy = new Int2DMatrix(source.getWidth(), source.getHeight(), order);
+        copy.copyFrom(source);
+        return copy;
+    }
+
+    /** Tests that both storage orders give the same views of the matrix. */
+    @Test
+    void testStorageOrders() {
+
+        Int2DMatrix matrix = copy(new Int2DMatrix(M), StorageOrder.COLUMN_MAJOR);
+        assertEquals(StorageOrder.COLUMN_MAJOR, matrix.getStorageOrder());
+        assertEquals(12, matrix.get(3, 2));
+        assertEquals(26, matrix.arraySumRow(1));
+        assertEquals(24, matrix.arraySumColumn(3));
+        assertEquals(new Int2DMatrix(M).toPrettyString(), matrix.toPrettyString());
+        assertTrue(copy(new Int2DMatrix(DIAGONAL), StorageOrder.COLUMN_MAJOR).isDiagonal());
+        assertFalse(copy(new Int2DMatrix(TRIANGULAR), StorageOrder.COLUMN_MAJOR).isDiagonal());
+    }
+
+    /** Tests that a copy is independent of its source. */
+    @Test
+    void testCopy() {
+
+        Int2DMatrix source = new Int2DMatrix(M);
+        Int2DMatrix copy = new Int2DMatrix(source);
+        copy.set(0, 0, 100);
+        assertEquals(1, source.get(0, 0));
+        assertEquals(source.arraySumRow(2), copy.arraySumRow(2));
+
+        Int2DMatrix other = new Int2DMatrix(3, 3);
+        assertThrows(IllegalArgumentException.class, () -> other.copyFrom(source));
+    }
+
+    /** Tests the filling of rows and columns, in both storage orders. */
+    @Test
+    void testFill() {
+
+        for (StorageOrder order : StorageOrder.values()) {
+            Int2DMatrix matrix = copy(new Int2DMatrix(M), order);
+            matrix.fillRow(1, 0);
+            matrix.fillColumn(2, 1);
+            assertEquals(3, matrix.arraySumColumn(2));
+            assertEquals(1, matrix.arraySumRow(1));
+            assertEquals(1 + 2 + 1 + 4, matrix.arraySumRow(0));
+
+            matrix.fill(2);
+            assertEquals(8, matrix.arraySumRow(2));
+        }
+    }
+
+    /** Tests the copy of row ranges, in all combinations of storage orders. */
+    @Test
+    void testCopyRowRange() {
+
+        for (StorageOrder sourceOrder : StorageOrder.values()) {
+            for (StorageOrder targetOrder : StorageOrder.values()) {
+                Int2DMatrix source = copy(new Int2DMatrix(M), sourceOrder);
+                Int2DMatrix target = new Int2DMatrix(4, 4, targetOrder);
+                target.copyRowRange(source, 1, 2, 2);
+                assertEquals(0, target.arraySumRow(1));
+                assertEquals(26, target.arraySumRow(2));
+                assertEquals(42, target.arraySumRow(3));
+                assertEquals(11, target.get(2, 3));
+            }
+        }
+
+        // Overlapping ranges in the same matrix
+        Int2DMatrix matrix = new Int2DMatrix(M);
+        matrix.copyRowRange(matrix, 0, 1, 2);
+        assertEquals(10, matrix.arraySumRow(1));
+        assertEquals(26, matrix.arraySumRow(2));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> matrix.copyRowRange(matrix, 2, 0, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> matrix.copyRowRange(new Int2DMatrix(3, 3), 0, 0, 1));
+    }
+
+    /** Tests the lanewise operations. */
+    @Test
+    void testLanewiseOperations() {
+
+        Int2DMatrix matrix = new Int2DMatrix(M);
+        Int2DMatrix columnMajor = copy(matrix, StorageOrder.COLUMN_MAJOR);
+
+        Int2DMatrix sum = matrix.add(columnMajor);
+        assertEquals(StorageOrder.ROW_MAJOR, sum.getStorageOrder());
+        assertEquals(24, sum.get(3, 2));
+        assertEquals(84, sum.arraySumRow(2));
+
+        assertEquals(34, columnMajor.add(2).arraySumRow(1));
+        assertEquals(30, columnMajor.multiply(3).get(1, 2));
+        assertEquals(1, matrix.get(0, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> matrix.add(new Int2DMatrix(3, 4)));
+    }
+
+    /** Tests the transposition, in both storage orders. */
+    @Test
+    void testTranspose() {
+
+        for (StorageOrder order : StorageOrder.values()) {
+            Int2DMatrix transposed = copy(new Int2DMatrix(M), order).transpose();
+            assertEquals(3, transposed.getWidth());
+            assertEquals(4, transposed.getHeight());
+            assertEquals(12, transposed.get(2, 3));
+            assertEquals(7, transposed.get(1, 2));
+            assertEquals(15, transposed.arraySumRow(0));
+        }
+    }
+
+    /** Tests the matrix product. */
+    @Test
+    void testMultiply() {
+
+        Int2DMatrix matrix = new Int2DMatrix(M);
+        Int2DMatrix product = matrix.multiply(matrix.transpose());
+
+        // @formatter:off
+        assertEquals(new Int2DMatrix(new int[][] {
+            { 30, 70, 110 },
+            { 70, 174, 278 },
+            { 110, 278, 446 }
+          }).toPrettyString(), product.toPrettyString());
+        // @formatter:on
+
+        Int2DMatrix diagonal = copy(new Int2DMatrix(DIAGONAL), StorageOrder.COLUMN_MAJOR);
+        assertEquals(21, matrix.multiply(diagonal).get(2, 1));
+        assertThrows(IllegalArgumentException.class, () -> matrix.multiply(matrix));
+    }
+
+    /** Tests the boolean product, on the paths of a graph. */
+    @Test
+    void testBooleanProduct() {
+
+        // Edges 0 -> 1, 1 -> 2, 1 -> 3, 2 -> 3
+        // @formatter:off
+        Int2DMatrix adjacency = new Int2DMatrix(new int[][] {
+            { 0, 1, 0, 0 },
+            { 0, 0, 1, 5 },
+            { 0, 0, 0, 1 },
+            { 0, 0, 0, 0 }
+          });
+
+        assertEquals(new Int2DMatrix(new int[][] {
+            { 0, 0, 1, 1 },
+            { 0, 0, 0, 1 },
+            { 0, 0, 0, 0 },
+            { 0, 0, 0, 0 }
+          }).toPrettyString(), adjacency.booleanProduct(adjacency).toPrettyString());
+        // @formatter:on
+    }
+
+    /**
+     * Tests the streaming rendering of a region, with extreme values.
+     * 
+     * @throws IOException in case of problem
+     */
+    @Test
+    void testToPrettyStringRegion() throws IOException {
+
+        Int2DMatrix matrix = new Int2DMatrix(M);
+        matrix.set(1, 1, Integer.MIN_VALUE);
+        matrix.set(2, 2, -40);
+
+        StringWriter writer = new StringWriter();
+        matrix.toPrettyString(writer, 1, 1, 2, 2);
+        assertEquals("""
+                [
+                  [-2147483648, 7],
+                  [10, -40]
+                ]""", writer.toString());
+
+        writer = new StringWriter();
+        matrix.toPrettyString(writer);
+        assertEquals(matrix.toPrettyString(), writer.toString());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> matrix.toPrettyString(new StringWriter(), 0, 2, 1, 2));
+    }
+
+    /**
+     * Checks that the maintained aggregates of a matrix are the computed ones.
+     * 
+     * @param matrix a matrix maintaining its aggregates
+     */
+    private static void assertAggregates(Int2DMatrix matrix) {
+        Int2DMatrix computed = new Int2DMatrix(matrix);
+        computed.setAggregatesMaintained(false);
+
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            assertEquals(computed.arraySumRow(y), matrix.arraySumRow(y));
+        }
+        for (int x = 0; x < matrix.getWidth(); x++) {
+            assertEquals(computed.arraySumColumn(x), matrix.arraySumColumn(x));
+        }
+        assertEquals(computed.getNonZeroCount(), matrix.getNonZeroCount());
+        assertEquals(computed.isDiagonal(), matrix.isDiagonal());
+    }
+
+    /** Tests the aggregates maintained on each modification. */
+    @Test
+    void testMaintainedAggregates() {
+
+        for (StorageOrder order : StorageOrder.values()) {
+            Int2DMatrix matrix = copy(new Int2DMatrix(TRIANGULAR), order);
+            matrix.setAggregatesMaintained(true);
+            assertTrue(matrix.isAggregatesMaintained());
+            assertEquals(24, matrix.arraySumRow(3));
+            assertEquals(17, matrix.arraySumColumn(0));
+            assertEquals(10, matrix.getNonZeroCount());
+            assertFalse(matrix.isDiagonal());
+
+            matrix.set(0, 1, 0);
+            matrix.set(0, 2, 0);
+            matrix.set(1, 2, 0);
+            matrix.fillRow(3, 0);
+            matrix.set(3, 3, 4);
+            assertTrue(matrix.isDiagonal());
+            assertEquals(2, matrix.arraySumRow(1));
+            assertEquals(4, matrix.getNonZeroCount());
+            assertAggregates(matrix);
+
+            matrix.fillColumn(2, -1);
+            assertAggregates(matrix);
+            matrix.copyRowRange(matrix, 0, 1, 3);
+            assertAggregates(matrix);
+            matrix.copyFrom(new Int2DMatrix(DIAGONAL));
+            assertTrue(matrix.isDiagonal());
+            assertAggregates(matrix);
+            matrix.fill(3);
+            assertEquals(12, matrix.arraySumColumn(1));
+            assertAggregates(matrix);
+
+            Int2DMatrix copy = new Int2DMatrix(matrix);
+            assertTrue(copy.isAggregatesMaintained());
+            copy.set(1, 1, 0);
+            assertEquals(9, copy.arraySumRow(1));
+            assertEquals(12, matrix.arraySumRow(1));
+        }
+    }
+
 }
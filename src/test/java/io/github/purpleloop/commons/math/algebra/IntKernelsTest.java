@@ -0,0 +1,85 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests of the matrix kernels. */
+class IntKernelsTest {
+
+    /**
+     * @param random random generator
+     * @param length length of the array
+     * @param bound exclusive upper bound of the values
+     * @return an array of random values, a third of them being zeros
+     */
+    private static int[] randomArray(Random random, int length, int bound) {
+        int[] array = new int[length];
+        for (int index = 0; index < length; index++) {
+            array[index] = random.nextInt(3) == 0 ? 0 : random.nextInt(bound) - bound / 2;
+        }
+        return array;
+    }
+
+    /** Checks that the vectorized kernels are the ones used by the tests. */
+    @Test
+    void testVectorKernelSelected() {
+        assertTrue(IntKernels.isVectorApiAvailable());
+        assertInstanceOf(VectorIntKernel.class, IntKernels.get());
+    }
+
+    /**
+     * Compares the vectorized kernels with the scalar ones, on sizes that are
+     * not multiples of the vector length.
+     */
+    @Test
+    void testSameResults() {
+        IntKernel scalar = new ScalarIntKernel();
+        IntKernel vector = new VectorIntKernel();
+        Random random = new Random(31);
+
+        for (int run = 0; run < 20; run++) {
+            int rows = 1 + random.nextInt(40);
+            int inner = 1 + random.nextInt(40);
+            int columns = 1 + random.nextInt(40);
+            int[] a = randomArray(random, rows * inner, 1000);
+            int[] b = randomArray(random, inner * columns, 1000);
+            int[] c = randomArray(random, rows * inner, Integer.MAX_VALUE);
+
+            int[] expected = new int[a.length];
+            int[] actual = new int[a.length];
+            scalar.add(a, c, expected);
+            vector.add(a, c, actual);
+            assertArrayEquals(expected, actual);
+
+            scalar.add(a, run, expected);
+            vector.add(a, run, actual);
+            assertArrayEquals(expected, actual);
+
+            scalar.multiply(c, run, expected);
+            vector.multiply(c, run, actual);
+            assertArrayEquals(expected, actual);
+
+            scalar.multiplyAdd(run - 10, c, 1, expected, 0, a.length - 1);
+            vector.multiplyAdd(run - 10, c, 1, actual, 0, a.length - 1);
+            assertArrayEquals(expected, actual);
+
+            expected = new int[rows * columns];
+            actual = new int[rows * columns];
+            scalar.multiply(a, b, expected, rows, inner, columns);
+            vector.multiply(a, b, actual, rows, inner, columns);
+            assertArrayEquals(expected, actual);
+
+            expected = new int[rows * columns];
+            actual = new int[rows * columns];
+            scalar.booleanProduct(a, b, expected, rows, inner, columns);
+            vector.booleanProduct(a, b, actual, rows, inner, columns);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+}
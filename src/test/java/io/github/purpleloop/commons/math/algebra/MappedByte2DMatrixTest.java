@@ -0,0 +1,139 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests for the memory-mapped 2D byte array. */
+class MappedByte2DMatrixTest {
+
+    /** Temporary directory for the matrix files. */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests the accesses, and that the contents are kept when reopening.
+     *
+     * @throws IOException in case of problem with the file
+     */
+    @Test
+    void testPersistence() throws IOException {
+        Path path = tempDir.resolve("matrix.bin");
+        Byte2DMatrix heap = new Byte2DMatrix(3, 2, Byte2DMatrixTest.DATA);
+
+        try (MappedByte2DMatrix matrix = MappedByte2DMatrix.create(path, 3, 2)) {
+            assertEquals(0, matrix.get(2, 1));
+            for (int y = 0; y < 2; y++) {
+                for (int x = 0; x < 3; x++) {
+                    matrix.put(x, y, heap.get(x, y));
+                }
+            }
+            matrix.or(0, 0, (byte) 2);
+            matrix.and(1, 1, 0x0F);
+        }
+        assertEquals(MappedByte2DMatrix.HEADER_SIZE + 6, Files.size(path));
+
+        heap.or(0, 0, (byte) 2);
+        heap.and(1, 1, 0x0F);
+        try (MappedByte2DMatrix matrix = MappedByte2DMatrix.open(path)) {
+            assertEquals(3, matrix.getWidth());
+            assertEquals(2, matrix.getHeight());
+            assertEquals(47, matrix.get(0, 0));
+            assertEquals(heap.hexDump(), matrix.hexDump());
+            assertThrows(IndexOutOfBoundsException.class, () -> matrix.get(3, 0));
+        }
+    }
+
+    /**
+     * Tests a matrix mapped in several chunks.
+     *
+     * @throws IOException in case of problem with the file
+     */
+    @Test
+    void testChunks() throws IOException {
+        Path path = tempDir.resolve("chunks.bin");
+        MappedByte2DMatrix.create(path, 10, 10).close();
+
+        try (MappedByte2DMatrix matrix = MappedByte2DMatrix.open(path, MapMode.READ_WRITE, 7)) {
+            for (int y = 0; y < 10; y++) {
+                for (int x = 0; x < 10; x++) {
+                    matrix.put(x, y, (byte) (x * 10 + y));
+                }
+            }
+        }
+        try (MappedByte2DMatrix matrix = MappedByte2DMatrix.open(path, MapMode.READ_ONLY, 64)) {
+            for (int y = 0; y < 10; y++) {
+                for (int x = 0; x < 10; x++) {
+                    assertEquals(x * 10 + y, matrix.get(x, y));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests the read-only and the copy-on-write mappings.
+     *
+     * @throws IOException in case of problem with the file
+     */
+    @Test
+    void testMapModes() throws IOException {
+        Path path = tempDir.resolve("modes.bin");
+        try (MappedByte2DMatrix matrix = MappedByte2DMatrix.create(path, 4, 3)) {
+            matrix.put(2, 1, (byte) 42);
+        }
+
+        assertTrue(path.toFile().setReadOnly());
+        try (MappedByte2DMatrix matrix = MappedByte2DMatrix.open(path, MapMode.READ_ONLY)) {
+            assertEquals(42, matrix.get(2, 1));
+            assertThrows(ReadOnlyBufferException.class, () -> matrix.put(2, 1, (byte) 0));
+        }
+        assertTrue(path.toFile().setWritable(true));
+
+        try (MappedByte2DMatrix matrix = MappedByte2DMatrix.open(path, MapMode.PRIVATE)) {
+            matrix.put(2, 1, (byte) -1);
+            assertEquals(-1, matrix.get(2, 1));
+        }
+        try (MappedByte2DMatrix matrix = MappedByte2DMatrix.open(path, MapMode.READ_ONLY)) {
+            assertEquals(42, matrix.get(2, 1));
+        }
+    }
+
+    /**
+     * Tests the invalid files and the closed matrices.
+     *
+     * @throws IOException in case of problem with the file
+     */
+    @Test
+    void testInvalidFiles() throws IOException {
+        Path notMatrix = tempDir.resolve("text.txt");
+        Files.writeString(notMatrix, "Not a matrix file");
+        assertThrows(IOException.class, () -> MappedByte2DMatrix.open(notMatrix));
+
+        Path truncated = tempDir.resolve("truncated.bin");
+        MappedByte2DMatrix.create(truncated, 100, 100).close();
+        byte[] contents = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(contents, 200));
+        assertThrows(IOException.class, () -> MappedByte2DMatrix.open(truncated));
+
+        // Truncated to its header, the file is not silently extended
+        Files.write(truncated, Arrays.copyOf(contents, MappedByte2DMatrix.HEADER_SIZE));
+        assertThrows(IOException.class, () -> MappedByte2DMatrix.open(truncated));
+        assertEquals(MappedByte2DMatrix.HEADER_SIZE, Files.size(truncated));
+
+        MappedByte2DMatrix closed = MappedByte2DMatrix.create(tempDir.resolve("closed.bin"), 2,
+                2);
+        closed.close();
+        assertThrows(IllegalStateException.class, () -> closed.get(0, 0));
+    }
+
+}
@@ -0,0 +1,216 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.purpleloop.commons.math.algebra.MatrixCodec.Compression;
+
+/** Tests of the binary format of the matrices. */
+class MatrixCodecTest {
+
+    /** Temporary directory for the matrix files. */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Writes an integer matrix to a byte array.
+     *
+     * @param codec the codec
+     * @param matrix the matrix to write
+     * @return the written bytes
+     * @throws IOException in case of problem when writing
+     */
+    private static byte[] write(MatrixCodec codec, Int2DMatrix matrix) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(matrix, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes a byte matrix to a byte array.
+     *
+     * @param codec the codec
+     * @param matrix the matrix to write
+     * @return the written bytes
+     * @throws IOException in case of problem when writing
+     */
+    private static byte[] write(MatrixCodec codec, Byte2DMatrix matrix) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(matrix, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    /**
+     * @param bytes written bytes
+     * @return the integer matrix read
+     * @throws IOException in case of problem when reading
+     */
+    private static Int2DMatrix readInt(byte[] bytes) throws IOException {
+        return MatrixCodec.readInt2DMatrix(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    /**
+     * @param bytes written bytes
+     * @return the byte matrix read
+     * @throws IOException in case of problem when reading
+     */
+    private static Byte2DMatrix readByte(byte[] bytes) throws IOException {
+        return MatrixCodec.readByte2DMatrix(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    /**
+     * @param random random generator
+     * @param order storage order
+     * @return a sparse matrix of random values, larger than the buffers
+     */
+    private static Int2DMatrix sparseMatrix(Random random, StorageOrder order) {
+        Int2DMatrix matrix = new Int2DMatrix(150, 130, order);
+        for (int cell = 0; cell < 500; cell++) {
+            matrix.set(random.nextInt(150), random.nextInt(130), random.nextInt());
+        }
+        return matrix;
+    }
+
+    /**
+     * Tests the round trips of integer matrices, in all the combinations of
+     * options.
+     *
+     * @throws IOException in case of problem
+     */
+    @Test
+    void testIntRoundTrips() throws IOException {
+        Random random = new Random(43);
+
+        for (StorageOrder order : StorageOrder.values()) {
+            Int2DMatrix matrix = sparseMatrix(random, order);
+            for (Compression compression : Compression.values()) {
+                for (boolean checksum : new boolean[] { false, true }) {
+                    byte[] bytes = write(new MatrixCodec(compression, checksum), matrix);
+                    Int2DMatrix read = readInt(bytes);
+                    assertEquals(order, read.getStorageOrder());
+                    assertEquals(matrix.toPrettyString(), read.toPrettyString());
+                }
+            }
+        }
+
+        // Runs are much more compact on sparse matrices
+        Int2DMatrix matrix = sparseMatrix(random, StorageOrder.ROW_MAJOR);
+        assertTrue(write(new MatrixCodec(Compression.RUN_LENGTH, false), matrix).length
+                * 4 < write(MatrixCodec.DEFAULT, matrix).length);
+    }
+
+    /**
+     * Tests the round trips of byte matrices, on the heap and mapped.
+     *
+     * @throws IOException in case of problem
+     */
+    @Test
+    void testByteRoundTrips() throws IOException {
+        Byte2DMatrix heap = new Byte2DMatrix(3, 2, Byte2DMatrixTest.DATA);
+
+        try (MappedByte2DMatrix mapped = MappedByte2DMatrix.create(tempDir.resolve("m.bin"), 3,
+                2)) {
+            for (int y = 0; y < 2; y++) {
+                for (int x = 0; x < 3; x++) {
+                    mapped.put(x, y, heap.get(x, y));
+                }
+            }
+
+            for (Compression compression : Compression.values()) {
+                MatrixCodec codec = new MatrixCodec(compression, true);
+                assertEquals(heap.hexDump(), readByte(write(codec, heap)).hexDump());
+                assertEquals(heap.hexDump(), readByte(write(codec, mapped)).hexDump());
+            }
+        }
+    }
+
+    /**
+     * Tests that corrupted or unexpected data is rejected.
+     *
+     * @throws IOException in case of problem
+     */
+    @Test
+    void testInvalidData() throws IOException {
+        Int2DMatrix matrix = new Int2DMatrix(new int[][] { { 1, 2 }, { 3, 4 } });
+
+        byte[] bytes = write(MatrixCodec.DEFAULT, matrix);
+        assertEquals(MatrixCodec.HEADER_SIZE + 4 * Integer.BYTES + Integer.BYTES, bytes.length);
+        bytes[MatrixCodec.HEADER_SIZE + 5]++;
+        assertThrows(IOException.class, () -> readInt(bytes));
+
+        byte[] truncated = write(new MatrixCodec(Compression.RUN_LENGTH, false), matrix);
+        assertThrows(IOException.class,
+                () -> readInt(Arrays.copyOf(truncated, truncated.length - 1)));
+
+        byte[] intBytes = write(MatrixCodec.DEFAULT, matrix);
+        assertThrows(IOException.class, () -> readByte(intBytes));
+        assertThrows(IOException.class, () -> readInt(new byte[MatrixCodec.HEADER_SIZE]));
+    }
+
+    /**
+     * Changes the dimensions and the payload length in the header of written
+     * bytes.
+     *
+     * @param bytes written bytes
+     * @param width new width
+     * @param height new height
+     * @param payloadLength new length of the payload
+     * @return the corrupted bytes
+     */
+    private static byte[] withHeader(byte[] bytes, int width, int height, long payloadLength) {
+        byte[] corrupted = bytes.clone();
+        ByteBuffer.wrap(corrupted).order(ByteOrder.LITTLE_ENDIAN).putInt(12, width)
+                .putInt(16, height).putLong(20, payloadLength);
+        return corrupted;
+    }
+
+    /**
+     * Tests that corrupted headers are rejected before allocating the matrix.
+     *
+     * @throws IOException in case of problem
+     */
+    @Test
+    void testCorruptedHeaders() throws IOException {
+        Int2DMatrix matrix = new Int2DMatrix(new int[][] { { 1, 2 }, { 3, 4 } });
+        byte[] raw = write(MatrixCodec.DEFAULT, matrix);
+        byte[] runs = write(new MatrixCodec(Compression.RUN_LENGTH, false), matrix);
+        long runsLength = runs.length - MatrixCodec.HEADER_SIZE;
+
+        // Too many cells, whatever the payload
+        assertThrows(IOException.class,
+                () -> readInt(withHeader(raw, 1 << 20, 1 << 20, 16)));
+        assertThrows(IOException.class,
+                () -> readByte(withHeader(raw, 1 << 20, 1 << 20, 16)));
+
+        // Raw payload not matching the dimensions
+        assertThrows(IOException.class, () -> readInt(withHeader(raw, 30_000, 30_000, 16)));
+        assertThrows(IOException.class, () -> readInt(withHeader(raw, 2, 2, 12)));
+
+        // Runs not matching the dimensions
+        assertThrows(IOException.class,
+                () -> readInt(withHeader(runs, 30_000, 30_000, runsLength + 1)));
+        assertThrows(IOException.class, () -> readInt(withHeader(runs, 1, 1, 8 * 2)));
+        assertThrows(IOException.class, () -> readInt(withHeader(runs, 2, 2, 0)));
+        assertThrows(IOException.class, () -> readInt(withHeader(runs, 2, 2, 1L << 40)));
+
+        // Missing runs are detected before allocating the matrix
+        assertThrows(IOException.class,
+                () -> readInt(withHeader(runs, 30_000, 30_000, runsLength + 8)));
+        assertEquals(matrix.toPrettyString(), readInt(runs).toPrettyString());
+    }
+
+}
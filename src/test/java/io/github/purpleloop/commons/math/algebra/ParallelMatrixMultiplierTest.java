@@ -0,0 +1,127 @@
+package io.github.purpleloop.commons.math.algebra;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests of the parallel matrix multiplier. */
+class ParallelMatrixMultiplierTest {
+
+    /**
+     * @param random random generator
+     * @param width width of the matrix
+     * @param height height of the matrix
+     * @param order storage order of the matrix
+     * @return a matrix of small random values
+     */
+    private static Int2DMatrix randomMatrix(Random random, int width, int height,
+            StorageOrder order) {
+        Int2DMatrix matrix = new Int2DMatrix(width, height, order);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                matrix.set(x, y, random.nextInt(21) - 10);
+            }
+        }
+        return matrix;
+    }
+
+    /** Compares the blocked products with the simple ones. */
+    @Test
+    void testSameResults() {
+        Random random = new Random(37);
+        ForkJoinPool pool = new ForkJoinPool(3);
+
+        try {
+            for (int tileSize : new int[] { 1, 7, 16, 64 }) {
+                ParallelMatrixMultiplier multiplier = new ParallelMatrixMultiplier(tileSize,
+                        pool);
+                for (int run = 0; run < 5; run++) {
+                    int rows = 1 + random.nextInt(150);
+                    int inner = 1 + random.nextInt(150);
+                    int columns = 1 + random.nextInt(150);
+                    Int2DMatrix left = randomMatrix(random, inner, rows, StorageOrder.ROW_MAJOR);
+                    Int2DMatrix right = randomMatrix(random, columns, inner,
+                            StorageOrder.values()[run % 2]);
+
+                    assertEquals(left.multiply(right).toPrettyString(),
+                            multiplier.multiply(left, right).toPrettyString());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Tests that the matrices shorter than a tile are split between threads. */
+    @Test
+    void testBlockHeight() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            ParallelMatrixMultiplier multiplier = new ParallelMatrixMultiplier(256, pool);
+            assertEquals(256, multiplier.blockHeight(4096));
+            assertEquals(25, multiplier.blockHeight(100));
+            assertEquals(1, multiplier.blockHeight(3));
+            assertEquals(1, multiplier.blockHeight(0));
+
+            Random random = new Random(41);
+            Int2DMatrix left = randomMatrix(random, 300, 10, StorageOrder.ROW_MAJOR);
+            Int2DMatrix right = randomMatrix(random, 20, 300, StorageOrder.ROW_MAJOR);
+            assertEquals(left.multiply(right).toPrettyString(),
+                    multiplier.multiply(left, right).toPrettyString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Tests the powers, counting the paths in a cycle with a chord. */
+    @Test
+    void testPower() {
+
+        // Cycle 0 -> 1 -> 2 -> 3 -> 0, with a chord 0 -> 2
+        // @formatter:off
+        Int2DMatrix adjacency = new Int2DMatrix(new int[][] {
+            { 0, 1, 1, 0 },
+            { 0, 0, 1, 0 },
+            { 0, 0, 0, 1 },
+            { 1, 0, 0, 0 }
+          });
+        // @formatter:on
+
+        ParallelMatrixMultiplier multiplier = new ParallelMatrixMultiplier(2,
+                ForkJoinPool.commonPool());
+        assertEquals(new Int2DMatrix(new int[][] { { 1, 0, 0, 0 }, { 0, 1, 0, 0 },
+                { 0, 0, 1, 0 }, { 0, 0, 0, 1 } }).toPrettyString(),
+                multiplier.power(adjacency, 0).toPrettyString());
+        assertEquals(adjacency.toPrettyString(), multiplier.power(adjacency, 1).toPrettyString());
+
+        Int2DMatrix expected = adjacency;
+        for (int exponent = 2; exponent <= 9; exponent++) {
+            expected = expected.multiply(adjacency);
+            assertEquals(expected.toPrettyString(),
+                    multiplier.power(adjacency, exponent).toPrettyString());
+        }
+
+        // Paths of length 3 from 0 to 0 : 0 -> 2 -> 3 -> 0 only
+        assertEquals(1, multiplier.power(adjacency, 3).get(0, 0));
+    }
+
+    /** Tests the invalid arguments. */
+    @Test
+    void testInvalidArguments() {
+        ParallelMatrixMultiplier multiplier = new ParallelMatrixMultiplier();
+        Int2DMatrix matrix = new Int2DMatrix(3, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> multiplier.multiply(matrix, matrix));
+        assertThrows(IllegalArgumentException.class, () -> multiplier.power(matrix, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> multiplier.power(new Int2DMatrix(2, 2), -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelMatrixMultiplier(0, ForkJoinPool.commonPool()));
+    }
+
+}
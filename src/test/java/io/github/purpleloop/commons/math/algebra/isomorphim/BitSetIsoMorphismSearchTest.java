@@ -0,0 +1,134 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.purpleloop.commons.math.algebra.Int2DMatrix;
+
+/** Tests of the bit set based isomorphism search. */
+class BitSetIsoMorphismSearchTest {
+
+    // @formatter:off
+
+    /**  A data graph matrix. */
+    private static final int[][] DATA_GRAPH = { 
+            { 0, 1, 1, 0 }, 
+            { 0, 0, 1, 1 },
+            { 0, 0, 0, 0 },
+            { 0, 0, 0, 0 }
+          };
+
+    /**  A query graph matrix. */
+    private static final int[][] QUERY_GRAPH = { 
+            { 0, 1, 1 },
+            { 0, 0, 0 },
+            { 0, 0, 0 } 
+          };
+
+    // @formatter:on
+
+    /**
+     * Checks that two lists of mapping matrices are the same.
+     * 
+     * @param expected expected mappings
+     * @param actual actual mappings
+     */
+    static void assertSameMappings(List<Int2DMatrix> expected, List<Int2DMatrix> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int index = 0; index < expected.size(); index++) {
+            assertEquals(expected.get(index).toPrettyString(), actual.get(index).toPrettyString());
+        }
+    }
+
+    /** Tests the search on a small graph with multiple results. */
+    @Test
+    void testSearchMultiple() {
+        Int2DMatrix query = new Int2DMatrix(QUERY_GRAPH);
+        Int2DMatrix data = new Int2DMatrix(DATA_GRAPH);
+
+        List<Int2DMatrix> expected = IsoMorphismSearch.getIsomorphicSubgraphs(data, query, null,
+                IsoMorphismSearch.DEGREE_CRITERIA, false);
+        List<Int2DMatrix> actual = BitSetIsoMorphismSearch.getIsomorphicSubgraphs(data, query,
+                null, IsoMorphismSearch.DEGREE_CRITERIA);
+
+        assertEquals(4, actual.size());
+        assertSameMappings(expected, actual);
+    }
+
+    /** Tests the limitation of the number of results. */
+    @Test
+    void testSearchLimited() {
+        Int2DMatrix query = new Int2DMatrix(QUERY_GRAPH);
+        Int2DMatrix data = new Int2DMatrix(DATA_GRAPH);
+
+        List<Int2DMatrix> expected = IsoMorphismSearch.getIsomorphicSubgraphs(data, query, 3,
+                IsoMorphismSearch.DEGREE_CRITERIA, false);
+        List<Int2DMatrix> actual = BitSetIsoMorphismSearch.getIsomorphicSubgraphs(data, query,
+                3, IsoMorphismSearch.DEGREE_CRITERIA);
+
+        assertEquals(3, actual.size());
+        assertSameMappings(expected, actual);
+    }
+
+    /** Compares the results of both engines on random graphs. */
+    @Test
+    void testSameResultsOnRandomGraphs() {
+        Random random = new Random(42);
+
+        for (int run = 0; run < 20; run++) {
+            Int2DMatrix data = RandomGraphs.randomGraph(random, 8 + random.nextInt(64), 0.3);
+            Int2DMatrix query = RandomGraphs.subGraph(data, 2 + random.nextInt(3));
+
+            List<Int2DMatrix> expected = IsoMorphismSearch.getIsomorphicSubgraphs(data, query,
+                    500, IsoMorphismSearch.DEGREE_CRITERIA, false);
+            List<Int2DMatrix> actual = BitSetIsoMorphismSearch.getIsomorphicSubgraphs(data,
+                    query, 500, IsoMorphismSearch.DEGREE_CRITERIA);
+
+            assertSameMappings(expected, actual);
+        }
+    }
+
+    /** Tests the lazy enumeration of the isomorphisms. */
+    @Test
+    void testIterateIsomorphisms() {
+        Int2DMatrix query = new Int2DMatrix(QUERY_GRAPH);
+        Int2DMatrix data = new Int2DMatrix(DATA_GRAPH);
+
+        List<Int2DMatrix> expected = IsoMorphismSearch.getIsomorphicSubgraphs(data, query, null,
+                IsoMorphismSearch.DEGREE_CRITERIA, false);
+
+        Iterator<int[]> iterator = BitSetIsoMorphismSearch.iterateIsomorphisms(data, query,
+                IsoMorphismSearch.DEGREE_CRITERIA);
+        for (Int2DMatrix expectedMapping : expected) {
+            assertTrue(iterator.hasNext());
+            assertEquals(expectedMapping.toPrettyString(),
+                    IsoMorphismSearch.toMappingMatrix(iterator.next(), 4).toPrettyString());
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    /** Tests the lazy stream of the isomorphisms, stopped by the consumer. */
+    @Test
+    void testStreamIsomorphisms() {
+        Random random = new Random(17);
+        Int2DMatrix data = RandomGraphs.randomGraph(random, 50, 0.2);
+        Int2DMatrix query = RandomGraphs.subGraph(data, 3);
+
+        List<Int2DMatrix> expected = BitSetIsoMorphismSearch.getIsomorphicSubgraphs(data, query,
+                5, null);
+        List<Int2DMatrix> actual = BitSetIsoMorphismSearch.streamIsomorphisms(data, query, null)
+                .limit(5).map(mapping -> IsoMorphismSearch.toMappingMatrix(mapping, 50))
+                .collect(Collectors.toList());
+
+        assertSameMappings(expected, actual);
+    }
+
+}
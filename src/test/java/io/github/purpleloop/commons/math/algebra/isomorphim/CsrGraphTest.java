@@ -0,0 +1,129 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.purpleloop.commons.math.algebra.Int2DMatrix;
+
+/** Tests of the graphs in compressed sparse row format. */
+class CsrGraphTest {
+
+    /** Tests a graph built from an edge list, with a duplicate edge and a loop. */
+    @Test
+    void testFromEdges() {
+
+        // @formatter:off
+        CsrGraph graph = new CsrGraph(4,
+                new int[] { 2, 0, 0, 2, 3, 0 },
+                new int[] { 1, 2, 1, 2, 0, 2 });
+        // @formatter:on
+
+        assertEquals(4, graph.getNodeCount());
+        assertEquals(5, graph.getEdgeCount());
+
+        assertEquals(2, graph.getOutDegree(0));
+        assertEquals(0, graph.getOutDegree(1));
+        assertEquals(2, graph.getInDegree(1));
+        assertEquals(2, graph.getInDegree(2));
+
+        assertArrayEquals(new int[] { 1, 2 }, graph.getOutNeighbours(0));
+        assertArrayEquals(new int[] { 1, 2 }, graph.getOutNeighbours(2));
+        assertArrayEquals(new int[] { 0, 2 }, graph.getInNeighbours(2));
+
+        assertTrue(graph.hasEdge(2, 2));
+        assertTrue(graph.hasEdge(3, 0));
+        assertFalse(graph.hasEdge(0, 3));
+    }
+
+    /** Tests the conversions from and to an adjacency matrix. */
+    @Test
+    void testAdjacencyMatrix() {
+        Int2DMatrix matrix = RandomGraphs.randomGraph(new Random(3), 12, 0.3);
+        CsrGraph graph = new CsrGraph(matrix);
+
+        for (int from = 0; from < 12; from++) {
+            assertEquals(matrix.arraySumRow(from), graph.getOutDegree(from));
+            for (int to = 0; to < 12; to++) {
+                assertEquals(matrix.get(to, from) == 1, graph.hasEdge(from, to));
+            }
+        }
+
+        assertEquals(matrix.toPrettyString(), graph.toAdjacencyMatrix().toPrettyString());
+    }
+
+    /** Tests the rejection of invalid edges. */
+    @Test
+    void testInvalidEdges() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsrGraph(2, new int[] { 0 }, new int[] { 2 }));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsrGraph(2, new int[] { 0, 1 }, new int[] { 1 }));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsrGraph(new Int2DMatrix(2, 3)));
+    }
+
+    /** Tests the isomorphism check and degree criteria on sparse graphs. */
+    @Test
+    void testIsoMorphismCheck() {
+
+        // Path 0 -> 1 -> 2 -> 3 and edge 3 -> 0
+        CsrGraph data = new CsrGraph(4, new int[] { 0, 1, 2, 3 }, new int[] { 1, 2, 3, 0 });
+
+        // Path 0 -> 1 -> 2
+        CsrGraph query = new CsrGraph(3, new int[] { 0, 1 }, new int[] { 1, 2 });
+
+        assertTrue(IsoMorphismSearch.isIsoMorphism(new int[] { 3, 0, 1 }, data, query));
+        assertFalse(IsoMorphismSearch.isIsoMorphism(new int[] { 0, 2, 3 }, data, query));
+        assertTrue(IsoMorphismSearch.isIsoMorphism(
+                IsoMorphismSearch.toMappingMatrix(new int[] { 1, 2, 3 }, 4), data, query));
+
+        assertTrue(IsoMorphismSearch.DEGREE_CRITERIA.verified(query, data, 0, 0));
+        assertFalse(IsoMorphismSearch.DEGREE_CRITERIA.verified(data, query, 0, 2));
+    }
+
+    /** Tests that the degree criteria agrees on matrices and sparse graphs. */
+    @Test
+    void testDegreeCriteria() {
+
+        // Node 0 has two outgoing links, node 1 has one, and a cell of 2
+        Int2DMatrix matrix = new Int2DMatrix(new int[][] {
+                { 0, 1, 1 },
+                { 2, 0, 1 },
+                { 0, 0, 0 } });
+        CsrGraph graph = new CsrGraph(matrix);
+        SimilarityMappingCriteria criteria = IsoMorphismSearch.DEGREE_CRITERIA;
+
+        for (int queryNode = 0; queryNode < 3; queryNode++) {
+            for (int dataNode = 0; dataNode < 3; dataNode++) {
+                assertEquals(criteria.verified(matrix, matrix, queryNode, dataNode),
+                        criteria.verified(graph, graph, queryNode, dataNode));
+            }
+        }
+        assertFalse(criteria.verified(matrix, matrix, 0, 1));
+
+        SimilarityMappingCriteria prepared = criteria.prepare(matrix, matrix);
+        for (int queryNode = 0; queryNode < 3; queryNode++) {
+            for (int dataNode = 0; dataNode < 3; dataNode++) {
+                assertEquals(criteria.verified(matrix, matrix, queryNode, dataNode),
+                        prepared.verified(matrix, matrix, queryNode, dataNode));
+            }
+        }
+
+        // Criteria on adjacency matrices only are rejected on sparse graphs
+        SimilarityMappingCriteria matrixOnly = (queryGraph, dataGraph, queryIndex,
+                dataIndex) -> true;
+        assertThrows(IllegalArgumentException.class, () -> matrixOnly.prepare(graph, graph));
+        assertThrows(IllegalArgumentException.class,
+                () -> Vf2IsoMorphismSearch.getIsomorphisms(graph, graph, null, matrixOnly));
+        assertSame(criteria, criteria.prepare(graph, graph));
+    }
+
+}
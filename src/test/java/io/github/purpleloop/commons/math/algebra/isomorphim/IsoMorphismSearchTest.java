@@ -1,9 +1,13 @@
 package io.github.purpleloop.commons.math.algebra.isomorphim;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
@@ -95,6 +99,27 @@ class IsoMorphismSearchTest {
         assertTrue(IsoMorphismSearch.isIsoMorphism(morph, data, query));
     }
 
+    /** Tests the isomorphisms check on mapping arrays. */
+    @Test
+    void testIsIsoMorphismMapping() {
+        Int2DMatrix query = new Int2DMatrix(QUERY_GRAPH_1);
+        Int2DMatrix data = new Int2DMatrix(DATA_GRAPH_1);
+        assertTrue(IsoMorphismSearch.isIsoMorphism(new int[] { 1, 2, 3 }, data, query));
+        assertFalse(IsoMorphismSearch.isIsoMorphism(new int[] { 0, 1, 2 }, data, query));
+    }
+
+    /** Tests the incremental check of the bindings. */
+    @Test
+    void testConsistentBinding() {
+        Int2DMatrix query = new Int2DMatrix(QUERY_GRAPH_1);
+        Int2DMatrix data = new Int2DMatrix(DATA_GRAPH_1);
+        int[] mapping = { 1, 2, 0 };
+
+        assertTrue(IsoMorphismSearch.isConsistentBinding(mapping, 2, 3, data, query));
+        assertFalse(IsoMorphismSearch.isConsistentBinding(mapping, 2, 0, data, query));
+        assertFalse(IsoMorphismSearch.isConsistentBinding(mapping, 1, 0, data, query));
+    }
+
     /**
      * Tests the search for isomorphisms.
      * 
@@ -142,4 +167,89 @@ class IsoMorphismSearchTest {
 
     }
 
+    /**
+     * Tests the refinement of the mapping matrix.
+     * 
+     * Query node 0 has edges to nodes 1 and 2, data node 3 has no outgoing
+     * edge and data node 0 no incoming edge.
+     */
+    @Test
+    void testPruneOptions() {
+        Int2DMatrix query = new Int2DMatrix(QUERY_GRAPH_2);
+        Int2DMatrix data = new Int2DMatrix(DATA_GRAPH_1);
+        Int2DMatrix mapping = IsoMorphismSearch.initMorphism(data, query, (q, d, qi, di) -> true);
+
+        IsoMorphismSearchStatistics statistics = new IsoMorphismSearchStatistics();
+        assertTrue(IsoMorphismSearch.pruneOptions(mapping, query, data, statistics));
+
+        assertEquals(1, mapping.get(0, 0));
+        assertEquals(1, mapping.get(1, 0));
+        assertEquals(1, mapping.get(2, 0));
+        assertEquals(0, mapping.get(3, 0));
+        assertEquals(0, mapping.get(0, 1));
+        assertEquals(0, mapping.get(0, 2));
+        assertTrue(statistics.getRemovedCandidates() > 0);
+    }
+
+    /** Tests that the refinement detects an impossible mapping in a path. */
+    @Test
+    void testPruneOptionsNoCandidate() {
+        Int2DMatrix query = new Int2DMatrix(QUERY_GRAPH_1);
+        Int2DMatrix data = new Int2DMatrix(
+                new int[][] { { 0, 1, 0, 0 }, { 0, 0, 1, 0 }, { 0, 0, 0, 1 }, { 0, 0, 0, 0 } });
+        Int2DMatrix mapping = IsoMorphismSearch.initMorphism(data, query, (q, d, qi, di) -> true);
+
+        assertFalse(IsoMorphismSearch.pruneOptions(mapping, query, data,
+                new IsoMorphismSearchStatistics()));
+    }
+
+    /** Tests that pruning does not change the results, but the explored branches. */
+    @Test
+    void testSearchWithPruning() {
+        Random random = new Random(3);
+
+        for (int run = 0; run < 10; run++) {
+            Int2DMatrix data = RandomGraphs.randomGraph(random, 10 + random.nextInt(20), 0.2);
+            Int2DMatrix query = RandomGraphs.subGraph(data, 4);
+
+            IsoMorphismSearchStatistics withoutPruning = new IsoMorphismSearchStatistics();
+            IsoMorphismSearchStatistics withPruning = new IsoMorphismSearchStatistics();
+
+            List<Int2DMatrix> expected = IsoMorphismSearch.getIsomorphicSubgraphs(data, query,
+                    null, IsoMorphismSearch.DEGREE_CRITERIA, false, withoutPruning);
+            List<Int2DMatrix> actual = IsoMorphismSearch.getIsomorphicSubgraphs(data, query, null,
+                    IsoMorphismSearch.DEGREE_CRITERIA, true, withPruning);
+
+            BitSetIsoMorphismSearchTest.assertSameMappings(expected, actual);
+            assertTrue(withoutPruning.getRejectedBindings() > 0);
+            assertTrue(withPruning.getExploredBranches() <= withoutPruning.getExploredBranches());
+            assertEquals(0, withPruning.getRejectedBindings());
+        }
+    }
+
+    /** Tests that the lazy enumeration gives the same isomorphisms, in the same order. */
+    @Test
+    void testLazyEnumeration() {
+        Random random = new Random(5);
+
+        for (int run = 0; run < 10; run++) {
+            Int2DMatrix data = RandomGraphs.randomGraph(random, 10 + random.nextInt(20), 0.2);
+            Int2DMatrix query = RandomGraphs.subGraph(data, 3);
+
+            List<Int2DMatrix> expected = IsoMorphismSearch.getIsomorphicSubgraphs(data, query,
+                    null, IsoMorphismSearch.DEGREE_CRITERIA, true);
+            Iterator<int[]> iterator = IsoMorphismSearch.iterateIsomorphisms(data, query,
+                    IsoMorphismSearch.DEGREE_CRITERIA);
+            for (Int2DMatrix mapping : expected) {
+                assertTrue(iterator.hasNext());
+                assertArrayEquals(IsoMorphismSearch.toMapping(mapping, mapping.getHeight()),
+                        iterator.next());
+            }
+            assertFalse(iterator.hasNext());
+
+            assertEquals(Math.min(2, expected.size()), IsoMorphismSearch
+                    .streamIsomorphisms(data, query, null).limit(2).count());
+        }
+    }
+
 }
@@ -0,0 +1,148 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.purpleloop.commons.math.algebra.Int2DMatrix;
+
+/** Tests of the node signatures index. */
+class NodeSignatureIndexTest {
+
+    // @formatter:off
+
+    /** A triangle 0 -> 1 -> 2 -> 0, with a tail 2 -> 3. */
+    private static final int[][] TRIANGLE_WITH_TAIL = {
+            { 0, 1, 0, 0 },
+            { 0, 0, 1, 0 },
+            { 1, 0, 0, 1 },
+            { 0, 0, 0, 0 }
+          };
+
+    // @formatter:on
+
+    /** Tests the signatures of the nodes of a small graph. */
+    @Test
+    void testSignatures() {
+        NodeSignatureIndex index = new NodeSignatureIndex(new Int2DMatrix(TRIANGLE_WITH_TAIL));
+
+        assertEquals(4, index.getNodeCount());
+        assertEquals(2, index.getOutDegree(2));
+        assertEquals(1, index.getInDegree(2));
+        assertEquals(0, index.getLabel(2));
+
+        assertEquals(1, index.getTriangleCount(0));
+        assertEquals(1, index.getTriangleCount(2));
+        assertEquals(0, index.getTriangleCount(3));
+
+        // Neighbours of node 2 have degrees 2, 2 and 1
+        assertEquals(3, index.getNeighbourCount(2, 0));
+        assertEquals(2, index.getNeighbourCount(2, 1));
+        assertEquals(0, index.getNeighbourCount(2, 2));
+
+        // Node 3 has a single neighbour, of degree 3
+        assertEquals(1, index.getNeighbourCount(3, 1));
+        assertEquals(0, index.getNeighbourCount(3, 2));
+    }
+
+    /** Tests the comparison of the signatures. */
+    @Test
+    void testDominance() {
+        NodeSignatureIndex data = new NodeSignatureIndex(new Int2DMatrix(TRIANGLE_WITH_TAIL));
+        NodeSignatureIndex query = new NodeSignatureIndex(
+                new CsrGraph(2, new int[] { 0 }, new int[] { 1 }));
+
+        assertTrue(query.isDominatedBy(0, data, 0));
+        assertTrue(query.isDominatedBy(1, data, 3));
+        assertFalse(query.isDominatedBy(0, data, 3));
+
+        // Triangles are kept by the mapping
+        assertFalse(data.isDominatedBy(0, query, 0));
+    }
+
+    /** Tests the labels. */
+    @Test
+    void testLabels() {
+        CsrGraph graph = new CsrGraph(new Int2DMatrix(TRIANGLE_WITH_TAIL));
+        NodeSignatureIndex labelled = new NodeSignatureIndex(graph, new int[] { 1, 2, 1, 2 });
+
+        assertTrue(labelled.isDominatedBy(0, labelled, 2));
+        assertFalse(labelled.isDominatedBy(0, labelled, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new NodeSignatureIndex(graph, new int[] { 1 }));
+    }
+
+    /** Tests the cache of the indexes. */
+    @Test
+    void testCache() {
+        Int2DMatrix graph = new Int2DMatrix(TRIANGLE_WITH_TAIL);
+
+        NodeSignatureIndex index = NodeSignatureIndex.of(graph);
+        assertSame(index, NodeSignatureIndex.of(graph));
+
+        NodeSignatureIndex.evict(graph);
+        assertNotSame(index, NodeSignatureIndex.of(graph));
+
+        NodeSignatureIndex labelled = NodeSignatureIndex.ofLabelled(graph, new int[4]);
+        assertSame(labelled, NodeSignatureIndex.of(graph));
+    }
+
+    /** Tests that the signature criteria keeps all the isomorphisms. */
+    @Test
+    void testSignatureCriteria() {
+        Random random = new Random(11);
+
+        for (int run = 0; run < 10; run++) {
+            Int2DMatrix data = RandomGraphs.randomGraph(random, 10 + random.nextInt(20), 0.3);
+            Int2DMatrix query = RandomGraphs.subGraph(data, 3 + random.nextInt(2));
+
+            List<Int2DMatrix> expected = IsoMorphismSearch.getIsomorphicSubgraphs(data, query,
+                    null, IsoMorphismSearch.DEGREE_CRITERIA, true);
+            List<Int2DMatrix> actual = IsoMorphismSearch.getIsomorphicSubgraphs(data, query,
+                    null, IsoMorphismSearch.SIGNATURE_CRITERIA, true);
+
+            BitSetIsoMorphismSearchTest.assertSameMappings(expected, actual);
+
+            List<int[]> sparse = Vf2IsoMorphismSearch.getIsomorphisms(new CsrGraph(data),
+                    new CsrGraph(query), null, IsoMorphismSearch.SIGNATURE_CRITERIA);
+            assertEquals(expected.size(), sparse.size());
+        }
+    }
+
+    /** Tests that the prepared signature criteria gives the same results. */
+    @Test
+    void testPreparedSignatureCriteria() {
+        Int2DMatrix data = new Int2DMatrix(TRIANGLE_WITH_TAIL);
+        Int2DMatrix query = new Int2DMatrix(new int[][] { { 0, 1 }, { 0, 0 } });
+        CsrGraph sparseData = new CsrGraph(data);
+        CsrGraph sparseQuery = new CsrGraph(query);
+
+        SimilarityMappingCriteria criteria = IsoMorphismSearch.SIGNATURE_CRITERIA;
+        SimilarityMappingCriteria prepared = criteria.prepare(query, data);
+        SimilarityMappingCriteria preparedSparse = criteria.prepare(sparseQuery, sparseData);
+
+        for (int queryNode = 0; queryNode < 2; queryNode++) {
+            for (int dataNode = 0; dataNode < 4; dataNode++) {
+                boolean expected = criteria.verified(query, data, queryNode, dataNode);
+                assertEquals(expected, prepared.verified(query, data, queryNode, dataNode));
+                assertEquals(expected, preparedSparse.verified(sparseQuery, sparseData,
+                        queryNode, dataNode));
+            }
+        }
+        assertTrue(prepared.verified(query, data, 0, 2));
+        assertFalse(prepared.verified(query, data, 0, 3));
+
+        // Criteria needing no preparation are used as they are
+        SimilarityMappingCriteria any = (queryGraph, dataGraph, queryIndex, dataIndex) -> true;
+        assertSame(any, any.prepare(query, data));
+    }
+
+}
@@ -0,0 +1,57 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.purpleloop.commons.math.algebra.Int2DMatrix;
+
+/** Tests of the parallel isomorphism search. */
+class ParallelIsoMorphismSearchTest {
+
+    /** Compares the results of the sequential and parallel searches, with or without pruning. */
+    @Test
+    void testSameResultsAsSequential() {
+        Random random = new Random(7);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (int run = 0; run < 10; run++) {
+                Int2DMatrix data = RandomGraphs.randomGraph(random, 10 + random.nextInt(20), 0.3);
+                Int2DMatrix query = RandomGraphs.subGraph(data, 3);
+
+                List<Int2DMatrix> expected = IsoMorphismSearch.getIsomorphicSubgraphs(data,
+                        query, null, IsoMorphismSearch.DEGREE_CRITERIA, false);
+                boolean prune = run % 2 == 0;
+                List<Int2DMatrix> actual = ParallelIsoMorphismSearch.getIsomorphicSubgraphs(data,
+                        query, null, IsoMorphismSearch.DEGREE_CRITERIA, prune, pool);
+
+                BitSetIsoMorphismSearchTest.assertSameMappings(expected, actual);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Tests that the shared limit of results is respected. */
+    @Test
+    void testLimitedResults() {
+        Random random = new Random(11);
+        Int2DMatrix data = RandomGraphs.randomGraph(random, 40, 0.3);
+        Int2DMatrix query = RandomGraphs.subGraph(data, 3);
+
+        List<Int2DMatrix> results = ParallelIsoMorphismSearch.getIsomorphicSubgraphs(data, query,
+                25, IsoMorphismSearch.DEGREE_CRITERIA, false);
+
+        assertEquals(25, results.size());
+        for (Int2DMatrix mapping : results) {
+            assertTrue(IsoMorphismSearch.isIsoMorphism(mapping, data, query));
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.purpleloop.commons.math.algebra.Int2DMatrix;
+
+/** Tests of the prepared data graphs. */
+class PreparedDataGraphTest {
+
+    /**
+     * Checks that the isomorphisms found in a prepared graph are the ones of
+     * the bit set engine, in the same order.
+     *
+     * @param prepared the prepared data graph
+     * @param data adjacency matrix of the data graph
+     * @param query adjacency matrix of the query graph
+     */
+    private static void assertSameIsomorphisms(PreparedDataGraph prepared, Int2DMatrix data,
+            Int2DMatrix query) {
+        List<int[]> expected = BitSetIsoMorphismSearch
+                .streamIsomorphisms(data, query, (q, d, qi, di) -> true)
+                .collect(Collectors.toList());
+        List<int[]> actual = prepared.getIsomorphisms(query, null);
+
+        assertEquals(expected.size(), actual.size());
+        for (int index = 0; index < actual.size(); index++) {
+            assertArrayEquals(expected.get(index), actual.get(index));
+        }
+    }
+
+    /** Compares the results with the ones of the bit set engine. */
+    @Test
+    void testSameResults() {
+        Random random = new Random(17);
+
+        for (int run = 0; run < 10; run++) {
+            Int2DMatrix data = RandomGraphs.randomGraph(random, 10 + random.nextInt(80), 0.3);
+            Int2DMatrix query = RandomGraphs.subGraph(data, 3 + random.nextInt(2));
+
+            assertSameIsomorphisms(new PreparedDataGraph(data), data, query);
+            assertSameIsomorphisms(new PreparedDataGraph(data, null, false), data, query);
+        }
+    }
+
+    /** Tests that only the cells equal to 1 of a query are edges. */
+    @Test
+    void testQueryEdges() {
+        Int2DMatrix data = new Int2DMatrix(
+                new int[][] { { 0, 1, 0 }, { 0, 0, 1 }, { 0, 0, 0 } });
+        Int2DMatrix query = new Int2DMatrix(new int[][] { { 0, 1 }, { 2, 0 } });
+
+        PreparedDataGraph prepared = new PreparedDataGraph(data);
+        assertSameIsomorphisms(prepared, data, query);
+        assertEquals(2, prepared.getIsomorphisms(query, null).size());
+    }
+
+    /** Tests incremental updates of edges and nodes, beyond the capacity. */
+    @Test
+    void testUpdates() {
+        Random random = new Random(23);
+        Int2DMatrix data = RandomGraphs.randomGraph(random, 60, 0.2);
+        Int2DMatrix query = RandomGraphs.subGraph(data, 3);
+        PreparedDataGraph prepared = new PreparedDataGraph(data);
+
+        for (int node = 60; node < 70; node++) {
+            assertEquals(node, prepared.addNode(0));
+        }
+
+        Int2DMatrix grown = new Int2DMatrix(70, 70);
+        for (int from = 0; from < 60; from++) {
+            for (int to = 0; to < 60; to++) {
+                grown.set(to, from, data.get(to, from));
+            }
+        }
+        for (int edge = 0; edge < 50; edge++) {
+            int from = random.nextInt(70);
+            int to = random.nextInt(70);
+            if (from != to) {
+                assertEquals(grown.get(to, from) == 0, prepared.addEdge(from, to));
+                grown.set(to, from, 1);
+            }
+        }
+        assertEquals(grown.get(3, 2) == 1, prepared.removeEdge(2, 3));
+        grown.set(3, 2, 0);
+        assertFalse(prepared.removeEdge(2, 3));
+
+        assertEquals(grown.get(1, 0) == 1, prepared.hasEdge(0, 1));
+        assertSameIsomorphisms(prepared, grown, query);
+
+        // A removed node is no more a candidate
+        prepared.removeNode(5);
+        for (int[] mapping : prepared.getIsomorphisms(query, null)) {
+            assertTrue(IntStream.of(mapping).noneMatch(node -> node == 5));
+        }
+        assertThrows(IllegalArgumentException.class, () -> prepared.addEdge(5, 6));
+    }
+
+    /** Tests the labels of the nodes. */
+    @Test
+    void testLabels() {
+
+        // Path 0 -> 1 -> 2 -> 3
+        Int2DMatrix data = new Int2DMatrix(new int[][] { { 0, 1, 0, 0 }, { 0, 0, 1, 0 },
+                { 0, 0, 0, 1 }, { 0, 0, 0, 0 } });
+        Int2DMatrix query = new Int2DMatrix(new int[][] { { 0, 1 }, { 0, 0 } });
+        PreparedDataGraph prepared = new PreparedDataGraph(data, new int[] { 1, 2, 1, 2 }, true);
+
+        assertEquals(3, prepared.getIsomorphisms(query, null).size());
+
+        List<int[]> labelled = prepared.getIsomorphisms(query, new int[] { 1, 2 }, null);
+        assertEquals(2, labelled.size());
+        assertArrayEquals(new int[] { 0, 1 }, labelled.get(0));
+        assertArrayEquals(new int[] { 2, 3 }, labelled.get(1));
+
+        prepared.setLabel(1, 1);
+        assertEquals(1, prepared.getIsomorphisms(query, new int[] { 1, 2 }, null).size());
+        assertEquals(0, prepared.getIsomorphisms(query, new int[] { 3, 2 }, null).size());
+    }
+
+    /** Tests concurrent queries and the metrics. */
+    @Test
+    void testConcurrentQueries() {
+        Random random = new Random(29);
+        Int2DMatrix data = RandomGraphs.randomGraph(random, 100, 0.1);
+        Int2DMatrix query = RandomGraphs.subGraph(data, 3);
+        PreparedDataGraph prepared = new PreparedDataGraph(data);
+
+        int expected = prepared.getIsomorphisms(query, null).size();
+        assertTrue(IntStream.range(0, 16).parallel()
+                .allMatch(run -> prepared.getIsomorphisms(query, null).size() == expected));
+
+        assertTrue(prepared.getBuildTimeNanos() > 0);
+        assertTrue(prepared.getMemoryFootprint() >= 2L * 100 * 2 * Long.BYTES);
+        assertEquals(100, prepared.getNodeCount());
+    }
+
+}
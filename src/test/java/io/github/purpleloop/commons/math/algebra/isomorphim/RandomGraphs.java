@@ -0,0 +1,51 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import java.util.Random;
+
+import io.github.purpleloop.commons.math.algebra.Int2DMatrix;
+
+/** Generation of random graphs for isomorphism search tests. */
+final class RandomGraphs {
+
+    /** Private constructor. */
+    private RandomGraphs() {
+    }
+
+    /**
+     * Creates a random directed graph (Erdős–Rényi model, without loops).
+     *
+     * @param random the random generator to use
+     * @param size number of nodes
+     * @param edgeProbability probability of each edge
+     * @return the adjacency matrix of the graph
+     */
+    static Int2DMatrix randomGraph(Random random, int size, double edgeProbability) {
+        Int2DMatrix graph = new Int2DMatrix(size, size);
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                if (from != to && random.nextDouble() < edgeProbability) {
+                    graph.set(to, from, 1);
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Extracts the subgraph induced by the first nodes of a graph.
+     *
+     * @param graph the source graph
+     * @param size number of nodes to keep
+     * @return the adjacency matrix of the subgraph
+     */
+    static Int2DMatrix subGraph(Int2DMatrix graph, int size) {
+        Int2DMatrix subGraph = new Int2DMatrix(size, size);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                subGraph.set(x, y, graph.get(x, y));
+            }
+        }
+        return subGraph;
+    }
+
+}
@@ -0,0 +1,132 @@
+package io.github.purpleloop.commons.math.algebra.isomorphim;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.purpleloop.commons.math.algebra.Int2DMatrix;
+
+/** Tests of the VF2++ isomorphism search. */
+class Vf2IsoMorphismSearchTest {
+
+    /**
+     * @param mappings mapping matrices
+     * @return the set of the string representations of the mappings
+     */
+    static Set<String> toStrings(List<Int2DMatrix> mappings) {
+        Set<String> result = new TreeSet<>();
+        for (Int2DMatrix mapping : mappings) {
+            result.add(mapping.toPrettyString());
+        }
+        return result;
+    }
+
+    /** Compares the results of the Ullmann and VF2++ searches on random graphs. */
+    @Test
+    void testSameResultsOnRandomGraphs() {
+        Random random = new Random(5);
+
+        for (int run = 0; run < 20; run++) {
+            Int2DMatrix data = RandomGraphs.randomGraph(random, 8 + random.nextInt(20), 0.4);
+            Int2DMatrix query = RandomGraphs.subGraph(data, 2 + random.nextInt(3));
+
+            List<Int2DMatrix> expected = IsoMorphismSearch.getIsomorphicSubgraphs(data, query,
+                    null, IsoMorphismSearch.DEGREE_CRITERIA, true);
+            List<Int2DMatrix> actual = Vf2IsoMorphismSearch.getIsomorphicSubgraphs(data, query,
+                    null, IsoMorphismSearch.DEGREE_CRITERIA);
+
+            assertEquals(expected.size(), actual.size());
+            assertEquals(toStrings(expected), toStrings(actual));
+        }
+    }
+
+    /** Compares the searches on adjacency matrices and on sparse graphs. */
+    @Test
+    void testSameResultsOnSparseGraphs() {
+        Random random = new Random(7);
+
+        for (int run = 0; run < 10; run++) {
+            Int2DMatrix data = RandomGraphs.randomGraph(random, 10 + random.nextInt(30), 0.3);
+            Int2DMatrix query = RandomGraphs.subGraph(data, 2 + random.nextInt(3));
+            CsrGraph sparseData = new CsrGraph(data);
+            CsrGraph sparseQuery = new CsrGraph(query);
+
+            List<int[]> expected = Vf2IsoMorphismSearch.streamIsomorphisms(data, query, null)
+                    .collect(Collectors.toList());
+            List<int[]> actual = Vf2IsoMorphismSearch.getIsomorphisms(sparseData, sparseQuery,
+                    null, null);
+
+            assertEquals(expected.size(), actual.size());
+            for (int index = 0; index < actual.size(); index++) {
+                assertArrayEquals(expected.get(index), actual.get(index));
+                assertTrue(IsoMorphismSearch.isIsoMorphism(actual.get(index), sparseData,
+                        sparseQuery));
+            }
+        }
+    }
+
+    /** Tests a disconnected query graph with a self loop. */
+    @Test
+    void testDisconnectedQueryWithLoop() {
+        Int2DMatrix data = new Int2DMatrix(new int[][] { { 1, 1, 0, 0 }, { 0, 0, 1, 0 },
+                { 0, 0, 1, 0 }, { 0, 0, 0, 0 } });
+        Int2DMatrix query = new Int2DMatrix(new int[][] { { 1, 0 }, { 0, 0 } });
+
+        List<Int2DMatrix> expected = IsoMorphismSearch.getIsomorphicSubgraphs(data, query, null,
+                (q, d, qi, di) -> true, false);
+        List<Int2DMatrix> actual = Vf2IsoMorphismSearch.getIsomorphicSubgraphs(data, query,
+                null, (q, d, qi, di) -> true);
+
+        assertEquals(6, actual.size());
+        assertEquals(toStrings(expected), toStrings(actual));
+    }
+
+    /** Tests the limitation of the number of results. */
+    @Test
+    void testLimitedResults() {
+        Random random = new Random(13);
+        Int2DMatrix data = RandomGraphs.randomGraph(random, 60, 0.2);
+        Int2DMatrix query = RandomGraphs.subGraph(data, 3);
+
+        List<Int2DMatrix> results = Vf2IsoMorphismSearch.getIsomorphicSubgraphs(data, query, 10,
+                null);
+
+        assertEquals(10, results.size());
+        for (Int2DMatrix mapping : results) {
+            assertTrue(IsoMorphismSearch.isIsoMorphism(mapping, data, query));
+        }
+    }
+
+    /** Tests the lazy stream of the isomorphisms as mapping arrays. */
+    @Test
+    void testStreamIsomorphisms() {
+        Random random = new Random(19);
+        Int2DMatrix data = RandomGraphs.randomGraph(random, 30, 0.3);
+        Int2DMatrix query = RandomGraphs.subGraph(data, 4);
+
+        List<Int2DMatrix> expected = Vf2IsoMorphismSearch.getIsomorphicSubgraphs(data, query,
+                null, null);
+        List<int[]> actual = Vf2IsoMorphismSearch.streamIsomorphisms(data, query, null)
+                .collect(Collectors.toList());
+
+        assertEquals(expected.size(), actual.size());
+        for (int index = 0; index < actual.size(); index++) {
+            int[] mapping = actual.get(index);
+            assertEquals(4, mapping.length);
+            assertEquals(expected.get(index).toPrettyString(),
+                    IsoMorphismSearch.toMappingMatrix(mapping, 30).toPrettyString());
+        }
+
+        int[] first = Vf2IsoMorphismSearch.iterateIsomorphisms(data, query, null).next();
+        assertArrayEquals(actual.get(0), first);
+    }
+
+}
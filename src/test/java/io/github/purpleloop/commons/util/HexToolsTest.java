@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.IOException;
+
 import org.junit.jupiter.api.Test;
 
 /** Tests for hexadecimal tools. */
@@ -30,6 +32,22 @@ public class HexToolsTest {
         assertEquals("FF", HexTools.toHex(255, 2));
     }
 
+    /**
+     * Tests appending integers.
+     * 
+     * @throws IOException in case of problem
+     */
+    @Test
+    void testAppendHex() throws IOException {
+
+        StringBuilder sb = new StringBuilder();
+        HexTools.appendHex(sb, 255, 2);
+        HexTools.appendHex(sb, 0x1A, 4);
+        HexTools.appendHex(sb, -2, 2);
+        HexTools.appendHex(sb, 5, 0);
+        assertEquals("FF001AFE", sb.toString());
+    }
+
     /** Tests long conversion. */
     @Test
     void testToHexLong() {